@@ -1,21 +1,42 @@
 package com.pedrik.recognizer.controller;
 
+import com.pedrik.recognizer.controller.dto.EnvironmentDto;
+import com.pedrik.recognizer.controller.dto.EnvironmentResponseDto;
+import com.pedrik.recognizer.controller.dto.GrammarDto;
+import com.pedrik.recognizer.controller.dto.GrammarResponseDto;
 import com.pedrik.recognizer.controller.dto.InstructionDto;
 import com.pedrik.recognizer.controller.dto.ParseResponseDto;
+import com.pedrik.recognizer.service.analytic.GrammarRegistry;
 import com.pedrik.recognizer.service.analytic.RecognizerService;
+import com.pedrik.recognizer.service.semantic.Environment;
+import com.pedrik.recognizer.service.semantic.EnvironmentRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.Map;
+
 @Controller
 public class MainController {
 
     @Autowired
     private RecognizerService service;
 
+    @Autowired
+    private GrammarRegistry grammarRegistry;
+
+    @Autowired
+    private EnvironmentRegistry environmentRegistry;
+
+    // O ambiente é compartilhado por todas as requisições: alterá-lo pela API é opt-in
+    @Value("${recognizer.environment.updates-enabled:false}")
+    private boolean environmentUpdatesEnabled;
+
     @GetMapping("/")
     public String index() {
         return "index";
@@ -23,6 +44,42 @@ public class MainController {
 
     @PostMapping("/verify")
     public ResponseEntity<ParseResponseDto> verifyInstruction(@RequestBody InstructionDto request) {
-        return ResponseEntity.ok(service.verify(request.getInstruction()));
+        // Sem id vale a gramática padrão; um id desconhecido (ou despejado sem artefato) é 404
+        String grammarId = request.getGrammarId();
+        if (grammarId != null && !grammarId.isEmpty() && !grammarRegistry.isRegistered(grammarId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ParseResponseDto(false, "", "Gramática não registrada: " + grammarId));
+        }
+        if (request.isValidateOnly()) {
+            return ResponseEntity.ok(service.validate(request.getInstruction(), request.getGrammarId()));
+        }
+        return ResponseEntity.ok(service.verify(request.getInstruction(), request.getGrammarId()));
+    }
+
+    @PostMapping("/grammars")
+    public ResponseEntity<GrammarResponseDto> registerGrammar(@RequestBody GrammarDto request) {
+        try {
+            String id = grammarRegistry.register(request.getStart(), request.getRules());
+            return ResponseEntity.ok(new GrammarResponseDto(id, null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new GrammarResponseDto(null, e.getMessage()));
+        }
+    }
+
+    @PostMapping("/environment")
+    public ResponseEntity<EnvironmentResponseDto> updateEnvironment(@RequestBody EnvironmentDto request) {
+        if (!environmentUpdatesEnabled) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new EnvironmentResponseDto(0, 0, "Alteração do ambiente desabilitada"));
+        }
+        // Um replace vazio apagaria o ambiente de todos; um define vazio só copiaria tudo
+        Map<String, String> variables = request.getVariables();
+        if (variables == null || variables.isEmpty()) {
+            return ResponseEntity.badRequest().body(new EnvironmentResponseDto(0, 0, "Nenhuma variável informada"));
+        }
+        Environment environment = request.isReplace()
+                ? environmentRegistry.replace(variables)
+                : environmentRegistry.define(variables);
+        return ResponseEntity.ok(new EnvironmentResponseDto(environment.getVersion(), environment.size(), null));
     }
 }
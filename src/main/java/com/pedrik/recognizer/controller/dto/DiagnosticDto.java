@@ -0,0 +1,20 @@
+package com.pedrik.recognizer.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DiagnosticDto {
+    private String code;
+    private String message;
+    private int line;
+    private int column;
+    private long start;
+    private long end;
+    private List<String> expected;
+}
@@ -0,0 +1,15 @@
+package com.pedrik.recognizer.controller.dto;
+
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+public class EnvironmentDto {
+
+    // nome → tipo
+    private Map<String, String> variables;
+
+    // true substitui o ambiente inteiro; false acrescenta ou redefine as variáveis
+    private boolean replace;
+}
@@ -0,0 +1,14 @@
+package com.pedrik.recognizer.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EnvironmentResponseDto {
+    private long version;
+    private int size;
+    private String errorMessage;
+}
@@ -0,0 +1,15 @@
+package com.pedrik.recognizer.controller.dto;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class GrammarDto {
+
+    private String start;
+
+    // Mesmo formato do FirstFollowCalculator: não-terminal -> alternativas -> símbolos
+    private Map<String, List<List<String>>> rules;
+}
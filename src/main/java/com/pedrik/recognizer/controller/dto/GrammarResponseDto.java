@@ -0,0 +1,13 @@
+package com.pedrik.recognizer.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GrammarResponseDto {
+    private String id;
+    private String errorMessage;
+}
@@ -6,4 +6,10 @@ import lombok.Data;
 public class InstructionDto {
 
     private String instruction;
+
+    // Id devolvido por /grammars; vazio usa a gramática padrão
+    private String grammarId;
+
+    // Só verifica a sintaxe, sem árvore, log ou análise semântica
+    private boolean validateOnly;
 }
@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -11,4 +13,11 @@ public class ParseResponseDto {
     private boolean valid;
     private String tree;
     private String errorMessage;
+
+    // Todos os erros de sintaxe e depois os semânticos; errorMessage é o primeiro deles
+    private List<DiagnosticDto> diagnostics = List.of();
+
+    public ParseResponseDto(boolean valid, String tree, String errorMessage) {
+        this(valid, tree, errorMessage, List.of());
+    }
 }
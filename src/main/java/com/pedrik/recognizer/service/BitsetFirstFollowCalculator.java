@@ -0,0 +1,276 @@
+package com.pedrik.recognizer.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Mesmos conjuntos FIRST/FOLLOW do {@link FirstFollowCalculator}, calculados para gramáticas grandes.
+ * <p>
+ * Cada símbolo recebe um id inteiro e os conjuntos são bitsets {@code long[]} (o ε ocupa o
+ * último bit). Em vez de repetir passadas sobre todas as produções até nada mudar, uma lista de
+ * trabalho reprocessa só as produções que dependem de um não-terminal cujo FIRST mudou; o FOLLOW
+ * é dividido na parte fixa (FIRST dos sufixos) e nas arestas FOLLOW(A) ⊆ FOLLOW(B), propagadas
+ * também por lista de trabalho.
+ */
+public class BitsetFirstFollowCalculator {
+
+    private static final String EPSILON = "ε";
+    private static final String END_MARKER = "$";
+
+    private final String[] nonTerminals;
+    private final Map<String, Integer> nonTerminalIndex = new HashMap<>();
+    private final String[] terminals;
+    private final Map<String, Integer> terminalIndex = new HashMap<>();
+    private final int epsilonBit;
+    private final int words;
+    private final int start;
+
+    // Produções: lado esquerdo e símbolos (>= 0 não-terminal, < 0 terminal ~bit), sem ε
+    private final int[] lhs;
+    private final int[][] rhs;
+
+    // Conjuntos de cada não-terminal, contíguos: [nt * words, (nt + 1) * words)
+    private final long[] first;
+    private final long[] follow;
+
+    private Map<String, Set<String>> firstView;
+    private Map<String, Set<String>> followView;
+
+    public BitsetFirstFollowCalculator(String startSymbol, Map<String, List<List<String>>> grammar) {
+        this.nonTerminals = grammar.keySet().toArray(new String[0]);
+        for (int i = 0; i < nonTerminals.length; i++) {
+            nonTerminalIndex.put(nonTerminals[i], i);
+        }
+
+        List<String> terminalList = new ArrayList<>();
+        int productions = 0;
+        for (List<List<String>> alternatives : grammar.values()) {
+            for (List<String> production : alternatives) {
+                productions++;
+                for (String symbol : production) {
+                    if (!nonTerminalIndex.containsKey(symbol) && !symbol.equals(EPSILON)
+                            && terminalIndex.putIfAbsent(symbol, terminalList.size()) == null) {
+                        terminalList.add(symbol);
+                    }
+                }
+            }
+        }
+        if (terminalIndex.putIfAbsent(END_MARKER, terminalList.size()) == null) {
+            terminalList.add(END_MARKER);
+        }
+        this.terminals = terminalList.toArray(new String[0]);
+        this.epsilonBit = terminals.length;
+        this.words = (epsilonBit >>> 6) + 1;
+        this.start = nonTerminalIndex.get(startSymbol);
+
+        this.lhs = new int[productions];
+        this.rhs = new int[productions][];
+        int p = 0;
+        for (int nt = 0; nt < nonTerminals.length; nt++) {
+            for (List<String> production : grammar.get(nonTerminals[nt])) {
+                lhs[p] = nt;
+                rhs[p] = production.stream()
+                        .filter(symbol -> !symbol.equals(EPSILON))
+                        .mapToInt(symbol -> nonTerminalIndex.containsKey(symbol)
+                                ? nonTerminalIndex.get(symbol)
+                                : ~terminalIndex.get(symbol))
+                        .toArray();
+                p++;
+            }
+        }
+
+        this.first = new long[nonTerminals.length * words];
+        this.follow = new long[nonTerminals.length * words];
+        set(follow, start * words, terminalIndex.get(END_MARKER)); // marcador de fim da entrada
+    }
+
+    public void computeFirst() {
+        // Produções em que cada não-terminal aparece do lado direito
+        int[][] users = occurrences();
+
+        ArrayDeque<Integer> worklist = new ArrayDeque<>(lhs.length);
+        boolean[] queued = new boolean[lhs.length];
+        for (int p = 0; p < lhs.length; p++) {
+            worklist.add(p);
+            queued[p] = true;
+        }
+
+        long[] scratch = new long[words];
+        while (!worklist.isEmpty()) {
+            int p = worklist.poll();
+            queued[p] = false;
+
+            Arrays.fill(scratch, 0L);
+            boolean allNullable = true;
+            for (int symbol : rhs[p]) {
+                if (symbol < 0) {
+                    set(scratch, 0, ~symbol);
+                    allNullable = false;
+                    break;
+                }
+                or(scratch, 0, first, symbol * words);
+                if (!has(first, symbol * words, epsilonBit)) {
+                    allNullable = false;
+                    break;
+                }
+            }
+            clear(scratch, 0, epsilonBit);
+            if (allNullable) {
+                set(scratch, 0, epsilonBit);
+            }
+
+            int nt = lhs[p];
+            if (or(first, nt * words, scratch, 0)) {
+                for (int user : users[nt]) {
+                    if (!queued[user]) {
+                        queued[user] = true;
+                        worklist.add(user);
+                    }
+                }
+            }
+        }
+        firstView = null;
+    }
+
+    public void computeFollow() {
+        // Parte fixa: FIRST do sufixo (sem ε). Arestas: FOLLOW(lhs) ⊆ FOLLOW(B) quando o sufixo é anulável
+        List<List<Integer>> edges = new ArrayList<>(nonTerminals.length);
+        for (int i = 0; i < nonTerminals.length; i++) {
+            edges.add(new ArrayList<>());
+        }
+        long[] suffix = new long[words];
+        for (int p = 0; p < lhs.length; p++) {
+            Arrays.fill(suffix, 0L);
+            boolean suffixNullable = true;
+            int[] symbols = rhs[p];
+            for (int i = symbols.length - 1; i >= 0; i--) {
+                int symbol = symbols[i];
+                if (symbol < 0) {
+                    Arrays.fill(suffix, 0L);
+                    set(suffix, 0, ~symbol);
+                    suffixNullable = false;
+                    continue;
+                }
+                or(follow, symbol * words, suffix, 0);
+                if (suffixNullable && symbol != lhs[p]) {
+                    edges.get(lhs[p]).add(symbol);
+                }
+                boolean nullable = has(first, symbol * words, epsilonBit);
+                if (!nullable) {
+                    Arrays.fill(suffix, 0L);
+                    suffixNullable = false;
+                }
+                or(suffix, 0, first, symbol * words);
+                clear(suffix, 0, epsilonBit);
+            }
+        }
+
+        ArrayDeque<Integer> worklist = new ArrayDeque<>(nonTerminals.length);
+        boolean[] queued = new boolean[nonTerminals.length];
+        for (int nt = 0; nt < nonTerminals.length; nt++) {
+            worklist.add(nt);
+            queued[nt] = true;
+        }
+        while (!worklist.isEmpty()) {
+            int from = worklist.poll();
+            queued[from] = false;
+            for (int to : edges.get(from)) {
+                if (or(follow, to * words, follow, from * words) && !queued[to]) {
+                    queued[to] = true;
+                    worklist.add(to);
+                }
+            }
+        }
+        followView = null;
+    }
+
+    private int[][] occurrences() {
+        List<Set<Integer>> users = new ArrayList<>(nonTerminals.length);
+        for (int i = 0; i < nonTerminals.length; i++) {
+            users.add(new HashSet<>());
+        }
+        for (int p = 0; p < lhs.length; p++) {
+            for (int symbol : rhs[p]) {
+                if (symbol >= 0) {
+                    users.get(symbol).add(p);
+                }
+            }
+        }
+        int[][] result = new int[nonTerminals.length][];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = users.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return result;
+    }
+
+    /**
+     * FIRST de cada não-terminal, no mesmo formato do {@link FirstFollowCalculator#getFirst()}.
+     */
+    public Map<String, Set<String>> getFirst() {
+        if (firstView == null) {
+            firstView = toSets(first);
+        }
+        return firstView;
+    }
+
+    /**
+     * FOLLOW de cada não-terminal, no mesmo formato do {@link FirstFollowCalculator#getFollow()}.
+     */
+    public Map<String, Set<String>> getFollow() {
+        if (followView == null) {
+            followView = toSets(follow);
+        }
+        return followView;
+    }
+
+    private Map<String, Set<String>> toSets(long[] sets) {
+        Map<String, Set<String>> result = new LinkedHashMap<>();
+        for (int nt = 0; nt < nonTerminals.length; nt++) {
+            Set<String> set = new HashSet<>();
+            int base = nt * words;
+            for (int w = 0; w < words; w++) {
+                long bits = sets[base + w];
+                while (bits != 0) {
+                    int bit = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    set.add(bit == epsilonBit ? EPSILON : terminals[bit]);
+                    bits &= bits - 1;
+                }
+            }
+            result.put(nonTerminals[nt], set);
+        }
+        return result;
+    }
+
+    private static boolean has(long[] sets, int base, int bit) {
+        return (sets[base + (bit >>> 6)] & (1L << bit)) != 0;
+    }
+
+    private static void set(long[] sets, int base, int bit) {
+        sets[base + (bit >>> 6)] |= 1L << bit;
+    }
+
+    private static void clear(long[] sets, int base, int bit) {
+        sets[base + (bit >>> 6)] &= ~(1L << bit);
+    }
+
+    // target |= source; retorna se target mudou
+    private boolean or(long[] target, int targetBase, long[] source, int sourceBase) {
+        boolean changed = false;
+        for (int w = 0; w < words; w++) {
+            long before = target[targetBase + w];
+            long after = before | source[sourceBase + w];
+            if (after != before) {
+                target[targetBase + w] = after;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+}
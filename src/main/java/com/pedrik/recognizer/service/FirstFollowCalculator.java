@@ -124,6 +124,14 @@ public class FirstFollowCalculator {
         } while (changed);
     }
 
+    public Map<String, Set<String>> getFirst() {
+        return first;
+    }
+
+    public Map<String, Set<String>> getFollow() {
+        return follow;
+    }
+
     public void printFirst() {
         System.out.println("First sets:");
         for (String nt : nonTerminals) {
@@ -0,0 +1,93 @@
+package com.pedrik.recognizer.service.analytic;
+
+import com.pedrik.recognizer.service.analytic.tree.ParseTreeArena;
+import com.pedrik.recognizer.service.lexical.PackedTokenBuffer;
+import com.pedrik.recognizer.service.lexical.PackedTokenStream;
+import com.pedrik.recognizer.service.lexical.Token;
+
+import java.util.Arrays;
+
+/**
+ * Monta a árvore numa {@link ParseTreeArena} a partir dos eventos da análise.
+ * <p>
+ * O parser consome os tokens em ordem, então o n-ésimo terminal recebido é o token n do
+ * {@link PackedTokenBuffer} que alimentou a análise. O listener trabalha por índices
+ * ({@link #usesIndices()}): nenhum {@link Token} é criado e nenhum nome é procurado por nó.
+ */
+public class ArenaTreeListener implements ParseListener {
+
+    private final ParseTreeArena arena;
+    private final ParsingTable table;
+    private final PackedTokenBuffer tokens;
+    private int[] open = new int[64];
+    private int top = 0;
+    private int nextToken = 0;
+
+    public ArenaTreeListener(ParseTreeArena arena) {
+        this.arena = arena;
+        this.table = arena.getTable();
+        this.tokens = arena.getTokens();
+    }
+
+    /**
+     * Analisa os tokens com a tabela e deixa a árvore na arena, reaproveitando os seus arrays.
+     * Lança {@link RuntimeException} no primeiro erro de sintaxe.
+     */
+    public static int parse(ParsingTable table, PackedTokenBuffer tokens, ParseTreeArena arena) {
+        arena.reset(table, tokens);
+        new TableDrivenParser(table, new PackedTokenStream(tokens)).parse(new ArenaTreeListener(arena));
+        return arena.root();
+    }
+
+    private int parent() {
+        return top == 0 ? ParseTreeArena.NONE : open[top - 1];
+    }
+
+    @Override
+    public boolean usesIndices() {
+        return true;
+    }
+
+    @Override
+    public void enterRule(int nonTerminal) {
+        int node = arena.addNonTerminal(parent(), nonTerminal);
+        if (top == open.length) {
+            open = Arrays.copyOf(open, top * 2);
+        }
+        open[top++] = node;
+    }
+
+    @Override
+    public void exitRule(int nonTerminal) {
+        top--;
+    }
+
+    @Override
+    public void terminal(int terminal) {
+        arena.addTerminal(parent(), terminal, nextToken++);
+    }
+
+    // Combinado com um listener por nomes (andThen), recebe os mesmos eventos pelo nome
+
+    @Override
+    public void enterRule(String rule) {
+        enterRule(table.nonTerminalOf(rule));
+    }
+
+    @Override
+    public void exitRule(String rule) {
+        top--;
+    }
+
+    @Override
+    public void terminal(Token token) {
+        // Tipo e trecho vêm do buffer, como o parser os casou: uma string "OR" não vira o terminal OR
+        int index = nextToken;
+        terminal(table.terminalOf(tokens.typeOrdinal(index), tokens.getInput(), tokens.start(index), tokens.end(index)));
+    }
+
+    @Override
+    public void epsilon() {
+        arena.addEpsilon(parent());
+    }
+}
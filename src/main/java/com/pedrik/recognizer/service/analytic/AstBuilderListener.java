@@ -0,0 +1,164 @@
+package com.pedrik.recognizer.service.analytic;
+
+import com.pedrik.recognizer.service.analytic.ast.And;
+import com.pedrik.recognizer.service.analytic.ast.AstNode;
+import com.pedrik.recognizer.service.analytic.ast.Not;
+import com.pedrik.recognizer.service.analytic.ast.Or;
+import com.pedrik.recognizer.service.analytic.ast.Var;
+import com.pedrik.recognizer.service.analytic.tree.Node;
+import com.pedrik.recognizer.service.analytic.tree.NonTerminalNode;
+import com.pedrik.recognizer.service.analytic.tree.TerminalNode;
+import com.pedrik.recognizer.service.analytic.tree.TreeVisitor;
+import com.pedrik.recognizer.service.analytic.tree.TreeWalker;
+import com.pedrik.recognizer.service.lexical.Token;
+import com.pedrik.recognizer.service.lexical.TokenType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Monta a árvore sintática abstrata durante a análise da gramática de {@link BooleanExpressionGrammar},
+ * sem passar pela árvore concreta.
+ * <p>
+ * As cadeias {@code T E'} de cada {@code E} são dobradas no fim da regra. A gramática não tem
+ * precedência: os operadores são aplicados da esquerda para a direita, então {@code a AND b OR c}
+ * é {@code Or(And(a, b), c)}; operadores iguais seguidos viram um único nó n-ário. Parênteses
+ * não geram nó e o trecho de cada nó vai do seu primeiro ao seu último token (incluindo o
+ * {@code NOT}).
+ */
+public class AstBuilderListener implements ParseListener {
+
+    private static final int AND = 0;
+    private static final int OR = 1;
+
+    // Operandos já montados e os operadores entre eles, de todos os E abertos
+    private final List<AstNode> operands = new ArrayList<>();
+    private int[] operators = new int[16];
+    private int operatorCount = 0;
+
+    // Para cada E aberto: onde começam os seus operandos e operadores
+    private int[] operandBases = new int[16];
+    private int[] operatorBases = new int[16];
+    private int openExpressions = 0;
+
+    // Para cada T aberto: início do NOT, ou -2 se não há NOT
+    private long[] notStarts = new long[16];
+    private int openTerms = 0;
+
+    private AstNode root;
+
+    @Override
+    public void enterRule(String rule) {
+        if (rule.equals("E")) {
+            if (openExpressions == operandBases.length) {
+                operandBases = Arrays.copyOf(operandBases, openExpressions * 2);
+                operatorBases = Arrays.copyOf(operatorBases, openExpressions * 2);
+            }
+            operandBases[openExpressions] = operands.size();
+            operatorBases[openExpressions] = operatorCount;
+            openExpressions++;
+        } else if (rule.equals("T")) {
+            if (openTerms == notStarts.length) {
+                notStarts = Arrays.copyOf(notStarts, openTerms * 2);
+            }
+            notStarts[openTerms++] = -2;
+        }
+    }
+
+    @Override
+    public void exitRule(String rule) {
+        if (rule.equals("E")) {
+            openExpressions--;
+            AstNode expression = fold(operandBases[openExpressions], operatorBases[openExpressions]);
+            if (openExpressions == 0) {
+                root = expression;
+            } else {
+                operands.add(expression);
+            }
+        } else if (rule.equals("T")) {
+            long notStart = notStarts[--openTerms];
+            if (notStart != -2) {
+                AstNode operand = operands.remove(operands.size() - 1);
+                operands.add(new Not(operand, notStart, operand.getEnd()));
+            }
+        }
+    }
+
+    @Override
+    public void terminal(Token token) {
+        String lexeme = token.getLexeme();
+        if (token.getType() == TokenType.IDENTIFIER) {
+            operands.add(new Var(lexeme, token.getOffset(), token.getEnd()));
+        } else if (lexeme.equals("NOT")) {
+            notStarts[openTerms - 1] = token.getOffset();
+        } else if (lexeme.equals("AND") || lexeme.equals("OR")) {
+            if (operatorCount == operators.length) {
+                operators = Arrays.copyOf(operators, operatorCount * 2);
+            }
+            operators[operatorCount++] = lexeme.equals("AND") ? AND : OR;
+        }
+    }
+
+    /**
+     * Dobra t1 op1 t2 ... tn da esquerda para a direita: um operador diferente do anterior fecha
+     * o grupo atual, que passa a ser o primeiro operando do novo grupo.
+     */
+    private AstNode fold(int operandBase, int operatorBase) {
+        List<AstNode> group = new ArrayList<>();
+        group.add(operands.get(operandBase));
+        int groupOperator = -1;
+        for (int i = operatorBase, operand = operandBase + 1; i < operatorCount; i++, operand++) {
+            if (groupOperator != -1 && operators[i] != groupOperator) {
+                AstNode closed = close(group, groupOperator);
+                group = new ArrayList<>();
+                group.add(closed);
+            }
+            groupOperator = operators[i];
+            group.add(operands.get(operand));
+        }
+        AstNode result = groupOperator == -1 ? group.get(0) : close(group, groupOperator);
+        operands.subList(operandBase, operands.size()).clear();
+        operatorCount = operatorBase;
+        return result;
+    }
+
+    private static AstNode close(List<AstNode> group, int operator) {
+        return operator == AND ? new And(group) : new Or(group);
+    }
+
+    /**
+     * Monta a árvore abstrata de uma árvore concreta já pronta (do {@link RecursiveDescentParser}
+     * ou do {@link TreeBuilderListener}), repetindo os eventos da análise com o {@link TreeWalker}.
+     */
+    public static AstNode fromTree(Node tree) {
+        AstBuilderListener builder = new AstBuilderListener();
+        TreeWalker.walk(tree, new TreeVisitor() {
+            @Override
+            public Action enterNonTerminal(NonTerminalNode node, int depth) {
+                builder.enterRule(node.getName());
+                return Action.CONTINUE;
+            }
+
+            @Override
+            public Action exitNonTerminal(NonTerminalNode node, int depth) {
+                builder.exitRule(node.getName());
+                return Action.CONTINUE;
+            }
+
+            @Override
+            public Action visitTerminal(TerminalNode node, int depth) {
+                builder.terminal(node.getToken());
+                return Action.CONTINUE;
+            }
+        });
+        return builder.getRoot();
+    }
+
+    /**
+     * Raiz da árvore abstrata, disponível depois de uma análise sem erros.
+     */
+    public AstNode getRoot() {
+        return root;
+    }
+}
@@ -0,0 +1,38 @@
+package com.pedrik.recognizer.service.analytic;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gramática das expressões booleanas reconhecidas pelo {@link RecursiveDescentParser}:
+ * <pre>
+ * E  → T E'
+ * E' → AND T E' | OR T E' | ε
+ * T  → NOT F | F
+ * F  → ( E ) | id
+ * </pre>
+ */
+public final class BooleanExpressionGrammar {
+
+    public static final String START = "E";
+
+    private static final Map<String, List<List<String>>> GRAMMAR = build();
+
+    private BooleanExpressionGrammar() {
+    }
+
+    public static Map<String, List<List<String>>> grammar() {
+        return GRAMMAR;
+    }
+
+    private static Map<String, List<List<String>>> build() {
+        Map<String, List<List<String>>> grammar = new LinkedHashMap<>();
+        grammar.put("E", List.of(List.of("T", "E'")));
+        grammar.put("E'", List.of(List.of("AND", "T", "E'"), List.of("OR", "T", "E'"), List.of("ε")));
+        grammar.put("T", List.of(List.of("NOT", "F"), List.of("F")));
+        grammar.put("F", List.of(List.of("(", "E", ")"), List.of("id")));
+        return Collections.unmodifiableMap(grammar);
+    }
+}
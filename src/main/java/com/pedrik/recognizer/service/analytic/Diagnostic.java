@@ -0,0 +1,81 @@
+package com.pedrik.recognizer.service.analytic;
+
+import com.pedrik.recognizer.service.lexical.Token;
+
+import java.util.List;
+
+/**
+ * Erro de sintaxe encontrado sem interromper a análise: código, mensagem (a mesma da exceção
+ * do modo que lança), posição do token e terminais que seriam aceitos ali.
+ * O trecho vai de {@code start} a {@code end} na entrada, como o token ocupa o texto original
+ * (aspas, marcadores de comentário e bytes em arquivos mapeados), ou {@code -1} quando o token não
+ * traz a posição.
+ */
+public class Diagnostic {
+
+    public enum Code {
+        /** O terminal no topo da pilha não corresponde ao token. */
+        UNEXPECTED_TOKEN,
+        /** Não há produção do não-terminal para o token. */
+        NO_PRODUCTION,
+        /** A expressão terminou antes do fim da entrada. */
+        TRAILING_INPUT
+    }
+
+    private final Code code;
+    private final String message;
+    private final String lexeme;
+    private final int line;
+    private final int column;
+    private final long start;
+    private final long end;
+    private final List<String> expected;
+
+    public Diagnostic(Code code, String message, Token token, List<String> expected) {
+        this.code = code;
+        this.message = message;
+        this.lexeme = token.getLexeme();
+        this.line = token.getLine();
+        this.column = token.getColumn();
+        this.start = token.getOffset();
+        this.end = token.getEnd();
+        this.expected = expected;
+    }
+
+    public Code getCode() {
+        return code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getLexeme() {
+        return lexeme;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getEnd() {
+        return end;
+    }
+
+    public List<String> getExpected() {
+        return expected;
+    }
+
+    @Override
+    public String toString() {
+        return code + " " + line + ":" + column + " " + message;
+    }
+}
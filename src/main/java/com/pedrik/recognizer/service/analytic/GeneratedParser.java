@@ -0,0 +1,21 @@
+package com.pedrik.recognizer.service.analytic;
+
+import com.pedrik.recognizer.service.analytic.tree.Node;
+
+/**
+ * Contrato dos parsers gerados pelo {@code ParserGenerator}. Eles são compilados depois das
+ * classes principais, então a aplicação os obtém por {@link GeneratedParsers} e os usa só por
+ * esta interface.
+ */
+public interface GeneratedParser {
+
+    /**
+     * Registra no logger a árvore no mesmo formato do {@link ParseLogListener}.
+     */
+    void setLogger(StringBuilder logger);
+
+    /**
+     * Analisa a entrada inteira e devolve a raiz; lança {@link RuntimeException} no primeiro erro.
+     */
+    Node parse();
+}
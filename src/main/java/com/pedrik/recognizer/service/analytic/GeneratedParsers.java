@@ -0,0 +1,44 @@
+package com.pedrik.recognizer.service.analytic;
+
+import com.pedrik.recognizer.service.lexical.TokenStream;
+
+import java.lang.reflect.Constructor;
+
+/**
+ * Acesso aos parsers gerados em tempo de build a partir de {@code src/main/grammar}. Como são
+ * compilados depois das classes principais, são carregados por reflexão; fora do build do Maven
+ * (ou sem o arquivo de gramática) não existem e quem chama usa o {@link TableDrivenParser}.
+ */
+public final class GeneratedParsers {
+
+    public static final String BOOLEAN_EXPRESSIONS = "com.pedrik.recognizer.service.analytic.generated.BooleanExpressionParser";
+
+    private static final Constructor<? extends GeneratedParser> BOOLEAN_EXPRESSIONS_PARSER = load(BOOLEAN_EXPRESSIONS);
+
+    private GeneratedParsers() {
+    }
+
+    private static Constructor<? extends GeneratedParser> load(String className) {
+        try {
+            return Class.forName(className).asSubclass(GeneratedParser.class).getConstructor(TokenStream.class);
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+            return null;
+        }
+    }
+
+    public static boolean hasBooleanExpressions() {
+        return BOOLEAN_EXPRESSIONS_PARSER != null;
+    }
+
+    /**
+     * Parser gerado da gramática de {@link BooleanExpressionGrammar} sobre os tokens.
+     * Só deve ser chamado se {@link #hasBooleanExpressions()}.
+     */
+    public static GeneratedParser booleanExpressions(TokenStream tokens) {
+        try {
+            return BOOLEAN_EXPRESSIONS_PARSER.newInstance(tokens);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Falha ao criar o parser gerado " + BOOLEAN_EXPRESSIONS, e);
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.pedrik.recognizer.service.analytic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Gramática compilada em formato binário versionado, para ser carregada com um mapeamento de
+ * memória em vez de recalcular FIRST/FOLLOW e a tabela LL(1).
+ * <p>
+ * Layout (big-endian): {@code magic}, {@code versão}, {@code CRC32 do conteúdo}, {@code tamanho do
+ * conteúdo} e o conteúdo: id da gramática, símbolo inicial, regras, terminais, não-terminais,
+ * índice do inicial, FIRST e FOLLOW em bitsets, produções e a tabela densa. Strings são
+ * {@code int} com o tamanho seguido dos bytes UTF-8.
+ * <p>
+ * Na leitura só os nomes, as regras e as produções são decodificados; a tabela densa e os
+ * bitsets, que crescem com não-terminais × terminais, são lidos direto do arquivo mapeado.
+ */
+public final class GrammarArtifact {
+
+    public static final int MAGIC = 0x4C4C3147; // "LL1G"
+    public static final int VERSION = 1;
+    public static final String EXTENSION = ".ll1";
+
+    private static final int HEADER_SIZE = 16;
+
+    private final String grammarId;
+    private final String startSymbol;
+    private final Map<String, List<List<String>>> grammar;
+    private final ParsingTable table;
+
+    public GrammarArtifact(String grammarId, String startSymbol, Map<String, List<List<String>>> grammar, ParsingTable table) {
+        this.grammarId = grammarId;
+        this.startSymbol = startSymbol;
+        this.grammar = grammar;
+        this.table = table;
+    }
+
+    public String getGrammarId() {
+        return grammarId;
+    }
+
+    public String getStartSymbol() {
+        return startSymbol;
+    }
+
+    public Map<String, List<List<String>>> getGrammar() {
+        return grammar;
+    }
+
+    public ParsingTable getTable() {
+        return table;
+    }
+
+    /**
+     * Grava o artefato num arquivo temporário e o move para o destino, para que leitores
+     * concorrentes nunca vejam um arquivo pela metade.
+     */
+    public void write(Path file) throws IOException {
+        ByteBuffer payload = encode();
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt((int) crc.getValue()).putInt(payload.remaining()).flip();
+
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            while (payload.hasRemaining()) {
+                channel.write(payload);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Mapeia o arquivo e decodifica o artefato. Lança {@link IOException} se o arquivo estiver
+     * truncado, corrompido (CRC divergente) ou for de outra versão do formato.
+     */
+    public static GrammarArtifact read(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Artefato de gramática inválido: " + file);
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Versão de artefato não suportada (" + version + "): " + file);
+        }
+        int checksum = buffer.getInt();
+        int length = buffer.getInt();
+        if (length != buffer.remaining()) {
+            throw new IOException("Artefato de gramática truncado: " + file);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("Checksum divergente no artefato de gramática: " + file);
+        }
+        try {
+            return decode(buffer);
+        } catch (RuntimeException e) {
+            throw new IOException("Artefato de gramática inválido: " + file, e);
+        }
+    }
+
+    private ByteBuffer encode() {
+        Encoder out = new Encoder();
+        out.string(grammarId);
+        out.string(startSymbol);
+        out.putInt(grammar.size());
+        for (Map.Entry<String, List<List<String>>> rule : grammar.entrySet()) {
+            out.string(rule.getKey());
+            out.putInt(rule.getValue().size());
+            for (List<String> production : rule.getValue()) {
+                out.putInt(production.size());
+                production.forEach(out::string);
+            }
+        }
+
+        out.strings(table.terminals());
+        out.strings(table.nonTerminals());
+        out.putInt(table.start());
+        out.longs(table.firstBits());
+        out.longs(table.followBits());
+        int[][] productions = table.productions();
+        out.putInt(productions.length);
+        for (int p = 0; p < productions.length; p++) {
+            out.putInt(table.productionLhs()[p]);
+            out.ints(productions[p]);
+        }
+        out.ints(table.cells());
+        return out.finish();
+    }
+
+    private static GrammarArtifact decode(ByteBuffer in) {
+        String grammarId = string(in);
+        String startSymbol = string(in);
+        Map<String, List<List<String>>> grammar = new LinkedHashMap<>();
+        int rules = in.getInt();
+        for (int r = 0; r < rules; r++) {
+            String nonTerminal = string(in);
+            int alternatives = in.getInt();
+            List<List<String>> productions = new ArrayList<>(alternatives);
+            for (int a = 0; a < alternatives; a++) {
+                int size = in.getInt();
+                List<String> production = new ArrayList<>(size);
+                for (int s = 0; s < size; s++) {
+                    production.add(string(in));
+                }
+                productions.add(List.copyOf(production));
+            }
+            grammar.put(nonTerminal, List.copyOf(productions));
+        }
+
+        String[] terminals = strings(in);
+        String[] nonTerminals = strings(in);
+        int start = in.getInt();
+        LongBuffer first = mappedLongs(in);
+        LongBuffer follow = mappedLongs(in);
+        int count = in.getInt();
+        int[][] productions = new int[count][];
+        int[] lhs = new int[count];
+        for (int p = 0; p < count; p++) {
+            lhs[p] = in.getInt();
+            productions[p] = ints(in);
+        }
+        IntBuffer cells = mappedInts(in);
+        int words = (terminals.length >>> 6) + 1;
+        if (in.hasRemaining() || cells.capacity() != terminals.length * nonTerminals.length
+                || first.capacity() != nonTerminals.length * words || follow.capacity() != first.capacity()
+                || start < 0 || start >= nonTerminals.length) {
+            throw new IllegalStateException("conteúdo inconsistente");
+        }
+        ParsingTable table = new ParsingTable(terminals, nonTerminals, start, productions, lhs, cells, first, follow);
+        return new GrammarArtifact(grammarId, startSymbol, grammar, table);
+    }
+
+    private static String string(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String[] strings(ByteBuffer in) {
+        String[] result = new String[in.getInt()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = string(in);
+        }
+        return result;
+    }
+
+    private static int[] ints(ByteBuffer in) {
+        int[] result = new int[in.getInt()];
+        in.asIntBuffer().get(result);
+        in.position(in.position() + result.length * Integer.BYTES);
+        return result;
+    }
+
+    // Visões sobre o próprio buffer (o mapeamento do arquivo), sem copiar para o heap
+    private static IntBuffer mappedInts(ByteBuffer in) {
+        int length = in.getInt();
+        IntBuffer view = in.slice(in.position(), length * Integer.BYTES).asIntBuffer();
+        in.position(in.position() + length * Integer.BYTES);
+        return view;
+    }
+
+    private static LongBuffer mappedLongs(ByteBuffer in) {
+        int length = in.getInt();
+        LongBuffer view = in.slice(in.position(), length * Long.BYTES).asLongBuffer();
+        in.position(in.position() + length * Long.BYTES);
+        return view;
+    }
+
+    // Buffer de escrita que cresce conforme necessário
+    private static final class Encoder {
+
+        private ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+        private void ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+        }
+
+        void putInt(int value) {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void string(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            ensure(Integer.BYTES + bytes.length);
+            buffer.putInt(bytes.length).put(bytes);
+        }
+
+        void strings(String[] values) {
+            putInt(values.length);
+            for (String value : values) {
+                string(value);
+            }
+        }
+
+        void ints(int[] values) {
+            ensure(Integer.BYTES * (values.length + 1));
+            buffer.putInt(values.length);
+            for (int value : values) {
+                buffer.putInt(value);
+            }
+        }
+
+        void ints(IntBuffer values) {
+            ensure(Integer.BYTES * (values.remaining() + 1));
+            buffer.putInt(values.remaining());
+            while (values.hasRemaining()) {
+                buffer.putInt(values.get());
+            }
+        }
+
+        void longs(LongBuffer values) {
+            ensure(Integer.BYTES + Long.BYTES * values.remaining());
+            buffer.putInt(values.remaining());
+            while (values.hasRemaining()) {
+                buffer.putLong(values.get());
+            }
+        }
+
+        ByteBuffer finish() {
+            return buffer.flip();
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.pedrik.recognizer.service.analytic;
+
+import com.pedrik.recognizer.service.BitsetFirstFollowCalculator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Registro de gramáticas LL(1) identificadas pela impressão digital (SHA-256) da sua forma canônica.
+ * <p>
+ * A tabela de cada gramática é compilada uma única vez e guardada num cache LRU com tamanho
+ * máximo; as definições ficam em outro LRU, maior, então uma gramática despejada do cache de
+ * tabelas é recompilada na próxima consulta. Uma despejada das definições é recarregada do seu
+ * artefato, se houver; sem artefato ela deixa de estar registrada ({@link #isRegistered(String)}
+ * responde {@code false}, o controller devolve 404) até ser registrada de novo.
+ * Consultas simultâneas à mesma gramática ausente esperam uma única compilação.
+ * A gramática de {@link BooleanExpressionGrammar} é registrada na criação, nunca é despejada
+ * das definições e é a usada quando nenhum id é informado.
+ * <p>
+ * Com {@code recognizer.grammars.artifact-dir} configurado, cada gramática compilada é gravada
+ * como {@link GrammarArtifact} ({@code <id>.ll1}). A inicialização não lê nenhum artefato: o de
+ * um id é mapeado só quando ele é pedido e não está em memória, e registrado sem recalcular nada.
+ * Artefatos corrompidos, de outra versão ou cuja gramática não corresponde mais ao id são descartados.
+ */
+@Service
+public class GrammarRegistry {
+
+    public static final int DEFAULT_CACHE_SIZE = 64;
+    public static final int DEFAULT_MAX_DEFINITIONS = 1024;
+
+    // Ids são impressões digitais SHA-256; qualquer outra coisa nunca vira caminho de arquivo
+    private static final Pattern ID = Pattern.compile("[0-9a-f]{64}");
+
+    private final Map<String, Definition> definitions;
+    private final Map<String, ParsingTable> cache;
+    // Compilações em andamento: quem chega depois espera a mesma em vez de compilar de novo
+    private final Map<String, CompletableFuture<ParsingTable>> compiling = new ConcurrentHashMap<>();
+    private final String defaultId;
+    private final Definition defaultDefinition;
+    private final Path artifactDir;
+    private int compilations = 0;
+    private int artifactLoads = 0;
+
+    private record Definition(String startSymbol, Map<String, List<List<String>>> grammar) {
+    }
+
+    public GrammarRegistry(int cacheSize) {
+        this(cacheSize, DEFAULT_MAX_DEFINITIONS, null);
+    }
+
+    public GrammarRegistry(int cacheSize, String artifactDir) {
+        this(cacheSize, DEFAULT_MAX_DEFINITIONS, artifactDir);
+    }
+
+    @Autowired
+    public GrammarRegistry(@Value("${recognizer.grammars.cache-size:" + DEFAULT_CACHE_SIZE + "}") int cacheSize,
+                           @Value("${recognizer.grammars.max-definitions:" + DEFAULT_MAX_DEFINITIONS + "}") int maxDefinitions,
+                           @Value("${recognizer.grammars.artifact-dir:}") String artifactDir) {
+        this.artifactDir = artifactDir == null || artifactDir.isBlank() ? null : Path.of(artifactDir);
+        this.cache = lru(cacheSize);
+        this.definitions = lru(maxDefinitions);
+        this.defaultId = fingerprint(BooleanExpressionGrammar.START, BooleanExpressionGrammar.grammar());
+        this.defaultDefinition = new Definition(BooleanExpressionGrammar.START, BooleanExpressionGrammar.grammar());
+        synchronized (cache) {
+            cache.put(defaultId, ParsingTable.booleanExpressions());
+        }
+        if (this.artifactDir != null) {
+            createArtifactDir();
+        }
+    }
+
+    private static <V> Map<String, V> lru(int maxSize) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    private void createArtifactDir() {
+        try {
+            Files.createDirectories(artifactDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao criar o diretório de artefatos de gramática " + artifactDir, e);
+        }
+    }
+
+    // Artefato válido e ainda correspondente à sua gramática, ou null (e o arquivo é removido)
+    private GrammarArtifact readArtifact(Path file) {
+        try {
+            GrammarArtifact artifact = GrammarArtifact.read(file);
+            String id = fingerprint(artifact.getStartSymbol(), artifact.getGrammar());
+            if (id.equals(artifact.getGrammarId()) && file.getFileName().toString().equals(id + GrammarArtifact.EXTENSION)) {
+                synchronized (this) {
+                    artifactLoads++;
+                }
+                return artifact;
+            }
+        } catch (IOException e) {
+            // corrompido ou de outra versão: será recompilado
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // outro processo pode ter removido ou substituído o arquivo
+        }
+        return null;
+    }
+
+    /**
+     * Registra a gramática e devolve o seu id. Gramáticas iguais a menos da ordem das regras e
+     * das alternativas recebem o mesmo id e são compiladas uma vez só.
+     * Lança {@link IllegalArgumentException} se a gramática for inválida ou não for LL(1).
+     */
+    public String register(String startSymbol, Map<String, List<List<String>>> grammar) {
+        if (grammar == null || grammar.isEmpty() || !grammar.containsKey(startSymbol)) {
+            throw new IllegalArgumentException("Gramática vazia ou sem regras para o símbolo inicial: " + startSymbol);
+        }
+        grammar.forEach((nonTerminal, alternatives) -> {
+            if (nonTerminal == null || alternatives == null || alternatives.isEmpty()
+                    || alternatives.stream().anyMatch(p -> p == null || p.isEmpty() || p.stream().anyMatch(Objects::isNull))) {
+                throw new IllegalArgumentException("Regra inválida para o não-terminal: " + nonTerminal);
+            }
+            // "$" é o fim da entrada na tabela; um terminal com esse nome ocuparia o mesmo índice
+            if (nonTerminal.equals(ParsingTable.END_MARKER)
+                    || alternatives.stream().anyMatch(p -> p.contains(ParsingTable.END_MARKER))) {
+                throw new IllegalArgumentException("Símbolo reservado para o fim da entrada: " + ParsingTable.END_MARKER);
+            }
+        });
+        String id = fingerprint(startSymbol, grammar);
+        if (definition(id) == null) {
+            Definition definition = new Definition(startSymbol, copy(grammar));
+            load(id, definition);
+            define(id, definition);
+        }
+        return id;
+    }
+
+    /**
+     * Tabela compilada da gramática; recompila se ela foi despejada do cache. Lança
+     * {@link IllegalArgumentException} se o id não está registrado nem tem artefato.
+     */
+    public ParsingTable table(String id) {
+        if (id == null || id.isEmpty()) {
+            id = defaultId;
+        }
+        ParsingTable table = cached(id);
+        if (table != null) {
+            return table;
+        }
+        Definition definition = definition(id);
+        if (definition == null) {
+            throw new IllegalArgumentException("Gramática não registrada: " + id);
+        }
+        return load(id, definition);
+    }
+
+    private ParsingTable cached(String id) {
+        synchronized (cache) {
+            return cache.get(id);
+        }
+    }
+
+    private Definition definition(String id) {
+        if (id.equals(defaultId)) {
+            return defaultDefinition;
+        }
+        synchronized (definitions) {
+            Definition definition = definitions.get(id);
+            if (definition != null) {
+                return definition;
+            }
+        }
+        return restore(id);
+    }
+
+    // Definição despejada (ou de outro processo) que ainda tem artefato: volta sem recompilar
+    private Definition restore(String id) {
+        if (artifactDir == null || !ID.matcher(id).matches()) {
+            return null;
+        }
+        Path file = artifactDir.resolve(id + GrammarArtifact.EXTENSION);
+        GrammarArtifact artifact = Files.exists(file) ? readArtifact(file) : null;
+        if (artifact == null) {
+            return null;
+        }
+        Definition definition = new Definition(artifact.getStartSymbol(), artifact.getGrammar());
+        define(id, definition);
+        synchronized (cache) {
+            cache.putIfAbsent(id, artifact.getTable());
+        }
+        return definition;
+    }
+
+    private void define(String id, Definition definition) {
+        if (!id.equals(defaultId)) {
+            synchronized (definitions) {
+                definitions.putIfAbsent(id, definition);
+            }
+        }
+    }
+
+    /**
+     * Tabela do cache ou compilada agora; com várias threads pedindo a mesma gramática ausente,
+     * só a primeira compila e as outras esperam o resultado (ou a mesma exceção).
+     */
+    private ParsingTable load(String id, Definition definition) {
+        ParsingTable table = cached(id);
+        if (table != null) {
+            return table;
+        }
+        CompletableFuture<ParsingTable> mine = new CompletableFuture<>();
+        CompletableFuture<ParsingTable> running = compiling.putIfAbsent(id, mine);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            // Outra thread pode ter terminado entre a consulta ao cache e o registro do futuro
+            table = cached(id);
+            if (table == null) {
+                table = compile(id, definition);
+                synchronized (cache) {
+                    cache.put(id, table);
+                }
+            }
+            mine.complete(table);
+            return table;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            compiling.remove(id, mine);
+        }
+    }
+
+    public String getDefaultId() {
+        return defaultId;
+    }
+
+    public boolean isRegistered(String id) {
+        return id != null && definition(id) != null;
+    }
+
+    /**
+     * Quantidade de compilações feitas desde a criação (sem contar a gramática padrão).
+     */
+    public synchronized int getCompilations() {
+        return compilations;
+    }
+
+    /**
+     * Quantidade de gramáticas carregadas de artefatos em vez de compiladas.
+     */
+    public synchronized int getArtifactLoads() {
+        return artifactLoads;
+    }
+
+    private ParsingTable compile(String id, Definition definition) {
+        Path file = artifactDir == null ? null : artifactDir.resolve(id + GrammarArtifact.EXTENSION);
+        if (file != null && Files.exists(file)) {
+            GrammarArtifact artifact = readArtifact(file);
+            if (artifact != null) {
+                return artifact.getTable();
+            }
+        }
+        ParsingTable table = analyze(definition);
+        if (file != null) {
+            try {
+                new GrammarArtifact(id, definition.startSymbol(), definition.grammar(), table).write(file);
+            } catch (IOException e) {
+                // sem o artefato a gramática só é recompilada no próximo início
+            }
+        }
+        return table;
+    }
+
+    private ParsingTable analyze(Definition definition) {
+        BitsetFirstFollowCalculator calculator = new BitsetFirstFollowCalculator(definition.startSymbol(), definition.grammar());
+        calculator.computeFirst();
+        calculator.computeFollow();
+        LL1TableBuilder builder = new LL1TableBuilder(definition.grammar(), calculator.getFirst(), calculator.getFollow());
+        if (!builder.getConflicts().isEmpty()) {
+            throw new IllegalArgumentException("Gramática não é LL(1): " + builder.getConflicts().stream()
+                    .map(Object::toString).collect(Collectors.joining("; ")));
+        }
+        synchronized (this) {
+            compilations++;
+        }
+        return builder.compile(definition.startSymbol());
+    }
+
+    private static Map<String, List<List<String>>> copy(Map<String, List<List<String>>> grammar) {
+        Map<String, List<List<String>>> copy = new LinkedHashMap<>();
+        grammar.forEach((nonTerminal, alternatives) ->
+                copy.put(nonTerminal, alternatives.stream().map(List::copyOf).toList()));
+        return copy;
+    }
+
+    /**
+     * SHA-256 da forma canônica: símbolo inicial e regras ordenadas por não-terminal, com as
+     * alternativas ordenadas. Cada símbolo é prefixado pelo tamanho, então nenhum separador
+     * dentro de um nome de símbolo causa colisão.
+     */
+    public static String fingerprint(String startSymbol, Map<String, List<List<String>>> grammar) {
+        StringBuilder canonical = new StringBuilder();
+        append(canonical, startSymbol);
+        for (Map.Entry<String, List<List<String>>> rule : new TreeMap<>(grammar).entrySet()) {
+            canonical.append('\n');
+            append(canonical, rule.getKey());
+            List<String> alternatives = new ArrayList<>();
+            for (List<String> production : rule.getValue()) {
+                StringBuilder body = new StringBuilder();
+                for (String symbol : production) {
+                    append(body, symbol);
+                }
+                alternatives.add(body.toString());
+            }
+            alternatives.sort(null);
+            for (String alternative : alternatives) {
+                canonical.append('|').append(alternative.length()).append(':').append(alternative);
+            }
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void append(StringBuilder sb, String symbol) {
+        sb.append(symbol.length()).append(':').append(symbol);
+    }
+}
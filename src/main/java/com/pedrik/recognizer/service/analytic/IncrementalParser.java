@@ -0,0 +1,453 @@
+package com.pedrik.recognizer.service.analytic;
+
+import com.pedrik.recognizer.service.analytic.tree.Node;
+import com.pedrik.recognizer.service.analytic.tree.NonTerminalNode;
+import com.pedrik.recognizer.service.analytic.tree.TerminalNode;
+import com.pedrik.recognizer.service.lexical.IncrementalLexer;
+import com.pedrik.recognizer.service.lexical.PackedTokenBuffer;
+import com.pedrik.recognizer.service.lexical.PackedTokenStream;
+import com.pedrik.recognizer.service.lexical.TextEdit;
+import com.pedrik.recognizer.service.lexical.Token;
+import com.pedrik.recognizer.service.lexical.TokenType;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reanálise sintática incremental para clientes que validam a cada edição.
+ * <p>
+ * A edição passa pelo {@link IncrementalLexer}, que atualiza texto e tokens no lugar. Os terminais
+ * da árvore usam tokens ligados ao buffer ({@link PackedTokenBuffer#anchor(int)}), então linha,
+ * coluna e deslocamento dos que não mudaram acompanham a edição sem que a árvore seja percorrida.
+ * <p>
+ * Subindo pelos pais a partir dos tokens vizinhos à região alterada, escolhe-se a menor subárvore,
+ * de qualquer não-terminal, que cobre a região e cujo pai começa antes dela: até ali a análise
+ * LL(1) tomou as mesmas decisões, então basta reanalisar esse não-terminal a partir do seu início.
+ * Numa lista {@code a OR b OR c}, é o {@code T} do operando editado ou o sufixo {@code E'} do
+ * operador editado. Durante a reanálise, um não-terminal que começa depois da região alterada onde
+ * a árvore antiga já tinha uma subárvore dele é reaproveitado inteiro, então reanalisar um sufixo
+ * {@code E'} só percorre o trecho até a edição. A nova subárvore precisa terminar no mesmo token que
+ * a antiga; senão tenta-se a próxima candidata e, esgotadas as tentativas, a entrada inteira.
+ * <p>
+ * As subárvores fora do trecho reanalisado, e as reaproveitadas nele, mantêm o seu
+ * {@code SemanticInfo}; o dos ancestrais do trecho é descartado, o único passo que sobe até a raiz.
+ * <p>
+ * A árvore e o buffer de tokens anteriores são modificados e passam a ser os do resultado.
+ */
+public class IncrementalParser {
+
+    private static final int MAX_ATTEMPTS = 4;
+
+    /**
+     * Árvore e tokens depois da análise, os erros de sintaxe encontrados e a subárvore
+     * reanalisada (a raiz numa análise completa).
+     */
+    public static class Result {
+        private final Node root;
+        private final PackedTokenBuffer tokens;
+        private final List<Diagnostic> diagnostics;
+        private final Node reparsed;
+        private final TreeIndex index;
+
+        Result(Node root, PackedTokenBuffer tokens, List<Diagnostic> diagnostics, Node reparsed, TreeIndex index) {
+            this.root = root;
+            this.tokens = tokens;
+            this.diagnostics = diagnostics;
+            this.reparsed = reparsed;
+            this.index = index;
+        }
+
+        public Node getRoot() { return root; }
+        public PackedTokenBuffer getTokens() { return tokens; }
+        public List<Diagnostic> getDiagnostics() { return diagnostics; }
+        public Node getReparsed() { return reparsed; }
+        public boolean isValid() { return diagnostics.isEmpty(); }
+        public boolean isFullReparse() { return reparsed == root; }
+    }
+
+    private final ParsingTable table;
+    private final IncrementalLexer lexer = new IncrementalLexer();
+
+    public IncrementalParser(ParsingTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Análise completa, ponto de partida para as edições seguintes.
+     */
+    public Result parse(CharSequence text) {
+        PackedTokenBuffer tokens = new PackedTokenBuffer(true);
+        tokens.fill(text);
+        return parse(tokens);
+    }
+
+    private Result parse(PackedTokenBuffer tokens) {
+        TreeIndex index = new TreeIndex();
+        PackedTokenStream stream = new PackedTokenStream(tokens);
+        Builder builder = new Builder(table, tokens, stream, index, Integer.MAX_VALUE);
+        List<Diagnostic> diagnostics = new TableDrivenParser(table, stream).parseRecovering(builder);
+        builder.commit();
+        return new Result(builder.getRoot(), tokens, diagnostics, builder.getRoot(), index);
+    }
+
+    /**
+     * Aplica a edição e reanalisa apenas a menor subárvore que a contém.
+     */
+    public Result reparse(Result previous, TextEdit edit) {
+        PackedTokenBuffer tokens = previous.getTokens();
+        IncrementalLexer.Result relexed = lexer.relex(tokens, edit);
+        if (!previous.isValid() || !(previous.getRoot() instanceof NonTerminalNode root)) {
+            return parse(tokens);
+        }
+        Change change = new Change(relexed);
+        if (change.firstChanged == 0 || change.removed.size() != change.oldEnd - change.firstChanged) {
+            return parse(tokens);
+        }
+
+        TreeIndex index = previous.index;
+        for (NonTerminalNode candidate : candidates(index, change)) {
+            Node reparsed = tryReparse(index, change, candidate);
+            if (reparsed != null) {
+                return new Result(root, tokens, List.of(), reparsed, index);
+            }
+        }
+        return parse(tokens);
+    }
+
+    // Subárvores que podem ser reanalisadas, da menor para a maior
+    private List<NonTerminalNode> candidates(TreeIndex index, Change change) {
+        List<NonTerminalNode> candidates = new ArrayList<>();
+        TerminalNode first = null;
+        TerminalNode last = null;
+        for (Token token : change.removed) {
+            TerminalNode terminal = index.terminals.get(token);
+            if (terminal != null) {
+                first = first == null ? terminal : first;
+                last = terminal;
+            }
+        }
+        if (first != null) {
+            // A menor subárvore com todos os tokens removidos, subindo enquanto o pai começa na região
+            Node lowest = commonAncestor(first, last);
+            NonTerminalNode node = lowest instanceof NonTerminalNode nonTerminal ? nonTerminal : lowest.getParent();
+            while (node != null && node.getParent() != null && change.oldStart(index, node.getParent()) >= change.firstChanged) {
+                node = node.getParent();
+            }
+            for (; node != null && node.getParent() != null && candidates.size() < MAX_ATTEMPTS; node = node.getParent()) {
+                candidates.add(node);
+            }
+            return candidates;
+        }
+
+        // Só inserção: a subárvore que começa logo depois do token anterior à edição e, depois,
+        // as que contêm esse token e o que vem depois dele
+        TerminalNode before = index.terminals.get(change.tokens.anchorAt(change.firstChanged - 1));
+        if (before == null) {
+            return candidates;
+        }
+        Node child = before;
+        boolean endsBeforeEdit = true;
+        for (NonTerminalNode parent = before.getParent(); parent != null && candidates.size() < MAX_ATTEMPTS;
+             child = parent, parent = parent.getParent()) {
+            List<Node> children = parent.getChildren();
+            int position = children.indexOf(child);
+            if (endsBeforeEdit) {
+                if (position + 1 < children.size() && children.get(position + 1) instanceof NonTerminalNode next) {
+                    candidates.add(next);
+                }
+                for (int i = position + 1; i < children.size() && endsBeforeEdit; i++) {
+                    endsBeforeEdit = firstToken(children.get(i)) == null;
+                }
+            }
+            if (!endsBeforeEdit && parent.getParent() != null) {
+                candidates.add(parent);
+            }
+        }
+        return candidates;
+    }
+
+    // Reanalisa a subárvore e a troca na árvore; null se ela não pode ser reanalisada sozinha
+    private Node tryReparse(TreeIndex index, Change change, NonTerminalNode candidate) {
+        NonTerminalNode parent = candidate.getParent();
+        int start = change.oldStart(index, candidate);
+        int end = change.tokens.indexOf(index.following.get(candidate));
+        if (parent == null || start < 0 || start > change.firstChanged || end < change.newEnd
+                || change.oldStart(index, parent) >= change.firstChanged) {
+            return null;
+        }
+
+        PackedTokenStream stream = new PackedTokenStream(change.tokens, start);
+        Builder builder = new Builder(table, change.tokens, stream, index, change.newEnd);
+        List<Diagnostic> diagnostics = new TableDrivenParser(table, stream)
+                .parseNonTerminal(builder, table.nonTerminalOf(candidate.getName()), builder);
+        if (!diagnostics.isEmpty() || stream.position() != end) {
+            builder.rollback();
+            return null;
+        }
+
+        NonTerminalNode replacement = (NonTerminalNode) builder.getRoot();
+        if (start == change.firstChanged) {
+            retarget(index, change, parent, candidate);
+        }
+        parent.replaceChild(parent.getChildren().indexOf(candidate), replacement);
+        index.forget(candidate);
+        builder.commit();
+        for (NonTerminalNode node = parent; node != null; node = node.getParent()) {
+            node.setSemanticInfo(null);
+        }
+        return replacement;
+    }
+
+    // A subárvore reanalisada começa na edição: os nós que terminam logo antes dela, e os ε entre
+    // eles e ela, passam a ser seguidos pelo token que agora ocupa aquela posição
+    private static void retarget(TreeIndex index, Change change, NonTerminalNode parent, NonTerminalNode candidate) {
+        Token next = change.tokens.anchor(change.firstChanged);
+        Node child = index.terminals.get(change.tokens.anchorAt(change.firstChanged - 1));
+        for (NonTerminalNode node = child.getParent(); node != parent; child = node, node = node.getParent()) {
+            index.following.put(node, next);
+            retargetAfter(index, node, child, null, next);
+        }
+        retargetAfter(index, parent, child, candidate, next);
+    }
+
+    private static void retargetAfter(TreeIndex index, NonTerminalNode node, Node from, Node to, Token next) {
+        List<Node> children = node.getChildren();
+        for (int i = children.indexOf(from) + 1; i < children.size() && children.get(i) != to; i++) {
+            Deque<Node> pending = new ArrayDeque<>();
+            pending.push(children.get(i));
+            while (!pending.isEmpty()) {
+                if (pending.pop() instanceof NonTerminalNode empty) {
+                    index.following.put(empty, next);
+                    empty.getChildren().forEach(pending::push);
+                }
+            }
+        }
+    }
+
+    // Primeiro ancestral comum, subindo pelos dois lados alternadamente
+    private static Node commonAncestor(Node a, Node b) {
+        Set<Node> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        while (a != null || b != null) {
+            if (a != null) {
+                if (!seen.add(a)) {
+                    return a;
+                }
+                a = a.getParent();
+            }
+            if (b != null) {
+                if (!seen.add(b)) {
+                    return b;
+                }
+                b = b.getParent();
+            }
+        }
+        return null;
+    }
+
+    // Primeiro token real da subárvore, ou null se ela só tem ε
+    private static Token firstToken(Node node) {
+        if (node instanceof TerminalNode terminal) {
+            return terminal.getToken().getType() == TokenType.EOF ? null : terminal.getToken();
+        }
+        for (Node child : ((NonTerminalNode) node).getChildren()) {
+            Token token = firstToken(child);
+            if (token != null) {
+                return token;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Região alterada pela edição, para converter a posição atual de um token da árvore antiga no
+     * índice que ele tinha antes dela.
+     */
+    private static final class Change {
+        final PackedTokenBuffer tokens;
+        final int firstChanged;
+        final int oldEnd;
+        final int newEnd;
+        final List<Token> removed;
+        private final Map<Token, Integer> removedIndex = new IdentityHashMap<>();
+
+        Change(IncrementalLexer.Result relexed) {
+            this.tokens = relexed.getTokens();
+            this.firstChanged = relexed.getFirstChanged();
+            this.oldEnd = relexed.getOldEnd();
+            this.newEnd = relexed.getNewEnd();
+            this.removed = relexed.getRemoved();
+            for (int i = 0; i < removed.size(); i++) {
+                removedIndex.put(removed.get(i), i);
+            }
+        }
+
+        int oldIndex(Token token) {
+            int index = tokens.indexOf(token);
+            if (index >= 0) {
+                return index < firstChanged ? index : index - newEnd + oldEnd;
+            }
+            Integer removedAt = removedIndex.get(token);
+            return removedAt == null ? -1 : firstChanged + removedAt;
+        }
+
+        // Índice antigo do primeiro token da subárvore; numa subárvore só de ε, o do token seguinte
+        int oldStart(TreeIndex index, NonTerminalNode node) {
+            Token first = firstToken(node);
+            Token token = first != null ? first : index.following.get(node);
+            return token == null ? -1 : oldIndex(token);
+        }
+    }
+
+    /**
+     * O que a reanálise precisa saber da árvore e não está nos nós: o terminal de cada token e o
+     * token que vem logo depois de cada não-terminal (o lookahead quando ele terminou).
+     */
+    private static final class TreeIndex {
+        final Map<Token, TerminalNode> terminals = new IdentityHashMap<>();
+        final Map<NonTerminalNode, Token> following = new IdentityHashMap<>();
+
+        // Não-terminal 'name' que começa no token, subindo enquanto o token é o primeiro da subárvore
+        NonTerminalNode startingAt(Token token, String name) {
+            TerminalNode terminal = token == null ? null : terminals.get(token);
+            if (terminal == null) {
+                return null;
+            }
+            Node child = terminal;
+            for (NonTerminalNode parent = terminal.getParent(); parent != null; child = parent, parent = parent.getParent()) {
+                for (Node sibling : parent.getChildren()) {
+                    if (sibling == child) {
+                        break;
+                    }
+                    if (firstToken(sibling) != null) {
+                        return null;
+                    }
+                }
+                if (parent.getName().equals(name)) {
+                    return parent;
+                }
+            }
+            return null;
+        }
+
+        // Tira do índice a subárvore substituída, menos as subárvores reaproveitadas na nova
+        void forget(NonTerminalNode removed) {
+            Deque<NonTerminalNode> pending = new ArrayDeque<>();
+            pending.push(removed);
+            while (!pending.isEmpty()) {
+                NonTerminalNode node = pending.pop();
+                following.remove(node);
+                for (Node child : node.getChildren()) {
+                    if (child.getParent() != node) {
+                        continue;
+                    }
+                    if (child instanceof TerminalNode terminal) {
+                        terminals.remove(terminal.getToken(), terminal);
+                    } else {
+                        pending.push((NonTerminalNode) child);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Monta a árvore a partir dos eventos por índice, com tokens ligados ao buffer, e reaproveita
+     * as subárvores antigas que começam a partir de 'reuseFrom'. O índice só é atualizado em
+     * {@link #commit()}; {@link #rollback()} devolve as subárvores reaproveitadas aos pais antigos.
+     */
+    private static final class Builder implements ParseListener, TableDrivenParser.SubtreeReuse {
+        private final ParsingTable table;
+        private final PackedTokenBuffer tokens;
+        private final PackedTokenStream stream;
+        private final TreeIndex index;
+        private final int reuseFrom;
+        private final Deque<NonTerminalNode> open = new ArrayDeque<>();
+        private final Map<Token, TerminalNode> terminals = new IdentityHashMap<>();
+        private final Map<NonTerminalNode, Token> following = new IdentityHashMap<>();
+        private final List<Node> reused = new ArrayList<>();
+        private final List<NonTerminalNode> reusedParents = new ArrayList<>();
+        private NonTerminalNode root;
+
+        Builder(ParsingTable table, PackedTokenBuffer tokens, PackedTokenStream stream, TreeIndex index, int reuseFrom) {
+            this.table = table;
+            this.tokens = tokens;
+            this.stream = stream;
+            this.index = index;
+            this.reuseFrom = reuseFrom;
+        }
+
+        Node getRoot() {
+            return root;
+        }
+
+        @Override
+        public boolean usesIndices() {
+            return true;
+        }
+
+        @Override
+        public void enterRule(int nonTerminal) {
+            NonTerminalNode node = new NonTerminalNode(table.nonTerminalName(nonTerminal));
+            if (open.isEmpty()) {
+                root = node;
+            } else {
+                open.peek().addChild(node);
+            }
+            open.push(node);
+        }
+
+        @Override
+        public void exitRule(int nonTerminal) {
+            following.put(open.pop(), tokens.anchor(stream.position()));
+        }
+
+        @Override
+        public void terminal(int terminal) {
+            Token token = tokens.anchor(stream.position() - 1);
+            TerminalNode node = new TerminalNode(token);
+            open.peek().addChild(node);
+            terminals.put(token, node);
+        }
+
+        @Override
+        public void epsilon() {
+            open.peek().addChild(new TerminalNode(new Token(TokenType.EOF, ParsingTable.EPSILON, -1, -1)));
+        }
+
+        @Override
+        public boolean reuse(int nonTerminal) {
+            int position = stream.position();
+            if (position < reuseFrom || open.isEmpty()) {
+                return false;
+            }
+            NonTerminalNode node = index.startingAt(tokens.anchorAt(position), table.nonTerminalName(nonTerminal));
+            int end = node == null ? -1 : tokens.indexOf(index.following.get(node));
+            if (end <= position) {
+                return false;
+            }
+            reused.add(node);
+            reusedParents.add(node.getParent());
+            open.peek().addChild(node);
+            stream.seek(end);
+            return true;
+        }
+
+        void commit() {
+            index.terminals.putAll(terminals);
+            index.following.putAll(following);
+        }
+
+        void rollback() {
+            for (int i = 0; i < reused.size(); i++) {
+                NonTerminalNode parent = reusedParents.get(i);
+                parent.replaceChild(parent.getChildren().indexOf(reused.get(i)), reused.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.pedrik.recognizer.service.analytic;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Célula M[A, a] da tabela LL(1) com mais de uma produção candidata, na ordem em que apareceram.
+ */
+public class LL1Conflict {
+
+    private final String nonTerminal;
+    private final String terminal;
+    private final List<List<String>> productions = new ArrayList<>();
+
+    public LL1Conflict(String nonTerminal, String terminal) {
+        this.nonTerminal = nonTerminal;
+        this.terminal = terminal;
+    }
+
+    void add(List<String> production) {
+        for (List<String> existing : productions) {
+            if (existing == production) {
+                return;
+            }
+        }
+        productions.add(production);
+    }
+
+    public String getNonTerminal() {
+        return nonTerminal;
+    }
+
+    public String getTerminal() {
+        return terminal;
+    }
+
+    public List<List<String>> getProductions() {
+        return productions;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("M[" + nonTerminal + ", " + terminal + "]: ");
+        for (int i = 0; i < productions.size(); i++) {
+            if (i > 0) {
+                sb.append(" | ");
+            }
+            sb.append(nonTerminal).append(" -> ").append(String.join(" ", productions.get(i)));
+        }
+        return sb.toString();
+    }
+}
@@ -8,6 +8,8 @@ public class LL1TableBuilder {
     private final Map<String, Set<String>> first;
     private final Map<String, Set<String>> follow;
     private final Map<String, Map<String, List<String>>> table = new HashMap<>();
+    private final Map<String, LL1Conflict> conflicts = new LinkedHashMap<>();
+    private final Map<List<String>, Set<String>> firstOfSequence = new HashMap<>();
 
     public LL1TableBuilder(
             Map<String, List<List<String>>> grammar,
@@ -24,28 +26,53 @@ public class LL1TableBuilder {
         return table;
     }
 
+    /**
+     * Todas as células com mais de uma produção candidata; vazio quando a gramática é LL(1).
+     * A tabela guarda a última produção encontrada para a célula.
+     */
+    public List<LL1Conflict> getConflicts() {
+        return new ArrayList<>(conflicts.values());
+    }
+
+    /**
+     * Forma compilada da tabela, indexada por inteiros, para os parsers dirigidos por tabela.
+     */
+    public ParsingTable compile(String startSymbol) {
+        return ParsingTable.encode(startSymbol, grammar, table, first, follow);
+    }
+
     private void buildTable() {
         for (String nonTerminal : grammar.keySet()) {
             table.putIfAbsent(nonTerminal, new HashMap<>());
 
             for (List<String> production : grammar.get(nonTerminal)) {
-                Set<String> firstSet = computeFirstOfSequence(production);
+                Set<String> firstSet = firstOfSequence.computeIfAbsent(production, this::computeFirstOfSequence);
 
                 for (String terminal : firstSet) {
                     if (!terminal.equals("ε")) {
-                        table.get(nonTerminal).put(terminal, production);
+                        put(nonTerminal, terminal, production);
                     }
                 }
 
                 if (firstSet.contains("ε")) {
                     for (String f : follow.get(nonTerminal)) {
-                        table.get(nonTerminal).put(f, production);
+                        put(nonTerminal, f, production);
                     }
                 }
             }
         }
     }
 
+    private void put(String nonTerminal, String terminal, List<String> production) {
+        List<String> previous = table.get(nonTerminal).put(terminal, production);
+        if (previous != null && previous != production) {
+            LL1Conflict conflict = conflicts.computeIfAbsent(nonTerminal + "\u0000" + terminal,
+                    key -> new LL1Conflict(nonTerminal, terminal));
+            conflict.add(previous);
+            conflict.add(production);
+        }
+    }
+
     // FIRST(α) onde α é uma sequência de símbolos (ex: ["T", "E'"])
     private Set<String> computeFirstOfSequence(List<String> symbols) {
         Set<String> result = new HashSet<>();
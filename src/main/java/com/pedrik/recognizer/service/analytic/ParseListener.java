@@ -0,0 +1,115 @@
+package com.pedrik.recognizer.service.analytic;
+
+import com.pedrik.recognizer.service.lexical.Token;
+
+/**
+ * Eventos de uma análise sintática, no estilo SAX: o parser avisa quando entra e sai de cada
+ * regra, quando consome um terminal e quando aplica uma produção vazia, sem montar árvore.
+ * A construção da árvore é só uma implementação ({@link TreeBuilderListener}).
+ * <p>
+ * Listeners que trabalham com os índices da {@link ParsingTable} respondem {@code true} em
+ * {@link #usesIndices()} e recebem só {@link #enterRule(int)}, {@link #exitRule(int)} e
+ * {@link #terminal(int)}: o parser não procura nomes nem cria um {@link Token} por terminal.
+ */
+public interface ParseListener {
+
+    /**
+     * Listener que ignora todos os eventos, para apenas validar a entrada.
+     */
+    ParseListener NONE = new ParseListener() {
+        @Override
+        public boolean usesIndices() {
+            return true;
+        }
+    };
+
+    default void enterRule(String rule) {
+    }
+
+    default void exitRule(String rule) {
+    }
+
+    default void terminal(Token token) {
+    }
+
+    default void epsilon() {
+    }
+
+    /**
+     * Se o parser deve chamar as versões por índice em vez das por nome e {@link Token}.
+     */
+    default boolean usesIndices() {
+        return false;
+    }
+
+    /**
+     * Entrada no não-terminal de índice 'nonTerminal' da tabela.
+     */
+    default void enterRule(int nonTerminal) {
+    }
+
+    default void exitRule(int nonTerminal) {
+    }
+
+    /**
+     * Terminal da tabela casado pelo próximo token, que o parser consome sem materializar.
+     */
+    default void terminal(int terminal) {
+    }
+
+    /**
+     * Repassa cada evento para este listener e depois para o outro.
+     */
+    default ParseListener andThen(ParseListener other) {
+        ParseListener self = this;
+        return new ParseListener() {
+            @Override
+            public void enterRule(String rule) {
+                self.enterRule(rule);
+                other.enterRule(rule);
+            }
+
+            @Override
+            public void exitRule(String rule) {
+                self.exitRule(rule);
+                other.exitRule(rule);
+            }
+
+            @Override
+            public void terminal(Token token) {
+                self.terminal(token);
+                other.terminal(token);
+            }
+
+            @Override
+            public void epsilon() {
+                self.epsilon();
+                other.epsilon();
+            }
+
+            // Só por índices se os dois aceitam; senão ambos recebem nomes e tokens
+            @Override
+            public boolean usesIndices() {
+                return self.usesIndices() && other.usesIndices();
+            }
+
+            @Override
+            public void enterRule(int nonTerminal) {
+                self.enterRule(nonTerminal);
+                other.enterRule(nonTerminal);
+            }
+
+            @Override
+            public void exitRule(int nonTerminal) {
+                self.exitRule(nonTerminal);
+                other.exitRule(nonTerminal);
+            }
+
+            @Override
+            public void terminal(int terminal) {
+                self.terminal(terminal);
+                other.terminal(terminal);
+            }
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package com.pedrik.recognizer.service.analytic;
+
+import com.pedrik.recognizer.service.lexical.Token;
+
+/**
+ * Escreve o log indentado da árvore (o mesmo do {@code setLogger} dos parsers) a partir dos eventos.
+ */
+public class ParseLogListener implements ParseListener {
+
+    private final StringBuilder logger;
+    private int depth = 0;
+
+    public ParseLogListener(StringBuilder logger) {
+        this.logger = logger;
+    }
+
+    private void log(String text) {
+        logger.append("  ".repeat(depth)).append(text).append("\n");
+    }
+
+    @Override
+    public void enterRule(String rule) {
+        log(rule);
+        depth++;
+    }
+
+    @Override
+    public void exitRule(String rule) {
+        depth--;
+    }
+
+    @Override
+    public void terminal(Token token) {
+        log(token.getLexeme());
+    }
+
+    @Override
+    public void epsilon() {
+        log(ParsingTable.EPSILON);
+    }
+}
@@ -0,0 +1,32 @@
+package com.pedrik.recognizer.service.analytic;
+
+import com.pedrik.recognizer.service.analytic.tree.Node;
+
+import java.util.List;
+
+/**
+ * Resultado de uma análise com recuperação de erros: a árvore (parcial quando há erros)
+ * e todos os diagnósticos encontrados, na ordem da entrada.
+ */
+public class ParseResult {
+
+    private final Node root;
+    private final List<Diagnostic> diagnostics;
+
+    public ParseResult(Node root, List<Diagnostic> diagnostics) {
+        this.root = root;
+        this.diagnostics = diagnostics;
+    }
+
+    public Node getRoot() {
+        return root;
+    }
+
+    public List<Diagnostic> getDiagnostics() {
+        return diagnostics;
+    }
+
+    public boolean isValid() {
+        return diagnostics.isEmpty();
+    }
+}
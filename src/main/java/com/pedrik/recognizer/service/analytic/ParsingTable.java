@@ -0,0 +1,424 @@
+package com.pedrik.recognizer.service.analytic;
+
+import com.pedrik.recognizer.service.BitsetFirstFollowCalculator;
+import com.pedrik.recognizer.service.lexical.DfaLexer;
+import com.pedrik.recognizer.service.lexical.TerminalClassifier;
+import com.pedrik.recognizer.service.lexical.TokenType;
+
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tabela LL(1) do {@link LL1TableBuilder} codificada em inteiros para o {@link TableDrivenParser}.
+ * <p>
+ * Terminais são numerados a partir de 0 e não-terminais são codificados como {@code ~n}
+ * (sempre negativos), então um único {@code int} identifica qualquer símbolo. A tabela é um
+ * array denso {@code [não-terminal * terminais + terminal]} com o índice da produção, ou
+ * {@code -1} quando não há entrada. O ε não aparece no lado direito das produções.
+ * Os conjuntos FIRST/FOLLOW que originaram a tabela ficam junto, como bitsets por não-terminal.
+ * Tabela e bitsets são lidos por {@link IntBuffer}/{@link LongBuffer}: sobre arrays quando a
+ * tabela é compilada e direto do arquivo mapeado quando vem de um {@link GrammarArtifact}.
+ * Instâncias são imutáveis e podem ser compartilhadas entre threads.
+ */
+public final class ParsingTable implements TerminalClassifier {
+
+    public static final String EPSILON = "ε";
+    public static final String END_MARKER = "$";
+    public static final String IDENTIFIER = "id";
+
+    // Antes de BOOLEAN_EXPRESSIONS, que já precisa dele na inicialização
+    private static final TokenType[] TOKEN_TYPES = TokenType.values();
+
+    private static final ParsingTable BOOLEAN_EXPRESSIONS =
+            build(BooleanExpressionGrammar.START, BooleanExpressionGrammar.grammar());
+
+    private final String[] terminals;
+    private final Map<String, Integer> terminalIndex = new HashMap<>();
+    // Terminais que cada tipo de token pode representar: lexemas e índices, por ordinal do tipo
+    private final String[][] lexemesByType = new String[TOKEN_TYPES.length][0];
+    private final int[][] terminalsByType = new int[TOKEN_TYPES.length][0];
+    private final String[] nonTerminals;
+    private final Map<String, Integer> nonTerminalIndex = new HashMap<>();
+    private final int start;
+    private final int endMarker;
+    private final int identifier;
+
+    private final int[][] productions;
+    private final int[] productionLhs;
+    private final int[] epsilonProduction;
+    private final IntBuffer cells;
+
+    // FIRST/FOLLOW de cada não-terminal como bitsets, nos mesmos índices dos terminais; o ε é o bit 'terminais'
+    private final int words;
+    private final LongBuffer first;
+    private final LongBuffer follow;
+
+    ParsingTable(String[] terminals, String[] nonTerminals, int start,
+                 int[][] productions, int[] productionLhs, IntBuffer cells, LongBuffer first, LongBuffer follow) {
+        this.terminals = terminals;
+        this.nonTerminals = nonTerminals;
+        this.start = start;
+        this.productions = productions;
+        this.productionLhs = productionLhs;
+        this.cells = cells;
+        this.words = wordsFor(terminals.length);
+        this.first = first;
+        this.follow = follow;
+
+        for (int i = 0; i < terminals.length; i++) {
+            terminalIndex.put(terminals[i], i);
+        }
+        for (int i = 0; i < nonTerminals.length; i++) {
+            nonTerminalIndex.put(nonTerminals[i], i);
+        }
+        this.endMarker = terminalIndex.get(END_MARKER);
+        this.identifier = terminalIndex.getOrDefault(IDENTIFIER, -1);
+        for (int t = 0; t < terminals.length; t++) {
+            if (t != endMarker && t != identifier) {
+                for (TokenType type : tokenTypesOf(terminals[t])) {
+                    int ordinal = type.ordinal();
+                    lexemesByType[ordinal] = append(lexemesByType[ordinal], terminals[t]);
+                    terminalsByType[ordinal] = Arrays.copyOf(terminalsByType[ordinal], terminalsByType[ordinal].length + 1);
+                    terminalsByType[ordinal][terminalsByType[ordinal].length - 1] = t;
+                }
+            }
+        }
+        this.epsilonProduction = new int[nonTerminals.length];
+        Arrays.fill(epsilonProduction, -1);
+        for (int p = 0; p < productions.length; p++) {
+            if (productions[p].length == 0 && epsilonProduction[productionLhs[p]] < 0) {
+                epsilonProduction[productionLhs[p]] = p;
+            }
+        }
+    }
+
+    /**
+     * Codifica a tabela do {@link LL1TableBuilder} e os conjuntos FIRST/FOLLOW usados para montá-la.
+     */
+    static ParsingTable encode(String startSymbol,
+                               Map<String, List<List<String>>> grammar,
+                               Map<String, Map<String, List<String>>> table,
+                               Map<String, Set<String>> firstSets,
+                               Map<String, Set<String>> followSets) {
+        String[] nonTerminals = grammar.keySet().toArray(new String[0]);
+        Map<String, Integer> nonTerminalIndex = new HashMap<>();
+        for (int i = 0; i < nonTerminals.length; i++) {
+            nonTerminalIndex.put(nonTerminals[i], i);
+        }
+
+        Set<String> terminalSet = new LinkedHashSet<>();
+        for (List<List<String>> alternatives : grammar.values()) {
+            for (List<String> production : alternatives) {
+                for (String symbol : production) {
+                    if (!nonTerminalIndex.containsKey(symbol) && !symbol.equals(EPSILON)) {
+                        terminalSet.add(symbol);
+                    }
+                }
+            }
+        }
+        terminalSet.add(END_MARKER);
+        for (Map<String, List<String>> row : table.values()) {
+            terminalSet.addAll(row.keySet());
+        }
+        String[] terminals = terminalSet.toArray(new String[0]);
+        Map<String, Integer> terminalIndex = new HashMap<>();
+        for (int i = 0; i < terminals.length; i++) {
+            terminalIndex.put(terminals[i], i);
+        }
+
+        // As listas da tabela são as mesmas da gramática, então a identidade basta para numerá-las.
+        // Lados direitos iguais compartilham o mesmo array.
+        Map<List<String>, Integer> productionIndex = new IdentityHashMap<>();
+        Map<String, int[]> interned = new HashMap<>();
+        List<int[]> rhs = new ArrayList<>();
+        List<Integer> lhs = new ArrayList<>();
+        for (int nt = 0; nt < nonTerminals.length; nt++) {
+            for (List<String> production : grammar.get(nonTerminals[nt])) {
+                int[] symbols = production.stream()
+                        .filter(symbol -> !symbol.equals(EPSILON))
+                        .mapToInt(symbol -> nonTerminalIndex.containsKey(symbol)
+                                ? ~nonTerminalIndex.get(symbol)
+                                : terminalIndex.get(symbol))
+                        .toArray();
+                productionIndex.put(production, rhs.size());
+                rhs.add(interned.computeIfAbsent(Arrays.toString(symbols), key -> symbols));
+                lhs.add(nt);
+            }
+        }
+
+        int[] cells = new int[nonTerminals.length * terminals.length];
+        Arrays.fill(cells, -1);
+        for (Map.Entry<String, Map<String, List<String>>> row : table.entrySet()) {
+            int nt = nonTerminalIndex.get(row.getKey());
+            for (Map.Entry<String, List<String>> cell : row.getValue().entrySet()) {
+                cells[nt * terminals.length + terminalIndex.get(cell.getKey())] = productionIndex.get(cell.getValue());
+            }
+        }
+
+        return new ParsingTable(terminals, nonTerminals, nonTerminalIndex.get(startSymbol),
+                rhs.toArray(new int[0][]), lhs.stream().mapToInt(Integer::intValue).toArray(), IntBuffer.wrap(cells),
+                LongBuffer.wrap(toBits(nonTerminals, terminalIndex, firstSets)),
+                LongBuffer.wrap(toBits(nonTerminals, terminalIndex, followSets)));
+    }
+
+    private static int wordsFor(int terminalCount) {
+        return (terminalCount >>> 6) + 1;
+    }
+
+    private static long[] toBits(String[] nonTerminals, Map<String, Integer> terminalIndex, Map<String, Set<String>> sets) {
+        int epsilonBit = terminalIndex.size();
+        int words = wordsFor(epsilonBit);
+        long[] bits = new long[nonTerminals.length * words];
+        for (int nt = 0; nt < nonTerminals.length; nt++) {
+            for (String symbol : sets.getOrDefault(nonTerminals[nt], Set.of())) {
+                int bit = symbol.equals(EPSILON) ? epsilonBit : terminalIndex.get(symbol);
+                bits[nt * words + (bit >>> 6)] |= 1L << bit;
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Calcula FIRST/FOLLOW e a tabela LL(1) da gramática e a codifica.
+     */
+    public static ParsingTable build(String startSymbol, Map<String, List<List<String>>> grammar) {
+        BitsetFirstFollowCalculator calculator = new BitsetFirstFollowCalculator(startSymbol, grammar);
+        calculator.computeFirst();
+        calculator.computeFollow();
+        LL1TableBuilder builder = new LL1TableBuilder(grammar, calculator.getFirst(), calculator.getFollow());
+        return builder.compile(startSymbol);
+    }
+
+    /**
+     * Tabela da gramática de {@link BooleanExpressionGrammar}, construída uma única vez.
+     */
+    public static ParsingTable booleanExpressions() {
+        return BOOLEAN_EXPRESSIONS;
+    }
+
+    /**
+     * Tipos de token que representam o terminal: o que o {@link DfaLexer} produz para o texto do
+     * terminal e a categoria de {@link TokenType} cujo padrão o reconhece (os lexers entregam
+     * {@code AND}/{@code OR}/{@code NOT} como KEYWORD, que na enumeração são LOGICAL_OPERATOR).
+     * Strings, comentários e erros nunca representam um terminal.
+     */
+    private static Set<TokenType> tokenTypesOf(String terminal) {
+        Set<TokenType> types = new LinkedHashSet<>();
+        DfaLexer lexer = new DfaLexer(terminal);
+        TokenType lexed = lexer.scan();
+        if (lexed != null && lexer.tokenStart() == 0 && lexer.tokenEnd() == terminal.length()
+                && lexer.scan() == TokenType.EOF && canBeTerminal(lexed)) {
+            types.add(lexed);
+        }
+        for (TokenType type : TOKEN_TYPES) {
+            if (canBeTerminal(type) && type.pattern().matcher(terminal).matches()) {
+                types.add(type);
+                break;
+            }
+        }
+        return types;
+    }
+
+    private static boolean canBeTerminal(TokenType type) {
+        return switch (type) {
+            case STRING, COMMENT_LINE, COMMENT_BLOCK, WHITESPACE, NEWLINE, ERROR, EOF -> false;
+            default -> true;
+        };
+    }
+
+    private static String[] append(String[] values, String value) {
+        String[] result = Arrays.copyOf(values, values.length + 1);
+        result[values.length] = value;
+        return result;
+    }
+
+    /**
+     * Terminal correspondente a um token: identificadores viram {@code id} (se a gramática o usa),
+     * o EOF vira {@code $} e os demais são casados pelo tipo e pelo lexema.
+     * Retorna {@code -1} se o token não é terminal da gramática.
+     */
+    public int terminalOf(TokenType type, String lexeme) {
+        return terminalOf(type.ordinal(), lexeme, 0, lexeme.length());
+    }
+
+    /**
+     * Mesmo que {@link #terminalOf(TokenType, String)} com o lexema no trecho {@code [start, end)}
+     * da entrada, comparado sem criar {@code String}. Strings, comentários e erros retornam {@code -1}.
+     */
+    @Override
+    public int terminalOf(int typeOrdinal, CharSequence input, int start, int end) {
+        if (typeOrdinal == TokenType.EOF.ordinal()) {
+            return endMarker;
+        }
+        if (typeOrdinal == TokenType.IDENTIFIER.ordinal() && identifier >= 0) {
+            return identifier;
+        }
+        String[] lexemes = lexemesByType[typeOrdinal];
+        for (int i = 0; i < lexemes.length; i++) {
+            if (regionEquals(lexemes[i], input, start, end)) {
+                return terminalsByType[typeOrdinal][i];
+            }
+        }
+        return -1;
+    }
+
+    private static boolean regionEquals(String lexeme, CharSequence input, int start, int end) {
+        if (lexeme.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < lexeme.length(); i++) {
+            if (lexeme.charAt(i) != input.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Índice do terminal com o nome informado, ou {@code -1}. Ao contrário de
+     * {@link #terminalOf(TokenType, String)}, não depende de como o lexer classifica o texto.
+     */
+    public int terminalIndexOf(String name) {
+        return terminalIndex.getOrDefault(name, -1);
+    }
+
+    /**
+     * Índice do não-terminal com o nome informado, ou {@code -1}.
+     */
+    public int nonTerminalOf(String name) {
+        return nonTerminalIndex.getOrDefault(name, -1);
+    }
+
+    /**
+     * Produção para o não-terminal e o terminal de lookahead, ou {@code -1}.
+     */
+    public int production(int nonTerminal, int terminal) {
+        return terminal < 0 ? -1 : cells.get(nonTerminal * terminals.length + terminal);
+    }
+
+    public int[] rhs(int production) {
+        return productions[production];
+    }
+
+    public int lhs(int production) {
+        return productionLhs[production];
+    }
+
+    /**
+     * Produção vazia do não-terminal, ou {@code -1} se ele não deriva ε diretamente.
+     */
+    public int epsilonProduction(int nonTerminal) {
+        return epsilonProduction[nonTerminal];
+    }
+
+    /**
+     * Terminais aceitos no início do não-terminal: o FIRST e, se ele é anulável, o FOLLOW.
+     * Para uma gramática LL(1) são exatamente os terminais com entrada na sua linha.
+     */
+    public List<String> expectedTerminals(int nonTerminal) {
+        boolean nullable = isNullable(nonTerminal);
+        List<String> expected = new ArrayList<>();
+        for (int t = 0; t < terminals.length; t++) {
+            if (inFirst(nonTerminal, t) || nullable && inFollow(nonTerminal, t)) {
+                expected.add(terminals[t]);
+            }
+        }
+        return expected;
+    }
+
+    public int start() {
+        return start;
+    }
+
+    public int endMarker() {
+        return endMarker;
+    }
+
+    public int terminalCount() {
+        return terminals.length;
+    }
+
+    public int nonTerminalCount() {
+        return nonTerminals.length;
+    }
+
+    public int productionCount() {
+        return productions.length;
+    }
+
+    public String terminalName(int terminal) {
+        return terminals[terminal];
+    }
+
+    public String nonTerminalName(int nonTerminal) {
+        return nonTerminals[nonTerminal];
+    }
+
+    /**
+     * Se o terminal pertence ao FIRST do não-terminal.
+     */
+    public boolean inFirst(int nonTerminal, int terminal) {
+        return (first.get(nonTerminal * words + (terminal >>> 6)) & (1L << terminal)) != 0;
+    }
+
+    /**
+     * Se o terminal pertence ao FOLLOW do não-terminal.
+     */
+    public boolean inFollow(int nonTerminal, int terminal) {
+        return (follow.get(nonTerminal * words + (terminal >>> 6)) & (1L << terminal)) != 0;
+    }
+
+    /**
+     * Se o não-terminal deriva ε (ε no FIRST).
+     */
+    public boolean isNullable(int nonTerminal) {
+        return inFirst(nonTerminal, terminals.length);
+    }
+
+    // Acesso às estruturas cruas para o GrammarArtifact
+
+    String[] terminals() {
+        return terminals;
+    }
+
+    String[] nonTerminals() {
+        return nonTerminals;
+    }
+
+    int[][] productions() {
+        return productions;
+    }
+
+    int[] productionLhs() {
+        return productionLhs;
+    }
+
+    // Cópias da posição: o buffer da tabela só é lido com acesso absoluto
+    IntBuffer cells() {
+        return cells.duplicate();
+    }
+
+    LongBuffer firstBits() {
+        return first.duplicate();
+    }
+
+    LongBuffer followBits() {
+        return follow.duplicate();
+    }
+
+    int words() {
+        return words;
+    }
+
+    public static boolean isNonTerminal(int symbol) {
+        return symbol < 0;
+    }
+}
@@ -1,33 +1,79 @@
 package com.pedrik.recognizer.service.analytic;
 
+import com.pedrik.recognizer.controller.dto.DiagnosticDto;
 import com.pedrik.recognizer.controller.dto.ParseResponseDto;
-import com.pedrik.recognizer.service.analytic.tree.Node;
-import com.pedrik.recognizer.service.lexical.Lexer;
-import com.pedrik.recognizer.service.lexical.Token;
-import com.pedrik.recognizer.service.semantic.SemanticAnalyzer;
+import com.pedrik.recognizer.service.lexical.DfaLexer;
+import com.pedrik.recognizer.service.lexical.LexerEngine;
+import com.pedrik.recognizer.service.lexical.LexerTokenStream;
+import com.pedrik.recognizer.service.semantic.EnvironmentRegistry;
+import com.pedrik.recognizer.service.semantic.SemanticError;
+import com.pedrik.recognizer.service.semantic.SemanticListener;
+import com.pedrik.recognizer.service.semantic.SymbolTable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 
 @Service
 public class RecognizerService {
 
+    public static final String SEMANTIC_ERROR = "SEMANTIC_ERROR";
+
+    @Autowired
+    private GrammarRegistry grammarRegistry;
+
+    @Autowired
+    private EnvironmentRegistry environmentRegistry;
+
+    // Identificadores fora do ambiente só invalidam a entrada quando a verificação é ligada
+    @Value("${recognizer.semantic.check-environment:false}")
+    private boolean checkEnvironment;
+
     public ParseResponseDto verify(final String input) {
+        return verify(input, null);
+    }
+
+    public ParseResponseDto verify(final String input, final String grammarId) {
         try {
-            Lexer lexer = new Lexer(input);
-            List<Token> tokenList = lexer.tokenize();
+            ParsingTable table = grammarRegistry.table(grammarId);
+            boolean defaultGrammar = grammarId == null || grammarId.isEmpty() || grammarId.equals(grammarRegistry.getDefaultId());
 
-            RecursiveDescentParser parser = new RecursiveDescentParser(tokenList);
-            StringBuilder treeLog = new StringBuilder();
-            parser.setLogger(treeLog);
-            Node root = parser.parse();
+            // Na gramática padrão sem verificação do ambiente, o parser gerado produz o mesmo log;
+            // só uma entrada inválida é analisada de novo pela tabela, para juntar os diagnósticos
+            if (defaultGrammar && !checkEnvironment && GeneratedParsers.hasBooleanExpressions()) {
+                StringBuilder treeLog = new StringBuilder();
+                GeneratedParser generated = GeneratedParsers.booleanExpressions(
+                        new LexerTokenStream(LexerEngine.shared().scanner(input)));
+                generated.setLogger(treeLog);
+                try {
+                    generated.parse();
+                    return new ParseResponseDto(true, treeLog.toString(), null);
+                } catch (RuntimeException e) {
+                    // segue para a análise com recuperação
+                }
+            }
 
-            // Suponha que os identificadores válidos estejam definidos aqui:
-            Set<String> declaredIdentifiers = Set.of("velocidade", "caindo", "subindo", "ativo"); // exemplo
+            // Tokens são produzidos sob demanda enquanto o parser avança
+            DfaLexer lexer = LexerEngine.shared().scanner(input);
+            TableDrivenParser parser = new TableDrivenParser(table, new LexerTokenStream(lexer));
+            StringBuilder treeLog = new StringBuilder();
 
-            SemanticAnalyzer analyzer = new SemanticAnalyzer();
-            analyzer.analyze(root);
+            TreeBuilderListener builder = new TreeBuilderListener();
+            ParseListener listener = builder.andThen(new ParseLogListener(treeLog));
+            // As regras semânticas são as da gramática padrão; em outra gramática não se aplicam.
+            // A análise acontece junto com a sintática, sem percorrer a árvore de novo
+            SemanticListener semantic = null;
+            if (defaultGrammar && checkEnvironment) {
+                semantic = new SemanticListener(new SymbolTable(environmentRegistry.snapshot()), builder);
+                listener = semantic.andThen(listener);
+            }
+            List<Diagnostic> diagnostics = parser.parseRecovering(listener);
+            List<SemanticError> semanticErrors = semantic != null ? semantic.getSemanticErrors() : List.of();
+            if (!diagnostics.isEmpty() || !semanticErrors.isEmpty()) {
+                return invalid(diagnostics, semanticErrors);
+            }
 
             return new ParseResponseDto(true, treeLog.toString(), null);
         } catch (Exception e) {
@@ -35,5 +81,35 @@ public class RecognizerService {
         }
     }
 
-}
+    /**
+     * Apenas verifica a sintaxe da entrada, sem montar a árvore nem fazer a análise semântica.
+     */
+    public ParseResponseDto validate(final String input, final String grammarId) {
+        try {
+            ParsingTable table = grammarRegistry.table(grammarId);
+            DfaLexer lexer = LexerEngine.shared().scanner(input);
+            List<Diagnostic> diagnostics = new TableDrivenParser(table, new LexerTokenStream(lexer))
+                    .parseRecovering(ParseListener.NONE);
+            if (!diagnostics.isEmpty()) {
+                return invalid(diagnostics, List.of());
+            }
+            return new ParseResponseDto(true, "", null);
+        } catch (Exception e) {
+            return new ParseResponseDto(false, "", e.getMessage());
+        }
+    }
 
+    // Erros de sintaxe primeiro, depois os semânticos
+    private static ParseResponseDto invalid(List<Diagnostic> diagnostics, List<SemanticError> semanticErrors) {
+        List<DiagnosticDto> dtos = new ArrayList<>();
+        for (Diagnostic d : diagnostics) {
+            dtos.add(new DiagnosticDto(d.getCode().name(), d.getMessage(), d.getLine(), d.getColumn(),
+                    d.getStart(), d.getEnd(), d.getExpected()));
+        }
+        for (SemanticError e : semanticErrors) {
+            dtos.add(new DiagnosticDto(SEMANTIC_ERROR, e.getMessage(), e.getLine(), e.getColumn(),
+                    e.getStart(), e.getEnd(), List.of()));
+        }
+        return new ParseResponseDto(false, "", dtos.get(0).getMessage(), dtos);
+    }
+}
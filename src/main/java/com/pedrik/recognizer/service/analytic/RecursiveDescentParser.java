@@ -4,20 +4,24 @@ import com.pedrik.recognizer.service.analytic.tree.Node;
 import com.pedrik.recognizer.service.analytic.tree.NonTerminalNode;
 import com.pedrik.recognizer.service.analytic.tree.TerminalNode;
 import com.pedrik.recognizer.service.lexical.Lexer;
+import com.pedrik.recognizer.service.lexical.ListTokenStream;
 import com.pedrik.recognizer.service.lexical.Token;
+import com.pedrik.recognizer.service.lexical.TokenStream;
 import com.pedrik.recognizer.service.lexical.TokenType;
 
 import java.util.List;
 
 public class RecursiveDescentParser {
 
-    private final List<Token> tokens;
-    private int current;
+    private final TokenStream tokens;
     private StringBuilder logger = null;
 
     public RecursiveDescentParser(List<Token> tokens) {
+        this(new ListTokenStream(tokens));
+    }
+
+    public RecursiveDescentParser(TokenStream tokens) {
         this.tokens = tokens;
-        this.current = 0;
     }
 
     public void setLogger(StringBuilder logger) {
@@ -31,25 +35,24 @@ public class RecursiveDescentParser {
     }
 
     private Token peek() {
-        return current < tokens.size() ? tokens.get(current) : new Token(TokenType.EOF, "$", -1, -1);
+        return tokens.peek();
     }
 
     private Token consume(TokenType expectedType, String expectedLexeme, int depth) {
-        Token token = peek();
-        if (token.getType() == expectedType && (expectedLexeme == null || token.getLexeme().equals(expectedLexeme))) {
-            current++;
+        if (tokens.peekIs(expectedType, expectedLexeme)) {
+            Token token = tokens.next();
             log(token.getLexeme(), depth + 1);
             return token;
         } else {
             throw new RuntimeException("Erro de sintaxe: esperado '" +
                     (expectedLexeme != null ? expectedLexeme : expectedType.name()) +
-                    "', mas encontrou '" + token.getLexeme() + "'");
+                    "', mas encontrou '" + peek().getLexeme() + "'");
         }
     }
 
     public Node parse() {
         Node root = parseE(0);
-        if (peek().getType() != TokenType.EOF) {
+        if (tokens.peekType() != TokenType.EOF) {
             throw new RuntimeException("Erro: entrada não totalmente consumida. Último token: " + peek().getLexeme());
         }
         System.out.println("Entrada válida. Árvore sintática:");
@@ -70,10 +73,8 @@ public class RecursiveDescentParser {
     private Node parseEPrime(int depth) {
         log("E'", depth);
         NonTerminalNode node = new NonTerminalNode("E'");
-        Token token = peek();
-        if (token.getType() == TokenType.KEYWORD &&
-                (token.getLexeme().equals("AND") || token.getLexeme().equals("OR"))) {
-            node.addChild(new TerminalNode(consume(TokenType.KEYWORD, token.getLexeme(), depth)));
+        if (tokens.peekIs(TokenType.KEYWORD, "AND") || tokens.peekIs(TokenType.KEYWORD, "OR")) {
+            node.addChild(new TerminalNode(consume(TokenType.KEYWORD, null, depth)));
             node.addChild(parseT(depth + 1));
             node.addChild(parseEPrime(depth + 1));
         } else {
@@ -87,8 +88,7 @@ public class RecursiveDescentParser {
     private Node parseT(int depth) {
         log("T", depth);
         NonTerminalNode node = new NonTerminalNode("T");
-        Token token = peek();
-        if (token.getType() == TokenType.KEYWORD && token.getLexeme().equals("NOT")) {
+        if (tokens.peekIs(TokenType.KEYWORD, "NOT")) {
             node.addChild(new TerminalNode(consume(TokenType.KEYWORD, "NOT", depth)));
             node.addChild(parseF(depth + 1));
         } else {
@@ -101,15 +101,14 @@ public class RecursiveDescentParser {
     private Node parseF(int depth) {
         log("F", depth);
         NonTerminalNode node = new NonTerminalNode("F");
-        Token token = peek();
-        if (token.getType() == TokenType.DELIMITER && token.getLexeme().equals("(")) {
+        if (tokens.peekIs(TokenType.DELIMITER, "(")) {
             node.addChild(new TerminalNode(consume(TokenType.DELIMITER, "(", depth)));
             node.addChild(parseE(depth + 1));
             node.addChild(new TerminalNode(consume(TokenType.DELIMITER, ")", depth)));
-        } else if (token.getType() == TokenType.IDENTIFIER) {
+        } else if (tokens.peekType() == TokenType.IDENTIFIER) {
             node.addChild(new TerminalNode(consume(TokenType.IDENTIFIER, null, depth)));
         } else {
-            throw new RuntimeException("Erro: esperado identificador ou '(', mas encontrou '" + token.getLexeme() + "'");
+            throw new RuntimeException("Erro: esperado identificador ou '(', mas encontrou '" + peek().getLexeme() + "'");
         }
         return node;
     }
@@ -0,0 +1,243 @@
+package com.pedrik.recognizer.service.analytic;
+
+import com.pedrik.recognizer.service.analytic.ast.AstNode;
+import com.pedrik.recognizer.service.analytic.tree.Node;
+import com.pedrik.recognizer.service.lexical.ListTokenStream;
+import com.pedrik.recognizer.service.lexical.Token;
+import com.pedrik.recognizer.service.lexical.TokenStream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Parser preditivo LL(1) dirigido por uma {@link ParsingTable}, com pilha explícita em vez de
+ * recursão: a profundidade de aninhamento fica limitada apenas pelo heap.
+ * <p>
+ * Para a gramática de {@link BooleanExpressionGrammar} produz a mesma árvore, o mesmo log e os
+ * mesmos pontos de erro do {@link RecursiveDescentParser}. Como ele, quando não há entrada na
+ * tabela e o não-terminal tem produção vazia, aplica o ε e deixa o erro para o próximo terminal.
+ * <p>
+ * A análise em si só emite eventos para um {@link ParseListener}; {@link #parse()} monta a árvore
+ * com o {@link TreeBuilderListener}, {@link #parseAst()} monta só a árvore abstrata e
+ * {@link #validate()} não monta nada. {@link #tryParse()} não lança exceção: reúne os erros como
+ * {@link Diagnostic} e se recupera em modo pânico.
+ */
+public class TableDrivenParser {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final ParsingTable table;
+    private final TokenStream tokens;
+    private StringBuilder logger = null;
+
+    // Pilha de símbolos: terminal em [0, terminais), não-terminal como ~n e, a partir de
+    // 'terminais', a marca de saída do não-terminal (terminais + n)
+    private int[] symbols = new int[INITIAL_CAPACITY];
+    private int top = 0;
+    private SubtreeReuse reuse = null;
+
+    /**
+     * Permite pular a análise de um não-terminal cuja subárvore já existe, como faz a
+     * {@link IncrementalParser} com as subárvores depois de uma edição.
+     */
+    interface SubtreeReuse {
+
+        /**
+         * Se já existe a subárvore de 'nonTerminal' que começa na posição atual do stream,
+         * registra-a no lugar dos eventos, avança o stream até depois dela e retorna true.
+         */
+        boolean reuse(int nonTerminal);
+    }
+
+    public TableDrivenParser(ParsingTable table, List<Token> tokens) {
+        this(table, new ListTokenStream(tokens));
+    }
+
+    public TableDrivenParser(ParsingTable table, TokenStream tokens) {
+        this.table = table;
+        this.tokens = tokens;
+    }
+
+    public void setLogger(StringBuilder logger) {
+        this.logger = logger;
+    }
+
+    private void push(int symbol) {
+        if (top == symbols.length) {
+            symbols = Arrays.copyOf(symbols, symbols.length * 2);
+        }
+        symbols[top++] = symbol;
+    }
+
+    private int lookahead() {
+        return tokens.peekTerminal(table);
+    }
+
+    /**
+     * Analisa a entrada e devolve a árvore sintática.
+     */
+    public Node parse() {
+        TreeBuilderListener builder = new TreeBuilderListener();
+        parse(logger == null ? builder : builder.andThen(new ParseLogListener(logger)));
+        return builder.getRoot();
+    }
+
+    /**
+     * Analisa a entrada e devolve apenas a árvore abstrata, sem montar a árvore concreta.
+     * Só para a gramática de {@link BooleanExpressionGrammar}.
+     */
+    public AstNode parseAst() {
+        AstBuilderListener builder = new AstBuilderListener();
+        parse(logger == null ? builder : builder.andThen(new ParseLogListener(logger)));
+        return builder.getRoot();
+    }
+
+    /**
+     * Apenas verifica se a entrada é válida, sem criar nós.
+     */
+    public void validate() {
+        parse(logger == null ? ParseListener.NONE : new ParseLogListener(logger));
+    }
+
+    /**
+     * Analisa a entrada emitindo os eventos para o listener. Lança {@link RuntimeException}
+     * no primeiro erro de sintaxe.
+     */
+    public void parse(ParseListener listener) {
+        run(listener, null, table.start(), true);
+    }
+
+    /**
+     * Analisa a entrada inteira sem lançar exceção, montando a árvore (parcial quando há erros)
+     * e reunindo todos os erros de sintaxe.
+     */
+    public ParseResult tryParse() {
+        TreeBuilderListener builder = new TreeBuilderListener();
+        List<Diagnostic> diagnostics = parseRecovering(logger == null ? builder : builder.andThen(new ParseLogListener(logger)));
+        return new ParseResult(builder.getRoot(), diagnostics);
+    }
+
+    /**
+     * Analisa a entrada inteira emitindo os eventos para o listener e devolve os erros de sintaxe,
+     * sem lançar exceção. Depois de um erro a análise segue em modo pânico: um terminal esperado e
+     * ausente é descartado da pilha; sem produção para o não-terminal, tokens são descartados até
+     * um que inicie o não-terminal ou esteja no seu FOLLOW (e então ele fica vazio).
+     */
+    public List<Diagnostic> parseRecovering(ParseListener listener) {
+        List<Diagnostic> diagnostics = new ArrayList<>();
+        run(listener, diagnostics, table.start(), true);
+        return diagnostics;
+    }
+
+    /**
+     * Analisa um único não-terminal a partir da posição atual do stream, sem exigir o fim da
+     * entrada depois dele, e devolve os erros encontrados. Com 'reuse' (pode ser null), os
+     * não-terminais cuja subárvore já existe são pulados. Usado pela {@link IncrementalParser}.
+     */
+    List<Diagnostic> parseNonTerminal(ParseListener listener, int nonTerminal, SubtreeReuse reuse) {
+        List<Diagnostic> diagnostics = new ArrayList<>();
+        this.reuse = reuse;
+        try {
+            run(listener, diagnostics, nonTerminal, false);
+        } finally {
+            this.reuse = null;
+        }
+        return diagnostics;
+    }
+
+    // Com 'diagnostics' null lança no primeiro erro; caso contrário registra e se recupera
+    private void run(ParseListener listener, List<Diagnostic> diagnostics, int start, boolean wholeInput) {
+        top = 0;
+        int endMarker = table.endMarker();
+        int exitBase = table.terminalCount();
+        if (wholeInput) {
+            push(endMarker);
+        }
+        push(~start);
+
+        boolean indexed = listener.usesIndices();
+        int terminal = lookahead();
+        while (top > 0) {
+            int symbol = symbols[--top];
+
+            if (symbol == endMarker) {
+                if (terminal != endMarker) {
+                    error(diagnostics, Diagnostic.Code.TRAILING_INPUT,
+                            "Erro: entrada não totalmente consumida. Último token: " + tokens.peek().getLexeme(),
+                            List.of(ParsingTable.END_MARKER));
+                }
+            } else if (symbol >= exitBase) {
+                if (indexed) {
+                    listener.exitRule(symbol - exitBase);
+                } else {
+                    listener.exitRule(table.nonTerminalName(symbol - exitBase));
+                }
+            } else if (!ParsingTable.isNonTerminal(symbol)) {
+                if (terminal != symbol) {
+                    // Na recuperação, segue como se o terminal estivesse na entrada
+                    error(diagnostics, Diagnostic.Code.UNEXPECTED_TOKEN, "Erro de sintaxe: esperado '" + table.terminalName(symbol) +
+                            "', mas encontrou '" + tokens.peek().getLexeme() + "'", List.of(table.terminalName(symbol)));
+                    continue;
+                }
+                if (indexed) {
+                    // PackedTokenStream e LexerTokenStream sobre DfaLexer avançam sem criar Token
+                    tokens.advance();
+                    listener.terminal(symbol);
+                } else {
+                    listener.terminal(tokens.next());
+                }
+                terminal = lookahead();
+            } else {
+                int nonTerminal = ~symbol;
+                if (reuse != null && reuse.reuse(nonTerminal)) {
+                    terminal = lookahead();
+                    continue;
+                }
+                if (indexed) {
+                    listener.enterRule(nonTerminal);
+                } else {
+                    listener.enterRule(table.nonTerminalName(nonTerminal));
+                }
+
+                int production = table.production(nonTerminal, terminal);
+                if (production < 0) {
+                    production = table.epsilonProduction(nonTerminal);
+                }
+                if (production < 0) {
+                    List<String> expected = table.expectedTerminals(nonTerminal);
+                    error(diagnostics, Diagnostic.Code.NO_PRODUCTION, "Erro de sintaxe: esperado um de " + expected +
+                            " em " + table.nonTerminalName(nonTerminal) + ", mas encontrou '" + tokens.peek().getLexeme() + "'", expected);
+
+                    // Modo pânico: sincroniza no FIRST ou no FOLLOW do não-terminal
+                    while (terminal != endMarker && table.production(nonTerminal, terminal) < 0
+                            && (terminal < 0 || !table.inFollow(nonTerminal, terminal))) {
+                        tokens.advance();
+                        terminal = lookahead();
+                    }
+                    production = table.production(nonTerminal, terminal);
+                    if (production < 0) {
+                        push(exitBase + nonTerminal);
+                        continue;
+                    }
+                }
+
+                int[] rhs = table.rhs(production);
+                if (rhs.length == 0) {
+                    listener.epsilon();
+                }
+                push(exitBase + nonTerminal);
+                for (int i = rhs.length - 1; i >= 0; i--) {
+                    push(rhs[i]);
+                }
+            }
+        }
+    }
+
+    private void error(List<Diagnostic> diagnostics, Diagnostic.Code code, String message, List<String> expected) {
+        if (diagnostics == null) {
+            throw new RuntimeException(message);
+        }
+        diagnostics.add(new Diagnostic(code, message, tokens.peek(), expected));
+    }
+}
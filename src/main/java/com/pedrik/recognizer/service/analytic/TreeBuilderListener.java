@@ -0,0 +1,56 @@
+package com.pedrik.recognizer.service.analytic;
+
+import com.pedrik.recognizer.service.analytic.tree.Node;
+import com.pedrik.recognizer.service.analytic.tree.NonTerminalNode;
+import com.pedrik.recognizer.service.analytic.tree.TerminalNode;
+import com.pedrik.recognizer.service.lexical.Token;
+import com.pedrik.recognizer.service.lexical.TokenType;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Monta a mesma árvore do {@link RecursiveDescentParser} a partir dos eventos da análise.
+ */
+public class TreeBuilderListener implements ParseListener {
+
+    private final Deque<NonTerminalNode> open = new ArrayDeque<>();
+    private NonTerminalNode root;
+
+    @Override
+    public void enterRule(String rule) {
+        NonTerminalNode node = new NonTerminalNode(rule);
+        if (open.isEmpty()) {
+            root = node;
+        } else {
+            open.peek().addChild(node);
+        }
+        open.push(node);
+    }
+
+    @Override
+    public void exitRule(String rule) {
+        open.pop();
+    }
+
+    @Override
+    public void terminal(Token token) {
+        open.peek().addChild(new TerminalNode(token));
+    }
+
+    @Override
+    public void epsilon() {
+        open.peek().addChild(new TerminalNode(new Token(TokenType.EOF, ParsingTable.EPSILON, -1, -1)));
+    }
+
+    /**
+     * Nó da regra aberta mais interna, ou null fora de qualquer regra.
+     */
+    public NonTerminalNode current() {
+        return open.peek();
+    }
+
+    public Node getRoot() {
+        return root;
+    }
+}
@@ -0,0 +1,28 @@
+package com.pedrik.recognizer.service.analytic.ast;
+
+import lombok.Getter;
+
+/**
+ * Nó da árvore sintática abstrata das expressões booleanas.
+ * <p>
+ * O trecho coberto na entrada vai de {@code start} (inclusivo) a {@code end} (exclusivo), nos
+ * deslocamentos dos tokens; é {@code -1} quando os tokens não trazem a posição.
+ */
+@Getter
+public abstract class AstNode {
+
+    private final long start;
+    private final long end;
+
+    protected AstNode(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Quantidade de nós desta subárvore, incluindo este.
+     */
+    public abstract int size();
+
+    public abstract void print(String indent);
+}
@@ -0,0 +1,45 @@
+package com.pedrik.recognizer.service.analytic.ast;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Operação n-ária ({@link And} ou {@link Or}) sobre dois ou mais operandos, na ordem da entrada.
+ * Cadeias do mesmo operador ficam num único nó.
+ */
+@Getter
+public abstract class LogicalNode extends AstNode {
+
+    private final List<AstNode> operands;
+
+    protected LogicalNode(List<AstNode> operands) {
+        super(operands.get(0).getStart(), operands.get(operands.size() - 1).getEnd());
+        this.operands = List.copyOf(operands);
+    }
+
+    public abstract String getOperator();
+
+    @Override
+    public int size() {
+        int size = 1;
+        for (AstNode operand : operands) {
+            size += operand.size();
+        }
+        return size;
+    }
+
+    @Override
+    public void print(String indent) {
+        System.out.println(indent + getOperator());
+        for (AstNode operand : operands) {
+            operand.print(indent + "  ");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + operands.stream().map(String::valueOf).collect(Collectors.joining(", ", "(", ")"));
+    }
+}
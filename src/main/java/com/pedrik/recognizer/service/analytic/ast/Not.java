@@ -0,0 +1,30 @@
+package com.pedrik.recognizer.service.analytic.ast;
+
+import lombok.Getter;
+
+@Getter
+public class Not extends AstNode {
+
+    private final AstNode operand;
+
+    public Not(AstNode operand, long start, long end) {
+        super(start, end);
+        this.operand = operand;
+    }
+
+    @Override
+    public int size() {
+        return 1 + operand.size();
+    }
+
+    @Override
+    public void print(String indent) {
+        System.out.println(indent + "NOT");
+        operand.print(indent + "  ");
+    }
+
+    @Override
+    public String toString() {
+        return "Not(" + operand + ")";
+    }
+}
@@ -0,0 +1,15 @@
+package com.pedrik.recognizer.service.analytic.ast;
+
+import java.util.List;
+
+public class Or extends LogicalNode {
+
+    public Or(List<AstNode> operands) {
+        super(operands);
+    }
+
+    @Override
+    public String getOperator() {
+        return "OR";
+    }
+}
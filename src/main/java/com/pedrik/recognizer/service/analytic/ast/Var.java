@@ -0,0 +1,32 @@
+package com.pedrik.recognizer.service.analytic.ast;
+
+import lombok.Getter;
+
+/**
+ * Uso de um identificador.
+ */
+@Getter
+public class Var extends AstNode {
+
+    private final String name;
+
+    public Var(String name, long start, long end) {
+        super(start, end);
+        this.name = name;
+    }
+
+    @Override
+    public int size() {
+        return 1;
+    }
+
+    @Override
+    public void print(String indent) {
+        System.out.println(indent + name);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
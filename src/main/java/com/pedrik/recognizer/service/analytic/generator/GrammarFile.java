@@ -0,0 +1,109 @@
+package com.pedrik.recognizer.service.analytic.generator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gramática lida de um arquivo {@code .grammar}:
+ * <pre>
+ * # comentário
+ * %start E
+ * %class pacote.NomeDoParser
+ * E  -> T E'
+ * E' -> AND T E' | OR T E' | ε
+ * </pre>
+ * Sem {@code %start}, o símbolo inicial é o primeiro lado esquerdo. Alternativas vazias
+ * equivalem a ε. O mapa produzido segue o formato usado pelo {@code FirstFollowCalculator}.
+ */
+public class GrammarFile {
+
+    private static final String EPSILON = "ε";
+
+    private final String startSymbol;
+    private final String parserClass;
+    private final Map<String, List<List<String>>> grammar;
+
+    public GrammarFile(String startSymbol, String parserClass, Map<String, List<List<String>>> grammar) {
+        this.startSymbol = startSymbol;
+        this.parserClass = parserClass;
+        this.grammar = grammar;
+    }
+
+    public static GrammarFile read(Path path) throws IOException {
+        return parse(path.getFileName().toString(), Files.readString(path, StandardCharsets.UTF_8));
+    }
+
+    public static GrammarFile parse(String source, String text) {
+        String start = null;
+        String parserClass = null;
+        Map<String, List<List<String>>> grammar = new LinkedHashMap<>();
+
+        String[] lines = text.split("\r?\n");
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            if (line.startsWith("%start")) {
+                start = directiveValue(source, i, line, "%start");
+                continue;
+            }
+            if (line.startsWith("%class")) {
+                parserClass = directiveValue(source, i, line, "%class");
+                continue;
+            }
+
+            String[] sides = line.split("->|→", 2);
+            if (sides.length != 2 || sides[0].isBlank() || sides[0].strip().contains(" ")) {
+                throw new IllegalArgumentException(source + ", linha " + (i + 1) + ": regra inválida: " + line);
+            }
+            List<List<String>> alternatives = grammar.computeIfAbsent(sides[0].strip(), k -> new ArrayList<>());
+            for (String alternative : sides[1].split("\\|", -1)) {
+                List<String> symbols = Arrays.stream(alternative.strip().split("\\s+"))
+                        .filter(symbol -> !symbol.isEmpty())
+                        .toList();
+                alternatives.add(symbols.isEmpty() ? List.of(EPSILON) : symbols);
+            }
+        }
+
+        if (grammar.isEmpty()) {
+            throw new IllegalArgumentException(source + ": nenhuma regra encontrada");
+        }
+        if (start == null) {
+            start = grammar.keySet().iterator().next();
+        } else if (!grammar.containsKey(start)) {
+            throw new IllegalArgumentException(source + ": símbolo inicial sem regras: " + start);
+        }
+        return new GrammarFile(start, parserClass, grammar);
+    }
+
+    private static String directiveValue(String source, int index, String line, String directive) {
+        String value = line.substring(directive.length()).strip();
+        if (value.isEmpty() || value.contains(" ")) {
+            throw new IllegalArgumentException(source + ", linha " + (index + 1) + ": valor inválido para " + directive);
+        }
+        return value;
+    }
+
+    public String getStartSymbol() {
+        return startSymbol;
+    }
+
+    /**
+     * Nome qualificado do parser gerado, ou {@code null} se o arquivo não declara {@code %class}.
+     */
+    public String getParserClass() {
+        return parserClass;
+    }
+
+    public Map<String, List<List<String>>> getGrammar() {
+        return grammar;
+    }
+}
@@ -0,0 +1,415 @@
+package com.pedrik.recognizer.service.analytic.generator;
+
+import com.pedrik.recognizer.service.BitsetFirstFollowCalculator;
+import com.pedrik.recognizer.service.analytic.LL1TableBuilder;
+import com.pedrik.recognizer.service.analytic.ParsingTable;
+import com.pedrik.recognizer.service.lexical.TokenType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Gera, em tempo de build, um parser LL(1) especializado para cada arquivo {@code .grammar}.
+ * <p>
+ * FIRST/FOLLOW e a tabela são calculados aqui; o código gerado tem terminais e não-terminais
+ * como constantes {@code int} e um {@code switch} por não-terminal, sem nenhuma análise da
+ * gramática em tempo de execução. Conflitos LL(1) interrompem a geração (e o build).
+ * <p>
+ * Uso: {@code ParserGenerator <diretório de gramáticas> <diretório de saída>}.
+ */
+public class ParserGenerator {
+
+    private static final Map<String, String> PUNCTUATION = Map.ofEntries(
+            Map.entry("(", "LPAREN"), Map.entry(")", "RPAREN"),
+            Map.entry("{", "LBRACE"), Map.entry("}", "RBRACE"),
+            Map.entry(";", "SEMICOLON"), Map.entry(",", "COMMA"),
+            Map.entry("=", "ASSIGN"), Map.entry("==", "EQ"), Map.entry("!=", "NE"),
+            Map.entry("<", "LT"), Map.entry("<=", "LE"), Map.entry(">", "GT"), Map.entry(">=", "GE"),
+            Map.entry("+", "PLUS"), Map.entry("-", "MINUS"), Map.entry("*", "STAR"), Map.entry("/", "SLASH"),
+            Map.entry("!", "BANG"), Map.entry(ParsingTable.END_MARKER, "EOF")
+    );
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Uso: ParserGenerator <diretório de gramáticas> <diretório de saída>");
+        }
+        Path grammars = Path.of(args[0]);
+        Path output = Path.of(args[1]);
+        if (!Files.isDirectory(grammars)) {
+            return;
+        }
+
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(grammars)) {
+            files = stream.filter(p -> p.toString().endsWith(".grammar")).sorted().toList();
+        }
+        for (Path file : files) {
+            GrammarFile grammar = GrammarFile.read(file);
+            String className = grammar.getParserClass();
+            if (className == null) {
+                throw new IllegalArgumentException(file.getFileName() + ": falta a diretiva %class");
+            }
+            String source = generate(file.getFileName().toString(), grammar);
+            Path target = output.resolve(className.replace('.', '/') + ".java");
+            Files.createDirectories(target.getParent());
+            // Só reescreve quando muda, para não forçar recompilação a cada build
+            if (!Files.exists(target) || !Files.readString(target, StandardCharsets.UTF_8).equals(source)) {
+                Files.writeString(target, source, StandardCharsets.UTF_8);
+            }
+            System.out.println("Parser gerado: " + className + " (" + file.getFileName() + ")");
+        }
+    }
+
+    /**
+     * Analisa a gramática e devolve o código-fonte do parser. Lança {@link IllegalStateException}
+     * se a gramática não for LL(1).
+     */
+    public static String generate(String sourceName, GrammarFile grammarFile) {
+        Map<String, List<List<String>>> grammar = grammarFile.getGrammar();
+        BitsetFirstFollowCalculator calculator = new BitsetFirstFollowCalculator(grammarFile.getStartSymbol(), grammar);
+        calculator.computeFirst();
+        calculator.computeFollow();
+        LL1TableBuilder builder = new LL1TableBuilder(grammar, calculator.getFirst(), calculator.getFollow());
+        if (!builder.getConflicts().isEmpty()) {
+            throw new IllegalStateException(sourceName + " não é LL(1):\n  " + builder.getConflicts().stream()
+                    .map(Object::toString).collect(Collectors.joining("\n  ")));
+        }
+        ParsingTable table = builder.compile(grammarFile.getStartSymbol());
+        return new ParserGenerator(sourceName, grammarFile.getParserClass(), table).emit();
+    }
+
+    private final String sourceName;
+    private final String packageName;
+    private final String simpleName;
+    private final ParsingTable table;
+    private final String[] terminalConstants;
+    private final String[] nonTerminalConstants;
+    private final StringBuilder out = new StringBuilder();
+
+    private ParserGenerator(String sourceName, String className, ParsingTable table) {
+        this.sourceName = sourceName;
+        int dot = className.lastIndexOf('.');
+        this.packageName = dot < 0 ? null : className.substring(0, dot);
+        this.simpleName = className.substring(dot + 1);
+        this.table = table;
+
+        Set<String> used = new HashSet<>();
+        this.terminalConstants = new String[table.terminalCount()];
+        for (int t = 0; t < terminalConstants.length; t++) {
+            String name = table.terminalName(t);
+            terminalConstants[t] = unique(used, "T_" + PUNCTUATION.getOrDefault(name, constantName(name)), t);
+        }
+        this.nonTerminalConstants = new String[table.nonTerminalCount()];
+        for (int n = 0; n < nonTerminalConstants.length; n++) {
+            nonTerminalConstants[n] = unique(used, "NT_" + constantName(table.nonTerminalName(n)), n);
+        }
+    }
+
+    private static String constantName(String symbol) {
+        String name = symbol.replace("'", "_PRIME").toUpperCase().replaceAll("[^A-Z0-9_]", "_");
+        return name.replaceAll("_+$", "").isEmpty() ? "" : name;
+    }
+
+    private static String unique(Set<String> used, String name, int index) {
+        String candidate = name.endsWith("_") ? name + index : name;
+        while (!used.add(candidate)) {
+            candidate = name + "_" + index++;
+        }
+        return candidate;
+    }
+
+    private static String literal(String text) {
+        return "\"" + text.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private String symbolName(int symbol) {
+        return ParsingTable.isNonTerminal(symbol) ? table.nonTerminalName(~symbol) : table.terminalName(symbol);
+    }
+
+    private String symbolConstant(int symbol) {
+        return ParsingTable.isNonTerminal(symbol) ? "~" + nonTerminalConstants[~symbol] : terminalConstants[symbol];
+    }
+
+    private String productionBody(int production) {
+        int[] rhs = table.rhs(production);
+        return rhs.length == 0 ? ParsingTable.EPSILON
+                : Arrays.stream(rhs).mapToObj(this::symbolName).collect(Collectors.joining(" "));
+    }
+
+    private void line(String text) {
+        out.append(text).append('\n');
+    }
+
+    private String emit() {
+        int endMarker = table.endMarker();
+        if (packageName != null) {
+            line("package " + packageName + ";");
+            line("");
+        }
+        line("import com.pedrik.recognizer.service.analytic.GeneratedParser;");
+        line("import com.pedrik.recognizer.service.analytic.tree.Node;");
+        line("import com.pedrik.recognizer.service.analytic.tree.NonTerminalNode;");
+        line("import com.pedrik.recognizer.service.analytic.tree.TerminalNode;");
+        line("import com.pedrik.recognizer.service.lexical.ListTokenStream;");
+        line("import com.pedrik.recognizer.service.lexical.Token;");
+        line("import com.pedrik.recognizer.service.lexical.TokenStream;");
+        line("import com.pedrik.recognizer.service.lexical.TokenType;");
+        line("");
+        line("import java.util.Arrays;");
+        line("import java.util.List;");
+        line("");
+        line("/**");
+        line(" * Parser LL(1) gerado pelo {@code ParserGenerator} a partir de {@code " + sourceName + "}.");
+        line(" * Não editar: o arquivo é reescrito a cada build.");
+        line(" */");
+        line("public final class " + simpleName + " implements GeneratedParser {");
+        line("");
+        line("    // Terminais");
+        for (int t = 0; t < terminalConstants.length; t++) {
+            line("    public static final int " + terminalConstants[t] + " = " + t + "; // " + table.terminalName(t));
+        }
+        line("");
+        line("    // Não-terminais (na pilha, codificados como ~índice)");
+        for (int n = 0; n < nonTerminalConstants.length; n++) {
+            line("    public static final int " + nonTerminalConstants[n] + " = " + n + "; // " + table.nonTerminalName(n));
+        }
+        line("");
+        line("    private static final String[] NON_TERMINAL_NAMES = {" + joinLiterals(table.nonTerminalCount(), table::nonTerminalName) + "};");
+        line("    private static final String[] TERMINAL_NAMES = {" + joinLiterals(table.terminalCount(), table::terminalName) + "};");
+        line("    private static final int INITIAL_CAPACITY = 64;");
+        line("");
+        line("    private final TokenStream tokens;");
+        line("    private StringBuilder logger = null;");
+        line("");
+        line("    private int[] symbols = new int[INITIAL_CAPACITY];");
+        line("    private int[] depths = new int[INITIAL_CAPACITY];");
+        line("    private NonTerminalNode[] parents = new NonTerminalNode[INITIAL_CAPACITY];");
+        line("    private int top = 0;");
+        line("");
+        line("    public " + simpleName + "(List<Token> tokens) {");
+        line("        this(new ListTokenStream(tokens));");
+        line("    }");
+        line("");
+        line("    public " + simpleName + "(TokenStream tokens) {");
+        line("        this.tokens = tokens;");
+        line("    }");
+        line("");
+        line("    @Override");
+        line("    public void setLogger(StringBuilder logger) {");
+        line("        this.logger = logger;");
+        line("    }");
+        line("");
+        line("    private void log(String text, int depth) {");
+        line("        if (logger != null) {");
+        line("            logger.append(\"  \".repeat(depth)).append(text).append(\"\\n\");");
+        line("        }");
+        line("    }");
+        line("");
+        emitTerminalOf(endMarker);
+        line("");
+        line("    private int lookahead() {");
+        line("        Token token = tokens.peek();");
+        line("        return terminalOf(token.getType(), token.getLexeme());");
+        line("    }");
+        line("");
+        line("    private void push(int symbol, int depth, NonTerminalNode parent) {");
+        line("        if (top == symbols.length) {");
+        line("            int capacity = symbols.length * 2;");
+        line("            symbols = Arrays.copyOf(symbols, capacity);");
+        line("            depths = Arrays.copyOf(depths, capacity);");
+        line("            parents = Arrays.copyOf(parents, capacity);");
+        line("        }");
+        line("        symbols[top] = symbol;");
+        line("        depths[top] = depth;");
+        line("        parents[top] = parent;");
+        line("        top++;");
+        line("    }");
+        line("");
+        emitParse(endMarker);
+        for (int n = 0; n < table.nonTerminalCount(); n++) {
+            line("");
+            emitExpand(n);
+        }
+        line("");
+        line("    private void epsilon(NonTerminalNode node, int depth) {");
+        line("        node.addChild(new TerminalNode(new Token(TokenType.EOF, \"" + ParsingTable.EPSILON + "\", -1, -1)));");
+        line("        log(\"" + ParsingTable.EPSILON + "\", depth);");
+        line("    }");
+        line("");
+        line("    private RuntimeException unexpected(String expected, String nonTerminal) {");
+        line("        return new RuntimeException(\"Erro de sintaxe: esperado um de \" + expected +");
+        line("                \" em \" + nonTerminal + \", mas encontrou '\" + tokens.peek().getLexeme() + \"'\");");
+        line("    }");
+        line("}");
+        return out.toString();
+    }
+
+    private static String joinLiterals(int count, IntFunction<String> names) {
+        List<String> literals = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            literals.add(literal(names.apply(i)));
+        }
+        return String.join(", ", literals);
+    }
+
+    private void emitTerminalOf(int endMarker) {
+        int identifier = -1;
+        for (int t = 0; t < table.terminalCount(); t++) {
+            if (table.terminalName(t).equals(ParsingTable.IDENTIFIER)) {
+                identifier = t;
+            }
+        }
+        line("    /**");
+        line("     * Terminal correspondente ao tipo e ao lexema de um token, ou {@code -1} se o token não é terminal da gramática.");
+        line("     */");
+        line("    public static int terminalOf(TokenType type, String lexeme) {");
+        line("        if (type == TokenType.EOF) {");
+        line("            return " + terminalConstants[endMarker] + ";");
+        line("        }");
+        if (identifier >= 0) {
+            line("        if (type == TokenType.IDENTIFIER) {");
+            line("            return " + terminalConstants[identifier] + ";");
+            line("        }");
+        }
+        // Por tipo de token, os terminais que ele pode representar; tipos com os mesmos casos
+        // dividem o ramo. Strings, comentários e erros não aparecem, então caem no default
+        Map<String, List<String>> branches = new LinkedHashMap<>();
+        for (TokenType type : TokenType.values()) {
+            if (type == TokenType.EOF || (type == TokenType.IDENTIFIER && identifier >= 0)) {
+                continue;
+            }
+            StringBuilder cases = new StringBuilder();
+            for (int t = 0; t < table.terminalCount(); t++) {
+                String name = table.terminalName(t);
+                if (t != endMarker && table.terminalOf(type, name) == t) {
+                    cases.append("                case ").append(literal(name)).append(" -> ")
+                            .append(terminalConstants[t]).append(";\n");
+                }
+            }
+            if (!cases.isEmpty()) {
+                branches.computeIfAbsent(cases.toString(), k -> new ArrayList<>()).add(type.name());
+            }
+        }
+        line("        return switch (type) {");
+        for (Map.Entry<String, List<String>> branch : branches.entrySet()) {
+            line("            case " + String.join(", ", branch.getValue()) + " -> switch (lexeme) {");
+            out.append(branch.getKey());
+            line("                default -> -1;");
+            line("            };");
+        }
+        line("            default -> -1;");
+        line("        };");
+        line("    }");
+    }
+
+    private void emitParse(int endMarker) {
+        String end = terminalConstants[endMarker];
+        line("    @Override");
+        line("    public Node parse() {");
+        line("        top = 0;");
+        line("        NonTerminalNode root = null;");
+        line("        push(" + end + ", 0, null);");
+        line("        push(~" + nonTerminalConstants[table.start()] + ", 0, null);");
+        line("");
+        line("        int terminal = lookahead();");
+        line("        while (top > 0) {");
+        line("            top--;");
+        line("            int symbol = symbols[top];");
+        line("            int depth = depths[top];");
+        line("            NonTerminalNode parent = parents[top];");
+        line("            parents[top] = null;");
+        line("");
+        line("            if (symbol == " + end + ") {");
+        line("                if (terminal != " + end + ") {");
+        line("                    throw new RuntimeException(\"Erro: entrada não totalmente consumida. Último token: \" + tokens.peek().getLexeme());");
+        line("                }");
+        line("            } else if (symbol >= 0) {");
+        line("                if (terminal != symbol) {");
+        line("                    throw new RuntimeException(\"Erro de sintaxe: esperado '\" + TERMINAL_NAMES[symbol] +");
+        line("                            \"', mas encontrou '\" + tokens.peek().getLexeme() + \"'\");");
+        line("                }");
+        line("                Token token = tokens.next();");
+        line("                log(token.getLexeme(), depth);");
+        line("                parent.addChild(new TerminalNode(token));");
+        line("                terminal = lookahead();");
+        line("            } else {");
+        line("                int nonTerminal = ~symbol;");
+        line("                NonTerminalNode node = new NonTerminalNode(NON_TERMINAL_NAMES[nonTerminal]);");
+        line("                log(node.getName(), depth);");
+        line("                if (parent == null) {");
+        line("                    root = node;");
+        line("                } else {");
+        line("                    parent.addChild(node);");
+        line("                }");
+        line("                switch (nonTerminal) {");
+        for (int n = 0; n < table.nonTerminalCount(); n++) {
+            line("                    case " + nonTerminalConstants[n] + " -> " + expandMethod(n) + "(terminal, node, depth + 1);");
+        }
+        line("                    default -> throw new IllegalStateException();");
+        line("                }");
+        line("            }");
+        line("        }");
+        line("        return root;");
+        line("    }");
+    }
+
+    private String expandMethod(int nonTerminal) {
+        return "expand" + nonTerminalConstants[nonTerminal].substring(3);
+    }
+
+    private void emitExpand(int nonTerminal) {
+        int epsilon = table.epsilonProduction(nonTerminal);
+        List<String> alternatives = new ArrayList<>();
+        for (int p = 0; p < table.productionCount(); p++) {
+            if (table.lhs(p) == nonTerminal) {
+                alternatives.add(productionBody(p));
+            }
+        }
+        line("    // " + table.nonTerminalName(nonTerminal) + " → " + String.join(" | ", alternatives));
+        line("    private void " + expandMethod(nonTerminal) + "(int terminal, NonTerminalNode node, int depth) {");
+        line("        switch (terminal) {");
+        for (int p = 0; p < table.productionCount(); p++) {
+            if (table.lhs(p) != nonTerminal || p == epsilon) {
+                continue;
+            }
+            List<String> cases = new ArrayList<>();
+            for (int t = 0; t < table.terminalCount(); t++) {
+                if (table.production(nonTerminal, t) == p) {
+                    cases.add(terminalConstants[t]);
+                }
+            }
+            if (cases.isEmpty()) {
+                continue;
+            }
+            line("            case " + String.join(", ", cases) + " -> {");
+            int[] rhs = table.rhs(p);
+            if (rhs.length == 0) {
+                line("                epsilon(node, depth);");
+            }
+            for (int i = rhs.length - 1; i >= 0; i--) {
+                line("                push(" + symbolConstant(rhs[i]) + ", depth, node);");
+            }
+            line("            }");
+        }
+        if (epsilon >= 0) {
+            line("            default -> epsilon(node, depth);");
+        } else {
+            line("            default -> throw unexpected(" + literal(table.expectedTerminals(nonTerminal).toString())
+                    + ", " + literal(table.nonTerminalName(nonTerminal)) + ");");
+        }
+        line("        }");
+        line("    }");
+    }
+}
@@ -1,5 +1,18 @@
 package com.pedrik.recognizer.service.analytic.tree;
 
 public abstract class Node {
+    private NonTerminalNode parent;
+
+    /**
+     * Nó que tem este entre os filhos, ou null na raiz (e em nós ainda soltos).
+     */
+    public NonTerminalNode getParent() {
+        return parent;
+    }
+
+    void setParent(NonTerminalNode parent) {
+        this.parent = parent;
+    }
+
     public abstract void print(String indent);
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.pedrik.recognizer.service.analytic.tree;
 
+import com.pedrik.recognizer.service.lexical.Token;
 import com.pedrik.recognizer.service.lexical.TokenType;
 import com.pedrik.recognizer.service.semantic.SemanticInfo;
 import lombok.Getter;
@@ -21,6 +22,15 @@ public class NonTerminalNode extends Node {
 
     public void addChild(Node child) {
         children.add(child);
+        child.setParent(this);
+    }
+
+    /**
+     * Substitui o filho na posição 'index', por exemplo depois de reanalisar só aquela subárvore.
+     */
+    public void replaceChild(int index, Node child) {
+        children.set(index, child);
+        child.setParent(this);
     }
 
     public String getName() {
@@ -40,28 +50,20 @@ public class NonTerminalNode extends Node {
     }
 
     public TerminalNode getFirstTerminalWithType(TokenType type) {
-        for (Node child : children) {
-            if (child instanceof TerminalNode terminal) {
-                if (terminal.getToken().getType() == type) {
-                    return terminal;
-                }
-            } else if (child instanceof NonTerminalNode nonTerminal) {
-                TerminalNode found = nonTerminal.getFirstTerminalWithType(type);
-                if (found != null) return found;
-            }
-        }
-        return null;
+        return findFirstTerminal(type, null, true);
     }
 
     public List<TerminalNode> getAllChildrenOfType(TokenType type) {
         List<TerminalNode> result = new ArrayList<>();
-        for (Node child : children) {
-            if (child instanceof TerminalNode terminal && terminal.getToken().getType() == type) {
-                result.add(terminal);
-            } else if (child instanceof NonTerminalNode nonTerminal) {
-                result.addAll(nonTerminal.getAllChildrenOfType(type));
+        TreeWalker.walk(this, new TreeVisitor() {
+            @Override
+            public Action visitTerminal(TerminalNode terminal, int depth) {
+                if (terminal.getToken().getType() == type) {
+                    result.add(terminal);
+                }
+                return Action.CONTINUE;
             }
-        }
+        });
         return result;
     }
 
@@ -74,10 +76,19 @@ public class NonTerminalNode extends Node {
 
     @Override
     public void print(String indent) {
-        System.out.println(indent + name);
-        for (Node child : children) {
-            child.print(indent + "  ");
-        }
+        TreeWalker.walk(this, new TreeVisitor() {
+            @Override
+            public Action enterNonTerminal(NonTerminalNode node, int depth) {
+                System.out.println(indent + "  ".repeat(depth) + node.getName());
+                return Action.CONTINUE;
+            }
+
+            @Override
+            public Action visitTerminal(TerminalNode terminal, int depth) {
+                terminal.print(indent + "  ".repeat(depth));
+                return Action.CONTINUE;
+            }
+        });
     }
 
     /**
@@ -93,21 +104,27 @@ public class NonTerminalNode extends Node {
     }
 
     /**
-     * Retorna o primeiro TerminalNode com tipo e lexema correspondentes, buscando recursivamente.
+     * Retorna o primeiro TerminalNode com tipo e lexema correspondentes (lexema null não casa
+     * com nenhum), em pré-ordem; o percurso para no primeiro encontrado.
      */
     public TerminalNode getFirstTerminalWithType(TokenType type, String lexeme) {
-        for (Node child : children) {
-            if (child instanceof TerminalNode terminal) {
-                if (terminal.getToken().getType() == type && terminal.getToken().getLexeme().equalsIgnoreCase(lexeme)) {
-                    return terminal;
+        return findFirstTerminal(type, lexeme, false);
+    }
+
+    private TerminalNode findFirstTerminal(TokenType type, String lexeme, boolean anyLexeme) {
+        TerminalNode[] found = new TerminalNode[1];
+        TreeWalker.walk(this, new TreeVisitor() {
+            @Override
+            public Action visitTerminal(TerminalNode terminal, int depth) {
+                Token token = terminal.getToken();
+                if (token.getType() == type && (anyLexeme || token.getLexeme().equalsIgnoreCase(lexeme))) {
+                    found[0] = terminal;
+                    return Action.STOP;
                 }
-            } else if (child instanceof NonTerminalNode nonTerminal) {
-                TerminalNode found = nonTerminal.getFirstTerminalWithType(type, lexeme);
-                if (found != null) return found;
+                return Action.CONTINUE;
             }
-        }
-        return null;
+        });
+        return found[0];
     }
-
 }
 
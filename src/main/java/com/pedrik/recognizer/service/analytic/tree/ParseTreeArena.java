@@ -0,0 +1,315 @@
+package com.pedrik.recognizer.service.analytic.tree;
+
+import com.pedrik.recognizer.service.analytic.ParsingTable;
+import com.pedrik.recognizer.service.lexical.PackedTokenBuffer;
+import com.pedrik.recognizer.service.lexical.TokenType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Árvore sintática compacta: cada nó é um índice em arrays paralelos de {@code int} (tipo do nó,
+ * símbolo, primeiro filho, próximo irmão, índice do token e tipo semântico), sem objetos por nó.
+ * Os tokens ficam no {@link PackedTokenBuffer} de onde vieram e os símbolos são os índices da
+ * {@link ParsingTable}.
+ * <p>
+ * Equivale à árvore de {@link NonTerminalNode}/{@link TerminalNode}, com as mesmas consultas
+ * ({@link #firstTerminalWithType}, {@link #allChildrenOfType}, {@link #child}) sobre índices; as
+ * buscas usam pilha explícita, então a profundidade não é limitada pela pilha de chamadas.
+ * A arena pode ser reutilizada com {@link #reset}, mantendo os arrays já alocados.
+ */
+public class ParseTreeArena {
+
+    public static final int NONE = -1;
+
+    public static final int NON_TERMINAL = 0;
+    public static final int TERMINAL = 1;
+    public static final int EPSILON = 2;
+
+    private static final int[] NO_NODES = new int[0];
+
+    private ParsingTable table;
+    private PackedTokenBuffer tokens;
+
+    private int[] kinds = new int[64];
+    private int[] symbols = new int[64];
+    private int[] firstChildren = new int[64];
+    private int[] nextSiblings = new int[64];
+    private int[] lastChildren = new int[64]; // só para anexar filhos em O(1)
+    private int[] tokenIndexes = new int[64];
+    private int[] semanticTypes = new int[64];
+    private int size = 0;
+
+    // Tipos semânticos internados: o id é a posição na lista
+    private final List<String> typeNames = new ArrayList<>();
+    private final Map<String, Integer> typeIds = new HashMap<>();
+
+    private int[] stack = new int[64];
+
+    /**
+     * Descarta a árvore atual e prepara a arena para uma nova análise.
+     */
+    public void reset(ParsingTable table, PackedTokenBuffer tokens) {
+        this.table = table;
+        this.tokens = tokens;
+        this.size = 0;
+    }
+
+    private int add(int parent, int kind, int symbol, int tokenIndex) {
+        if (size == kinds.length) {
+            int capacity = size * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            symbols = Arrays.copyOf(symbols, capacity);
+            firstChildren = Arrays.copyOf(firstChildren, capacity);
+            nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+            lastChildren = Arrays.copyOf(lastChildren, capacity);
+            tokenIndexes = Arrays.copyOf(tokenIndexes, capacity);
+            semanticTypes = Arrays.copyOf(semanticTypes, capacity);
+        }
+        int node = size++;
+        kinds[node] = kind;
+        symbols[node] = symbol;
+        firstChildren[node] = NONE;
+        nextSiblings[node] = NONE;
+        lastChildren[node] = NONE;
+        tokenIndexes[node] = tokenIndex;
+        semanticTypes[node] = NONE;
+
+        if (parent != NONE) {
+            if (lastChildren[parent] == NONE) {
+                firstChildren[parent] = node;
+            } else {
+                nextSiblings[lastChildren[parent]] = node;
+            }
+            lastChildren[parent] = node;
+        }
+        return node;
+    }
+
+    public int addNonTerminal(int parent, int nonTerminal) {
+        return add(parent, NON_TERMINAL, nonTerminal, NONE);
+    }
+
+    public int addTerminal(int parent, int terminal, int tokenIndex) {
+        return add(parent, TERMINAL, terminal, tokenIndex);
+    }
+
+    public int addEpsilon(int parent) {
+        return add(parent, EPSILON, NONE, NONE);
+    }
+
+    /**
+     * Raiz da árvore (o primeiro nó criado), ou {@link #NONE} se a arena está vazia.
+     */
+    public int root() {
+        return size == 0 ? NONE : 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public ParsingTable getTable() {
+        return table;
+    }
+
+    public PackedTokenBuffer getTokens() {
+        return tokens;
+    }
+
+    public int kind(int node) {
+        return kinds[node];
+    }
+
+    public int symbol(int node) {
+        return symbols[node];
+    }
+
+    public int firstChild(int node) {
+        return firstChildren[node];
+    }
+
+    public int nextSibling(int node) {
+        return nextSiblings[node];
+    }
+
+    public int tokenIndex(int node) {
+        return tokenIndexes[node];
+    }
+
+    /**
+     * Nome do não-terminal, ou o lexema para terminais e ε.
+     */
+    public String name(int node) {
+        return switch (kinds[node]) {
+            case NON_TERMINAL -> table.nonTerminalName(symbols[node]);
+            case TERMINAL -> tokens.lexeme(tokenIndexes[node]).toString();
+            default -> ParsingTable.EPSILON;
+        };
+    }
+
+    /**
+     * Tipo do token de um nó terminal; ε é tratado como {@link TokenType#EOF}, como na árvore de objetos.
+     */
+    public TokenType tokenType(int node) {
+        return kinds[node] == TERMINAL ? tokens.type(tokenIndexes[node]) : TokenType.EOF;
+    }
+
+    public int semanticType(int node) {
+        return semanticTypes[node];
+    }
+
+    /**
+     * Nome do tipo semântico do nó, ou null se ele não tem informação semântica.
+     */
+    public String semanticTypeName(int node) {
+        int type = semanticTypes[node];
+        return type == NONE ? null : typeNames.get(type);
+    }
+
+    public void setSemanticType(int node, String type) {
+        semanticTypes[node] = type == null ? NONE : typeIds.computeIfAbsent(type, name -> {
+            typeNames.add(name);
+            return typeNames.size() - 1;
+        });
+    }
+
+    /**
+     * Filho na posição 'index', ou {@link #NONE}.
+     */
+    public int child(int node, int index) {
+        if (index < 0) return NONE;
+        int child = firstChildren[node];
+        while (child != NONE && index-- > 0) {
+            child = nextSiblings[child];
+        }
+        return child;
+    }
+
+    /**
+     * Filho na posição 'index' se for do tipo de nó informado, ou {@link #NONE}
+     * (equivalente a {@link NonTerminalNode#getChild(int, Class)}).
+     */
+    public int child(int node, int index, int kind) {
+        int child = child(node, index);
+        return child != NONE && kinds[child] == kind ? child : NONE;
+    }
+
+    public int childCount(int node) {
+        int count = 0;
+        for (int child = firstChildren[node]; child != NONE; child = nextSiblings[child]) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Primeiro terminal (em pré-ordem) abaixo do nó com o tipo informado, ou {@link #NONE}.
+     */
+    public int firstTerminalWithType(int node, TokenType type) {
+        return firstTerminalWithType(node, type, null);
+    }
+
+    /**
+     * Primeiro terminal abaixo do nó com o tipo e o lexema (sem diferenciar maiúsculas)
+     * informados, ou {@link #NONE}. Lexema null aceita qualquer um.
+     */
+    public int firstTerminalWithType(int node, TokenType type, String lexeme) {
+        int top = pushChildren(0, node);
+        while (top > 0) {
+            int current = stack[--top];
+            if (matches(current, type, lexeme)) {
+                return current;
+            }
+            top = pushChildren(top, current);
+        }
+        return NONE;
+    }
+
+    /**
+     * Todos os terminais abaixo do nó com o tipo informado, em pré-ordem.
+     */
+    public int[] allChildrenOfType(int node, TokenType type) {
+        int[] result = NO_NODES;
+        int count = 0;
+        int top = pushChildren(0, node);
+        while (top > 0) {
+            int current = stack[--top];
+            if (matches(current, type, null)) {
+                if (count == result.length) {
+                    result = Arrays.copyOf(result, Math.max(8, count * 2));
+                }
+                result[count++] = current;
+            }
+            top = pushChildren(top, current);
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    public int[] allIdentifiers(int node) {
+        return allChildrenOfType(node, TokenType.IDENTIFIER);
+    }
+
+    private boolean matches(int node, TokenType type, String lexeme) {
+        if (kinds[node] == NON_TERMINAL || tokenType(node) != type) {
+            return false;
+        }
+        if (lexeme == null) {
+            return true;
+        }
+        CharSequence text = kinds[node] == TERMINAL ? tokens.lexeme(tokenIndexes[node]) : ParsingTable.EPSILON;
+        if (text.length() != lexeme.length()) {
+            return false;
+        }
+        for (int i = 0; i < lexeme.length(); i++) {
+            char a = text.charAt(i);
+            char b = lexeme.charAt(i);
+            if (a != b && Character.toUpperCase(a) != Character.toUpperCase(b)
+                    && Character.toLowerCase(a) != Character.toLowerCase(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Empilha os filhos em ordem inversa, para serem visitados da esquerda para a direita
+    private int pushChildren(int top, int node) {
+        int start = top;
+        for (int child = firstChildren[node]; child != NONE; child = nextSiblings[child]) {
+            if (top == stack.length) {
+                stack = Arrays.copyOf(stack, top * 2);
+            }
+            stack[top++] = child;
+        }
+        for (int i = start, j = top - 1; i < j; i++, j--) {
+            int swap = stack[i];
+            stack[i] = stack[j];
+            stack[j] = swap;
+        }
+        return top;
+    }
+
+    /**
+     * Escreve a árvore no mesmo formato indentado do {@code setLogger} dos parsers.
+     */
+    public void appendLog(StringBuilder logger) {
+        if (size == 0) {
+            return;
+        }
+        int[] depths = new int[size];
+        int top = 0;
+        stack[top++] = root();
+        while (top > 0) {
+            int node = stack[--top];
+            logger.append("  ".repeat(depths[node])).append(name(node)).append("\n");
+            int before = top;
+            top = pushChildren(top, node);
+            for (int i = before; i < top; i++) {
+                depths[stack[i]] = depths[node] + 1;
+            }
+        }
+    }
+}
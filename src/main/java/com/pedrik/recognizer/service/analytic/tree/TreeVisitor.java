@@ -0,0 +1,29 @@
+package com.pedrik.recognizer.service.analytic.tree;
+
+/**
+ * Visitante da árvore sintática percorrida pelo {@link TreeWalker}: um método por tipo de nó,
+ * com a profundidade (0 na raiz). Não-terminais são visitados na entrada (pré-ordem) e na saída
+ * (pós-ordem); o retorno de cada método decide se o percurso continua.
+ */
+public interface TreeVisitor {
+
+    enum Action {
+        CONTINUE,
+        /** Não desce nos filhos do não-terminal; a saída dele ainda é visitada. */
+        SKIP_CHILDREN,
+        /** Encerra o percurso imediatamente. */
+        STOP
+    }
+
+    default Action enterNonTerminal(NonTerminalNode node, int depth) {
+        return Action.CONTINUE;
+    }
+
+    default Action exitNonTerminal(NonTerminalNode node, int depth) {
+        return Action.CONTINUE;
+    }
+
+    default Action visitTerminal(TerminalNode node, int depth) {
+        return Action.CONTINUE;
+    }
+}
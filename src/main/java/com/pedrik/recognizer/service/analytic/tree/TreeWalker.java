@@ -0,0 +1,112 @@
+package com.pedrik.recognizer.service.analytic.tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Percurso em profundidade da árvore de {@link NonTerminalNode}/{@link TerminalNode} com pilha
+ * explícita, então a profundidade da árvore não é limitada pela pilha de chamadas.
+ * <p>
+ * A pilha (nó e próximo filho de cada nível) é reaproveitada entre percursos da mesma instância.
+ * {@link #walk(Node, TreeVisitor)} usa instâncias da thread atual, uma por nível de aninhamento,
+ * para que um visitante possa fazer consultas na árvore (que também percorrem) sem alocar pilhas.
+ */
+public class TreeWalker {
+
+    private static final ThreadLocal<List<TreeWalker>> POOL = ThreadLocal.withInitial(ArrayList::new);
+
+    private NonTerminalNode[] nodes = new NonTerminalNode[32];
+    private int[] nextChild = new int[32];
+    private int used = 0;
+    private boolean walking = false;
+
+    /**
+     * Percorre a árvore com uma instância livre da thread atual; retorna false se o visitante parou.
+     */
+    public static boolean walk(Node root, TreeVisitor visitor) {
+        List<TreeWalker> pool = POOL.get();
+        for (TreeWalker walker : pool) {
+            if (!walker.walking) {
+                return walker.visit(root, visitor);
+            }
+        }
+        TreeWalker walker = new TreeWalker();
+        pool.add(walker);
+        return walker.visit(root, visitor);
+    }
+
+    /**
+     * Percorre a árvore a partir de 'root'; retorna false se o visitante devolveu
+     * {@link TreeVisitor.Action#STOP}.
+     */
+    public boolean visit(Node root, TreeVisitor visitor) {
+        if (walking) {
+            throw new IllegalStateException("TreeWalker já está percorrendo outra árvore");
+        }
+        walking = true;
+        try {
+            return run(root, visitor);
+        } finally {
+            Arrays.fill(nodes, 0, used, null); // não segura a árvore depois do percurso
+            used = 0;
+            walking = false;
+        }
+    }
+
+    private boolean run(Node root, TreeVisitor visitor) {
+        if (root instanceof TerminalNode terminal) {
+            return visitor.visitTerminal(terminal, 0) != TreeVisitor.Action.STOP;
+        }
+        if (!(root instanceof NonTerminalNode start)) {
+            return true;
+        }
+        int top = descend(0, start, visitor);
+        while (top > 0) {
+            NonTerminalNode node = nodes[top - 1];
+            List<Node> children = node.getChildren();
+            int index = nextChild[top - 1];
+            if (index == children.size()) {
+                top--;
+                if (visitor.exitNonTerminal(node, top) == TreeVisitor.Action.STOP) {
+                    return false;
+                }
+                continue;
+            }
+            nextChild[top - 1] = index + 1;
+            Node child = children.get(index);
+            if (child instanceof TerminalNode terminal) {
+                if (visitor.visitTerminal(terminal, top) == TreeVisitor.Action.STOP) {
+                    return false;
+                }
+            } else if (child instanceof NonTerminalNode nonTerminal) {
+                top = descend(top, nonTerminal, visitor);
+            }
+        }
+        return top == 0;
+    }
+
+    // Entra no não-terminal (profundidade 'top'): empilha para visitar os filhos ou, se eles foram
+    // pulados, visita já a saída. Retorna o novo topo, ou -1 se o visitante parou.
+    private int descend(int top, NonTerminalNode node, TreeVisitor visitor) {
+        TreeVisitor.Action action = visitor.enterNonTerminal(node, top);
+        if (action == TreeVisitor.Action.STOP) {
+            return -1;
+        }
+        if (action == TreeVisitor.Action.SKIP_CHILDREN) {
+            return visitor.exitNonTerminal(node, top) == TreeVisitor.Action.STOP ? -1 : top;
+        }
+        return push(top, node);
+    }
+
+    private int push(int top, NonTerminalNode node) {
+        if (top == nodes.length) {
+            nodes = Arrays.copyOf(nodes, top * 2);
+            nextChild = Arrays.copyOf(nextChild, top * 2);
+        }
+        nodes[top] = node;
+        nextChild[top] = 0;
+        used = Math.max(used, top + 1);
+        return top + 1;
+    }
+}
@@ -0,0 +1,69 @@
+package com.pedrik.recognizer.service.evaluation;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Expressão booleana compilada por {@link PredicateCompiler}, para ser avaliada muitas vezes.
+ * <p>
+ * As variáveis já estão resolvidas para posições ({@link #getSlots()}): o valor da variável da
+ * posição {@code i} é {@code values[i]} em {@link #test(boolean[])} ou o bit {@code i} em
+ * {@link #test(long)}. Avaliar não aloca nada e a instância pode ser compartilhada entre threads.
+ */
+public final class CompiledPredicate {
+
+    private final String expression;
+    private final List<String> slots;
+    private final Map<String, Integer> slotIndex;
+    private final Condition values;
+    private final Condition bits;
+
+    CompiledPredicate(String expression, List<String> slots, Map<String, Integer> slotIndex, Condition values, Condition bits) {
+        this.expression = expression;
+        this.slots = slots;
+        this.slotIndex = slotIndex;
+        this.values = values;
+        this.bits = bits;
+    }
+
+    /**
+     * Nomes das variáveis, na ordem das posições.
+     */
+    public List<String> getSlots() {
+        return slots;
+    }
+
+    /**
+     * Posição da variável, ou {@code -1} se ela não faz parte do predicado.
+     */
+    public int slotOf(String name) {
+        Integer slot = slotIndex.get(name);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Avalia com um valor por posição; o array deve ter ao menos {@code getSlots().size()} elementos.
+     */
+    public boolean test(boolean[] values) {
+        return this.values.test(values);
+    }
+
+    /**
+     * Avalia com o valor da posição {@code i} no bit {@code i}. Só disponível com até 64 posições.
+     */
+    public boolean test(long bits) {
+        if (this.bits == null) {
+            throw new IllegalStateException("Predicado com " + slots.size() + " variáveis não cabe em 64 bits");
+        }
+        return this.bits.test(bits);
+    }
+
+    public boolean supportsBits() {
+        return bits != null;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
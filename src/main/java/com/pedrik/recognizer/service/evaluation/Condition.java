@@ -0,0 +1,183 @@
+package com.pedrik.recognizer.service.evaluation;
+
+/**
+ * Nó da árvore de closures de um {@link CompiledPredicate}. Cada operador é uma classe final
+ * pequena com os operandos já resolvidos, então avaliar não aloca nada e {@code AND}/{@code OR}
+ * param no primeiro operando que decide o resultado.
+ */
+abstract class Condition {
+
+    abstract boolean test(boolean[] values);
+
+    abstract boolean test(long bits);
+
+    static final class Slot extends Condition {
+        final int slot;
+        private final long mask;
+
+        Slot(int slot) {
+            this.slot = slot;
+            this.mask = 1L << slot;
+        }
+
+        @Override
+        boolean test(boolean[] values) {
+            return values[slot];
+        }
+
+        @Override
+        boolean test(long bits) {
+            return (bits & mask) != 0;
+        }
+    }
+
+    // Variáveis (negadas ou não) de um AND/OR testadas de uma vez; a árvore para bits usa as
+    // máscaras direto e a forma com array percorre os bits ligados
+    static final class Mask extends Condition {
+        private final long required;
+        private final long forbidden;
+        private final boolean any;
+
+        Mask(long required, long forbidden, boolean any) {
+            this.required = required;
+            this.forbidden = forbidden;
+            this.any = any;
+        }
+
+        @Override
+        boolean test(boolean[] values) {
+            for (long bits = required; bits != 0; bits &= bits - 1) {
+                if (values[Long.numberOfTrailingZeros(bits)] == any) {
+                    return any;
+                }
+            }
+            for (long bits = forbidden; bits != 0; bits &= bits - 1) {
+                if (values[Long.numberOfTrailingZeros(bits)] != any) {
+                    return any;
+                }
+            }
+            return !any;
+        }
+
+        @Override
+        boolean test(long bits) {
+            return any
+                    ? (bits & required) != 0 || (~bits & forbidden) != 0
+                    : (bits & required) == required && (bits & forbidden) == 0;
+        }
+    }
+
+    static final class Negation extends Condition {
+        final Condition operand;
+
+        Negation(Condition operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        boolean test(boolean[] values) {
+            return !operand.test(values);
+        }
+
+        @Override
+        boolean test(long bits) {
+            return !operand.test(bits);
+        }
+    }
+
+    static final class And2 extends Condition {
+        private final Condition left;
+        private final Condition right;
+
+        And2(Condition left, Condition right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean test(boolean[] values) {
+            return left.test(values) && right.test(values);
+        }
+
+        @Override
+        boolean test(long bits) {
+            return left.test(bits) && right.test(bits);
+        }
+    }
+
+    static final class Or2 extends Condition {
+        private final Condition left;
+        private final Condition right;
+
+        Or2(Condition left, Condition right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean test(boolean[] values) {
+            return left.test(values) || right.test(values);
+        }
+
+        @Override
+        boolean test(long bits) {
+            return left.test(bits) || right.test(bits);
+        }
+    }
+
+    static final class AndN extends Condition {
+        private final Condition[] operands;
+
+        AndN(Condition[] operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        boolean test(boolean[] values) {
+            for (Condition operand : operands) {
+                if (!operand.test(values)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        boolean test(long bits) {
+            for (Condition operand : operands) {
+                if (!operand.test(bits)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    static final class OrN extends Condition {
+        private final Condition[] operands;
+
+        OrN(Condition[] operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        boolean test(boolean[] values) {
+            for (Condition operand : operands) {
+                if (operand.test(values)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        boolean test(long bits) {
+            for (Condition operand : operands) {
+                if (operand.test(bits)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
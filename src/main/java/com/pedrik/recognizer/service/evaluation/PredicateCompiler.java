@@ -0,0 +1,197 @@
+package com.pedrik.recognizer.service.evaluation;
+
+import com.pedrik.recognizer.service.analytic.AstBuilderListener;
+import com.pedrik.recognizer.service.analytic.ParsingTable;
+import com.pedrik.recognizer.service.analytic.TableDrivenParser;
+import com.pedrik.recognizer.service.analytic.ast.And;
+import com.pedrik.recognizer.service.analytic.ast.AstNode;
+import com.pedrik.recognizer.service.analytic.ast.LogicalNode;
+import com.pedrik.recognizer.service.analytic.ast.Not;
+import com.pedrik.recognizer.service.analytic.ast.Var;
+import com.pedrik.recognizer.service.analytic.tree.Node;
+import com.pedrik.recognizer.service.lexical.DfaLexer;
+import com.pedrik.recognizer.service.lexical.LexerEngine;
+import com.pedrik.recognizer.service.lexical.LexerTokenStream;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compila uma expressão já validada num {@link CompiledPredicate}: uma árvore de closures
+ * ({@link Condition}) com as variáveis resolvidas para posições antes da avaliação.
+ * <p>
+ * A árvore concreta (do {@link com.pedrik.recognizer.service.analytic.RecursiveDescentParser} ou do
+ * {@link TableDrivenParser}) é primeiro reduzida à árvore abstrata; {@code AND}/{@code OR}
+ * aninhados do mesmo operador viram um único nó e {@code NOT NOT x} vira {@code x}. Para a
+ * avaliação em bits, as variáveis de um mesmo {@code AND}/{@code OR} são testadas juntas com uma
+ * máscara. A compilação usa pilha explícita; a avaliação é recursiva na profundidade de
+ * parênteses e {@code NOT}, não no tamanho da expressão.
+ */
+public final class PredicateCompiler {
+
+    private PredicateCompiler() {
+    }
+
+    /**
+     * Compila com as posições na ordem em que as variáveis aparecem na expressão.
+     */
+    public static CompiledPredicate compile(Node parseTree) {
+        AstNode ast = AstBuilderListener.fromTree(parseTree);
+        return compile(ast, variablesOf(ast));
+    }
+
+    /**
+     * Compila com as posições informadas; lança {@link IllegalArgumentException} se a expressão
+     * usa uma variável fora da lista.
+     */
+    public static CompiledPredicate compile(Node parseTree, List<String> slots) {
+        return compile(AstBuilderListener.fromTree(parseTree), slots);
+    }
+
+    /**
+     * Analisa a expressão com o {@link LexerEngine} compartilhado, montando só a árvore abstrata.
+     */
+    public static CompiledPredicate compile(String expression, List<String> slots) {
+        DfaLexer lexer = LexerEngine.shared().scanner(expression);
+        AstNode ast = new TableDrivenParser(ParsingTable.booleanExpressions(), new LexerTokenStream(lexer)).parseAst();
+        return compile(ast, slots);
+    }
+
+    public static CompiledPredicate compile(AstNode ast, List<String> slots) {
+        Map<String, Integer> slotIndex = new HashMap<>(slots.size() * 2);
+        for (int i = 0; i < slots.size(); i++) {
+            if (slotIndex.putIfAbsent(slots.get(i), i) != null) {
+                throw new IllegalArgumentException("Variável repetida nas posições: " + slots.get(i));
+            }
+        }
+        Condition values = build(ast, slotIndex, false);
+        Condition bits = slots.size() <= Long.SIZE ? build(ast, slotIndex, true) : null;
+        return new CompiledPredicate(ast.toString(), List.copyOf(slots), Collections.unmodifiableMap(slotIndex), values, bits);
+    }
+
+    // Variáveis distintas em pré-ordem, da esquerda para a direita
+    private static List<String> variablesOf(AstNode ast) {
+        Map<String, Boolean> seen = new LinkedHashMap<>();
+        Deque<AstNode> pending = new ArrayDeque<>();
+        pending.push(ast);
+        while (!pending.isEmpty()) {
+            AstNode node = pending.pop();
+            if (node instanceof Var var) {
+                seen.putIfAbsent(var.getName(), Boolean.TRUE);
+            } else if (node instanceof Not not) {
+                pending.push(not.getOperand());
+            } else if (node instanceof LogicalNode logical) {
+                List<AstNode> operands = logical.getOperands();
+                for (int i = operands.size() - 1; i >= 0; i--) {
+                    pending.push(operands.get(i));
+                }
+            }
+        }
+        return new ArrayList<>(seen.keySet());
+    }
+
+    /**
+     * Monta as closures em pós-ordem: a pré-ordem invertida (filhos da esquerda para a direita)
+     * é consumida de trás para frente, e cada nó desempilha as closures dos seus operandos.
+     */
+    private static Condition build(AstNode ast, Map<String, Integer> slotIndex, boolean bits) {
+        Deque<AstNode> pending = new ArrayDeque<>();
+        Deque<AstNode> postOrder = new ArrayDeque<>();
+        pending.push(ast);
+        while (!pending.isEmpty()) {
+            AstNode node = pending.pop();
+            postOrder.push(node);
+            if (node instanceof Not not) {
+                pending.push(not.getOperand());
+            } else if (node instanceof LogicalNode logical) {
+                for (AstNode operand : flatten(logical)) {
+                    pending.push(operand);
+                }
+            }
+        }
+
+        Deque<Condition> built = new ArrayDeque<>();
+        while (!postOrder.isEmpty()) {
+            AstNode node = postOrder.pop();
+            if (node instanceof Var var) {
+                Integer slot = slotIndex.get(var.getName());
+                if (slot == null) {
+                    throw new IllegalArgumentException("Variável sem posição definida: " + var.getName());
+                }
+                built.push(new Condition.Slot(slot));
+            } else if (node instanceof Not) {
+                Condition operand = built.pop();
+                built.push(operand instanceof Condition.Negation negation ? negation.operand : new Condition.Negation(operand));
+            } else if (node instanceof LogicalNode logical) {
+                Condition[] operands = new Condition[flatten(logical).size()];
+                for (int i = operands.length - 1; i >= 0; i--) {
+                    operands[i] = built.pop();
+                }
+                built.push(combine(operands, logical instanceof And, bits));
+            }
+        }
+        return built.pop();
+    }
+
+    // Operandos do nó com os AND/OR do mesmo operador, vindos de parênteses, expandidos
+    private static List<AstNode> flatten(LogicalNode logical) {
+        List<AstNode> operands = new ArrayList<>();
+        Deque<AstNode> pending = new ArrayDeque<>();
+        pending.push(logical);
+        while (!pending.isEmpty()) {
+            AstNode node = pending.pop();
+            if (node == logical || node.getClass() == logical.getClass()) {
+                List<AstNode> children = ((LogicalNode) node).getOperands();
+                for (int i = children.size() - 1; i >= 0; i--) {
+                    pending.push(children.get(i));
+                }
+            } else {
+                operands.add(node);
+            }
+        }
+        return operands;
+    }
+
+    private static Condition combine(Condition[] operands, boolean and, boolean bits) {
+        if (bits) {
+            operands = mergeSlots(operands, and);
+        }
+        if (operands.length == 1) {
+            return operands[0];
+        }
+        if (operands.length == 2) {
+            return and ? new Condition.And2(operands[0], operands[1]) : new Condition.Or2(operands[0], operands[1]);
+        }
+        return and ? new Condition.AndN(operands) : new Condition.OrN(operands);
+    }
+
+    // Junta as variáveis e variáveis negadas numa máscara, testada antes dos demais operandos
+    private static Condition[] mergeSlots(Condition[] operands, boolean and) {
+        long required = 0;
+        long forbidden = 0;
+        List<Condition> rest = new ArrayList<>();
+        int merged = 0;
+        for (Condition operand : operands) {
+            if (operand instanceof Condition.Slot slot) {
+                required |= 1L << slot.slot;
+                merged++;
+            } else if (operand instanceof Condition.Negation negation && negation.operand instanceof Condition.Slot slot) {
+                forbidden |= 1L << slot.slot;
+                merged++;
+            } else {
+                rest.add(operand);
+            }
+        }
+        if (merged < 2) {
+            return operands;
+        }
+        rest.add(0, new Condition.Mask(required, forbidden, !and));
+        return rest.toArray(new Condition[0]);
+    }
+}
@@ -0,0 +1,44 @@
+package com.pedrik.recognizer.service.lexical;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Visão {@link CharSequence} sobre uma região de um {@link ByteBuffer} (por exemplo um arquivo
+ * mapeado) com texto ASCII ou UTF-8. Cada byte vira um caractere, então índices são deslocamentos
+ * em bytes; {@link #toString()} decodifica a região como UTF-8 e é o único ponto que copia dados.
+ */
+public final class ByteCharSequence implements CharSequence {
+
+    private final ByteBuffer bytes;
+    private final int offset;
+    private final int length;
+
+    public ByteCharSequence(ByteBuffer bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) (bytes.get(offset + index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new ByteCharSequence(bytes, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        byte[] copy = new byte[length];
+        bytes.get(offset, copy);
+        return new String(copy, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,52 @@
+package com.pedrik.recognizer.service.lexical;
+
+/**
+ * {@link CharSequence} sobre um {@code char[]} reutilizável, para que varreduras vetorizadas
+ * possam ler o array diretamente. {@link #load(CharSequence)} só aloca quando a entrada
+ * não cabe no array atual.
+ */
+public final class CharArraySequence implements CharSequence {
+
+    private char[] chars = new char[256];
+    private int length;
+
+    public CharArraySequence load(CharSequence input) {
+        int size = input.length();
+        if (size > chars.length) {
+            chars = new char[Math.max(size, chars.length * 2)];
+        }
+        if (input instanceof String string) {
+            string.getChars(0, size, chars, 0);
+        } else {
+            for (int i = 0; i < size; i++) {
+                chars[i] = input.charAt(i);
+            }
+        }
+        length = size;
+        return this;
+    }
+
+    char[] array() {
+        return chars;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return chars[index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new String(chars, start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+}
@@ -0,0 +1,24 @@
+package com.pedrik.recognizer.service.lexical;
+
+/**
+ * Laços de varredura que dominam o tempo do {@link DfaLexer}: sequências de espaço,
+ * identificadores longos e o texto de strings e comentários. Cada método retorna a primeira
+ * posição em [from, to) que interrompe a sequência, ou 'to' se não houver nenhuma.
+ */
+public interface CharSkipper {
+
+    /**
+     * Primeira posição que não é espaço ({@code [ \t\r\f]}).
+     */
+    int skipSpaces(CharSequence input, int from, int to);
+
+    /**
+     * Primeira posição que não é caractere de identificador ({@code [a-zA-Z0-9_]}).
+     */
+    int skipWordChars(CharSequence input, int from, int to);
+
+    /**
+     * Primeira posição com o caractere 'a' ou 'b'.
+     */
+    int indexOfEither(CharSequence input, int from, int to, char a, char b);
+}
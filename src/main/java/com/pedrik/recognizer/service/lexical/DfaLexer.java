@@ -0,0 +1,478 @@
+package com.pedrik.recognizer.service.lexical;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scanner escrito à mão (DFA baseado em switch) que produz exatamente a mesma
+ * sequência de tokens que o {@link Lexer} baseado em regex, sem criar um
+ * {@code Matcher} por token nem testar grupos nomeados.
+ * O {@link Lexer} continua existindo como implementação de referência.
+ */
+public class DfaLexer implements TokenSource {
+
+    // Classes de caractere usadas pelo autômato (apenas ASCII; o resto é OTHER)
+    private static final byte OTHER = 0;
+    private static final byte LETTER = 1;
+    private static final byte DIGIT = 2;
+    private static final byte SPACE = 3;
+    private static final byte[] CHAR_CLASS = new byte[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) CHAR_CLASS[c] = LETTER;
+        for (char c = 'A'; c <= 'Z'; c++) CHAR_CLASS[c] = LETTER;
+        CHAR_CLASS['_'] = LETTER;
+        for (char c = '0'; c <= '9'; c++) CHAR_CLASS[c] = DIGIT;
+        CHAR_CLASS[' '] = SPACE;
+        CHAR_CLASS['\t'] = SPACE;
+        CHAR_CLASS['\r'] = SPACE;
+        CHAR_CLASS['\f'] = SPACE;
+    }
+
+    private CharSequence input;
+    private int index = 0;
+    private int line = 1;
+    private int column = 1;
+    private boolean halted = false; // string ou comentário sem fim: o Lexer interrompe a análise
+    private boolean finished = false; // EOF já emitido
+    private int limit = Integer.MAX_VALUE; // nenhum token novo começa a partir daqui
+    private final CharSkipper skipper;
+
+    // Último token reconhecido por scan(): intervalo bruto na entrada e posição
+    private TokenType tokenType;
+    private int tokenStart;
+    private int tokenEnd;
+    private int tokenLine;
+    private int tokenStartLine;
+    private int tokenColumn;
+
+    public DfaLexer(CharSequence input) {
+        this(input, ScalarCharSkipper.INSTANCE);
+    }
+
+    public DfaLexer(CharSequence input, CharSkipper skipper) {
+        this.input = input;
+        this.skipper = skipper;
+    }
+
+    /**
+     * Reposiciona o scanner no início de uma nova entrada, permitindo reutilizar a instância.
+     */
+    public DfaLexer reset(CharSequence input) {
+        return reset(input, 1, 1);
+    }
+
+    /**
+     * Reposiciona o scanner em uma nova entrada que começa na linha e coluna informadas,
+     * para continuar uma análise a partir de uma fronteira de token.
+     */
+    public DfaLexer reset(CharSequence input, int line, int column) {
+        return reset(input, 0, line, column);
+    }
+
+    /**
+     * Reposiciona o scanner em 'start', que deve ser uma fronteira de token com a linha e
+     * coluna informadas. Os intervalos dos tokens continuam relativos ao início da entrada.
+     */
+    public DfaLexer reset(CharSequence input, int start, int line, int column) {
+        this.input = input;
+        this.index = start;
+        this.line = line;
+        this.column = column;
+        this.halted = false;
+        this.finished = false;
+        this.limit = Integer.MAX_VALUE;
+        this.tokenType = null;
+        return this;
+    }
+
+    /**
+     * Faz {@link #scan()} retornar {@code null} ao chegar em 'limit' em vez de começar um novo
+     * token ali. Tokens que começam antes do limite são lidos até o fim, mesmo que o ultrapassem.
+     */
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * Posição atual da varredura; após {@link #scan()}, é o fim do último token ou do espaço consumido.
+     */
+    public int position() {
+        return index;
+    }
+
+    public int line() {
+        return line;
+    }
+
+    public int column() {
+        return column;
+    }
+
+    /**
+     * Indica que a análise terminou: o EOF foi emitido (a entrada pode ter acabado em uma string
+     * ou comentário sem fim, que interrompe a análise como no {@link Lexer}).
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public List<Token> tokenize() {
+        List<Token> tokens = new ArrayList<>();
+        Token token;
+        while ((token = nextToken()) != null) {
+            tokens.add(token);
+        }
+        return tokens;
+    }
+
+    /**
+     * Retorna o próximo token, o EOF ao final da entrada e {@code null} depois disso.
+     */
+    @Override
+    public Token nextToken() {
+        if (scan() == null) {
+            return null;
+        }
+        return token();
+    }
+
+    // Token do último scan(), para quem varre sem alocar e só às vezes precisa do objeto
+    Token token() {
+        return new Token(tokenType, lexemeString(input, tokenType, tokenStart, tokenEnd), tokenLine, tokenColumn, tokenStart, tokenEnd);
+    }
+
+    CharSequence input() {
+        return input;
+    }
+
+    /**
+     * Reconhece o próximo token sem alocar nada: retorna o tipo (ou {@code null} depois do EOF
+     * ou ao atingir o limite) e deixa intervalo, linha e coluna disponíveis em {@link #tokenStart()}, {@link #tokenEnd()},
+     * {@link #tokenLine()} e {@link #tokenColumn()}.
+     */
+    public TokenType scan() {
+        if (finished) {
+            return null;
+        }
+
+        final int length = input.length();
+        while (!halted && index < length) {
+            if (index >= limit) {
+                return null;
+            }
+            char currentChar = input.charAt(index);
+            byte charClass = currentChar < 128 ? CHAR_CLASS[currentChar] : OTHER;
+
+            if (charClass == SPACE) {
+                int start = index;
+                index = skipper.skipSpaces(input, index + 1, length);
+                column += index - start;
+                continue;
+            }
+            if (charClass == LETTER) {
+                return scanWord();
+            }
+            if (charClass == DIGIT) {
+                int start = index;
+                do {
+                    index++;
+                } while (index < length && isDigit(input.charAt(index)));
+                return emit(TokenType.NUMBER, start);
+            }
+
+            switch (currentChar) {
+                case '\n' -> {
+                    index++;
+                    line++;
+                    column = 1;
+                }
+                case '"' -> {
+                    return scanString();
+                }
+                case '/' -> {
+                    if (index + 1 < length && input.charAt(index + 1) == '*') {
+                        return scanBlockComment();
+                    }
+                    if (index + 1 < length && input.charAt(index + 1) == '/') {
+                        return scanLineComment();
+                    }
+                    return single(TokenType.OPERATOR);
+                }
+                // ASSIGN vem antes de OPERATOR na regex, então "==" vira dois ASSIGN
+                case '=' -> {
+                    return single(TokenType.ASSIGN);
+                }
+                case '!' -> {
+                    if (index + 1 < length && input.charAt(index + 1) == '=') {
+                        return pair(TokenType.OPERATOR);
+                    }
+                    return single(TokenType.ERROR);
+                }
+                case '<', '>' -> {
+                    if (index + 1 < length && input.charAt(index + 1) == '=') {
+                        return pair(TokenType.OPERATOR);
+                    }
+                    return single(TokenType.OPERATOR);
+                }
+                case '+', '-', '*' -> {
+                    return single(TokenType.OPERATOR);
+                }
+                case '(', ')', '{', '}', ';', ',' -> {
+                    return single(TokenType.DELIMITER);
+                }
+                default -> {
+                    return single(TokenType.ERROR);
+                }
+            }
+        }
+
+        finished = true;
+        return emit(TokenType.EOF, index);
+    }
+
+    public TokenType tokenType() {
+        return tokenType;
+    }
+
+    public int tokenStart() {
+        return tokenStart;
+    }
+
+    public int tokenEnd() {
+        return tokenEnd;
+    }
+
+    /**
+     * Linha reportada no token: como no {@link Lexer}, é a linha final para strings e comentários.
+     */
+    public int tokenLine() {
+        return tokenLine;
+    }
+
+    /**
+     * Linha em que o token começa.
+     */
+    public int tokenStartLine() {
+        return tokenStartLine;
+    }
+
+    public int tokenColumn() {
+        return tokenColumn;
+    }
+
+    /**
+     * Lexema de um token a partir do seu intervalo bruto, com as mesmas transformações do
+     * {@link Lexer}: aspas removidas, comentários aparados e mensagens para os erros.
+     * Exceto para ERROR, o resultado é uma visão sobre a entrada, sem cópia.
+     */
+    public static CharSequence lexeme(CharSequence input, TokenType type, int start, int end) {
+        switch (type) {
+            case STRING:
+                return view(input, start + 1, end - 1);
+            case COMMENT_LINE:
+                return trimmed(input, start + 2, end);
+            case COMMENT_BLOCK:
+                return trimmed(input, start + 2, end - 2);
+            case ERROR:
+                char first = input.charAt(start);
+                if (first == '"') {
+                    return "Unterminated string: " + input.subSequence(start, end);
+                }
+                if (first == '/') {
+                    return "Unterminated block comment: " + input.subSequence(start, end);
+                }
+                return "Invalid character: " + first;
+            default:
+                return view(input, start, end);
+        }
+    }
+
+    /**
+     * Mesmo que {@link #lexeme(CharSequence, TokenType, int, int)}, já como {@code String},
+     * copiando direto da entrada quando o lexema é o próprio intervalo.
+     */
+    public static String lexemeString(CharSequence input, TokenType type, int start, int end) {
+        return switch (type) {
+            case STRING, COMMENT_LINE, COMMENT_BLOCK, ERROR -> lexeme(input, type, start, end).toString();
+            default -> input.subSequence(start, end).toString();
+        };
+    }
+
+    // Mesmo critério de String.trim(): remove caracteres <= ' ' nas pontas
+    private static CharSequence trimmed(CharSequence input, int start, int end) {
+        while (start < end && input.charAt(start) <= ' ') start++;
+        while (end > start && input.charAt(end - 1) <= ' ') end--;
+        return view(input, start, end);
+    }
+
+    // ByteCharSequence já devolve uma visão (que decodifica UTF-8 no toString)
+    private static CharSequence view(CharSequence input, int start, int end) {
+        return input instanceof ByteCharSequence ? input.subSequence(start, end) : CharBuffer.wrap(input, start, end);
+    }
+
+    // [a-zA-Z_][a-zA-Z0-9_]* seguido da classificação das palavras reservadas
+    private TokenType scanWord() {
+        final int length = input.length();
+        int start = index;
+        index = skipper.skipWordChars(input, index + 1, length);
+
+        TokenType type = TokenType.IDENTIFIER;
+        if (isWordBoundary(index)) {
+            type = switch (index - start) {
+                case 2 -> is(start, "if") ? TokenType.KEYWORD
+                        : is(start, "OR") ? TokenType.KEYWORD // Tratamos como KEYWORD (padrão atual do parser)
+                        : TokenType.IDENTIFIER;
+                case 3 -> is(start, "int") ? TokenType.TYPE
+                        : is(start, "AND") || is(start, "NOT") ? TokenType.KEYWORD
+                        : TokenType.IDENTIFIER;
+                case 4 -> is(start, "else") ? TokenType.KEYWORD
+                        : is(start, "true") ? TokenType.BOOLEAN_LITERAL
+                        : TokenType.IDENTIFIER;
+                case 5 -> is(start, "while") ? TokenType.KEYWORD
+                        : is(start, "false") ? TokenType.BOOLEAN_LITERAL
+                        : TokenType.IDENTIFIER;
+                case 6 -> is(start, "string") ? TokenType.TYPE
+                        : is(start, "return") ? TokenType.KEYWORD
+                        : TokenType.IDENTIFIER;
+                case 7 -> is(start, "boolean") ? TokenType.TYPE : TokenType.IDENTIFIER;
+                default -> TokenType.IDENTIFIER;
+            };
+        }
+        return emit(type, start);
+    }
+
+    private boolean is(int start, String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (input.charAt(start + i) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Mesmo algoritmo do Lexer: o token recebe a linha final e a coluna inicial
+    private TokenType scanString() {
+        final int length = input.length();
+        int start = index;
+        int lineStart = line;
+        int colStart = column;
+        index++;
+        column++;
+
+        while (index < length) {
+            // Salta direto para a próxima aspa ou quebra de linha
+            int next = skipper.indexOfEither(input, index, length, '"', '\n');
+            column += next - index;
+            index = next;
+            if (index == length) {
+                break;
+            }
+            if (input.charAt(index) == '"') {
+                index++; // consome a aspa final
+                column++;
+                return emit(TokenType.STRING, start, index, lineStart, colStart);
+            }
+            line++;
+            column = 1;
+            index++;
+        }
+
+        halted = true;
+        return emit(TokenType.ERROR, start, length, lineStart, colStart);
+    }
+
+    private TokenType scanBlockComment() {
+        final int length = input.length();
+        int start = index;
+        int lineStart = line;
+        int colStart = column;
+        index += 2;
+        column += 2;
+
+        // Como no Lexer, o último caractere nunca é examinado
+        final int last = length - 1;
+        while (index < last) {
+            // Salta direto para o próximo '*' ou quebra de linha
+            int next = skipper.indexOfEither(input, index, last, '*', '\n');
+            column += next - index;
+            index = next;
+            if (index == last) {
+                break;
+            }
+            if (input.charAt(index) == '\n') {
+                line++;
+                column = 1;
+            } else if (input.charAt(index + 1) == '/') {
+                index += 2; // consome o */
+                column += 2;
+                return emit(TokenType.COMMENT_BLOCK, start, index, lineStart, colStart);
+            } else {
+                column++;
+            }
+            index++;
+        }
+
+        // Como no Lexer, o último caractere não é contabilizado em linha/coluna
+        halted = true;
+        return emit(TokenType.ERROR, start, length, lineStart, colStart);
+    }
+
+    private TokenType scanLineComment() {
+        final int length = input.length();
+        int start = index;
+        index = skipper.indexOfEither(input, index + 2, length, '\n', '\n');
+        return emit(TokenType.COMMENT_LINE, start);
+    }
+
+    private TokenType single(TokenType type) {
+        index++;
+        return emit(type, index - 1);
+    }
+
+    private TokenType pair(TokenType type) {
+        index += 2;
+        return emit(type, index - 2);
+    }
+
+    // Registra o token [start, index) na coluna atual e avança a coluna pelo tamanho consumido
+    private TokenType emit(TokenType type, int start) {
+        emit(type, start, index, line, column);
+        column += index - start;
+        return type;
+    }
+
+    private TokenType emit(TokenType type, int start, int end, int startLine, int col) {
+        tokenType = type;
+        tokenStart = start;
+        tokenEnd = end;
+        tokenLine = line;
+        tokenStartLine = startLine;
+        tokenColumn = col;
+        return type;
+    }
+
+    /**
+     * Equivalente ao {@code \b} da regex após uma palavra: o próximo caractere não pode
+     * ser de palavra (ASCII) nem uma marca combinante, que o {@code Pattern} agrega à palavra.
+     */
+    private boolean isWordBoundary(int position) {
+        if (position >= input.length()) {
+            return true;
+        }
+        char next = input.charAt(position);
+        if (next < 128) {
+            return !isWordChar(next);
+        }
+        return Character.getType(Character.codePointAt(input, position)) != Character.NON_SPACING_MARK;
+    }
+
+    private static boolean isDigit(char c) {
+        return c < 128 && CHAR_CLASS[c] == DIGIT;
+    }
+
+    private static boolean isWordChar(char c) {
+        return c < 128 && (CHAR_CLASS[c] == LETTER || CHAR_CLASS[c] == DIGIT);
+    }
+}
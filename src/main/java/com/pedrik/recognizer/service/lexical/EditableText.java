@@ -0,0 +1,109 @@
+package com.pedrik.recognizer.service.lexical;
+
+/**
+ * {@link CharSequence} editável em um {@code char[]} com uma lacuna (gap buffer) no ponto da
+ * última edição. {@link #replace(int, int, CharSequence)} só move os caracteres entre a lacuna
+ * e a nova edição, então edições próximas umas das outras não copiam o texto inteiro.
+ */
+public final class EditableText implements CharSequence {
+
+    private char[] chars;
+    private int gapStart;
+    private int gapEnd;
+
+    public EditableText(CharSequence text) {
+        int length = text.length();
+        chars = new char[Math.max(16, length + length / 4)];
+        if (text instanceof String string) {
+            string.getChars(0, length, chars, 0);
+        } else {
+            for (int i = 0; i < length; i++) {
+                chars[i] = text.charAt(i);
+            }
+        }
+        gapStart = length;
+        gapEnd = chars.length;
+    }
+
+    /**
+     * Remove 'deletedLength' caracteres a partir de 'offset' e insere 'inserted' no lugar.
+     */
+    public void replace(int offset, int deletedLength, CharSequence inserted) {
+        if (offset < 0 || deletedLength < 0 || offset + deletedLength > length()) {
+            throw new IllegalArgumentException("Edição fora do texto: offset=" + offset
+                    + ", removidos=" + deletedLength + ", tamanho=" + length());
+        }
+        moveGap(offset);
+        gapEnd += deletedLength;
+        int size = inserted.length();
+        if (size > gapEnd - gapStart) {
+            grow(size);
+        }
+        for (int i = 0; i < size; i++) {
+            chars[gapStart++] = inserted.charAt(i);
+        }
+    }
+
+    private void moveGap(int offset) {
+        if (offset < gapStart) {
+            int count = gapStart - offset;
+            System.arraycopy(chars, offset, chars, gapEnd - count, count);
+            gapStart -= count;
+            gapEnd -= count;
+        } else if (offset > gapStart) {
+            int count = offset - gapStart;
+            System.arraycopy(chars, gapEnd, chars, gapStart, count);
+            gapStart += count;
+            gapEnd += count;
+        }
+    }
+
+    private void grow(int required) {
+        int tail = chars.length - gapEnd;
+        char[] larger = new char[Math.max(chars.length * 2, length() + required + 16)];
+        System.arraycopy(chars, 0, larger, 0, gapStart);
+        System.arraycopy(chars, gapEnd, larger, larger.length - tail, tail);
+        chars = larger;
+        gapEnd = larger.length - tail;
+    }
+
+    @Override
+    public int length() {
+        return chars.length - (gapEnd - gapStart);
+    }
+
+    @Override
+    public char charAt(int index) {
+        // Fora do texto o acesso cai fora do array e lança IndexOutOfBoundsException
+        return index < gapStart ? chars[index] : chars[index + gapEnd - gapStart];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        StringBuilder sb = new StringBuilder(end - start);
+        appendRange(sb, start, end);
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(length());
+        appendRange(sb, 0, length());
+        return sb.toString();
+    }
+
+    private void appendRange(StringBuilder sb, int start, int end) {
+        if (start < 0 || start > end || end > length()) {
+            throw new IndexOutOfBoundsException("Trecho [" + start + ", " + end + ") fora do texto de tamanho " + length());
+        }
+        int gap = gapEnd - gapStart;
+        if (end <= gapStart) {
+            sb.append(chars, start, end - start);
+        } else if (start >= gapStart) {
+            sb.append(chars, start + gap, end - start);
+        } else {
+            sb.append(chars, start, gapStart - start);
+            sb.append(chars, gapEnd, end - gapStart);
+        }
+    }
+}
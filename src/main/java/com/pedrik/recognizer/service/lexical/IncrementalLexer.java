@@ -0,0 +1,186 @@
+package com.pedrik.recognizer.service.lexical;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reanálise léxica incremental para validação a cada edição. Em vez de reanalisar o buffer
+ * inteiro, recomeça na fronteira do último token que a edição não tocou e para assim que um
+ * token novo coincide (tipo, início deslocado e tamanho) com um token antigo depois da edição:
+ * a partir daí o scanner está no mesmo estado e o restante da sequência é o mesmo, só deslocado.
+ * <p>
+ * Texto e tokens são editados no lugar: a entrada vira um {@link EditableText} (copiada só na
+ * primeira edição) e o {@link PackedTokenBuffer} troca apenas os tokens da região alterada na sua
+ * lacuna, deslocando a cauda de uma vez. O custo é proporcional à região reanalisada e à distância
+ * desde a edição anterior, não ao documento. O buffer passado é o próprio buffer do resultado.
+ */
+public class IncrementalLexer {
+
+    /**
+     * Resultado da reanálise: o buffer editado e a faixa de tokens que mudou. Os tokens
+     * [firstChanged, oldEnd) do buffer antigo foram substituídos por [firstChanged, newEnd) do novo;
+     * tokens idênticos nas pontas da faixa reanalisada não contam como alterados. Dos tokens antigos
+     * removidos, os que estavam ligados ao buffer ({@link PackedTokenBuffer#anchor(int)}) são
+     * devolvidos em ordem, com a última posição que tiveram.
+     */
+    public static class Result {
+        private final PackedTokenBuffer tokens;
+        private final int firstChanged;
+        private final int oldEnd;
+        private final int newEnd;
+        private final List<Token> removed;
+
+        Result(PackedTokenBuffer tokens, int firstChanged, int oldEnd, int newEnd, List<Token> removed) {
+            this.tokens = tokens;
+            this.firstChanged = firstChanged;
+            this.oldEnd = oldEnd;
+            this.newEnd = newEnd;
+            this.removed = removed;
+        }
+
+        public PackedTokenBuffer getTokens() { return tokens; }
+        public int getFirstChanged() { return firstChanged; }
+        public int getOldEnd() { return oldEnd; }
+        public int getNewEnd() { return newEnd; }
+        public List<Token> getRemoved() { return removed; }
+    }
+
+    /**
+     * Aplica a edição à entrada de 'tokens' e atualiza o buffer no lugar.
+     *
+     * @throws IllegalArgumentException se a edição não cabe na entrada atual
+     */
+    public Result relex(PackedTokenBuffer tokens, TextEdit edit) {
+        CharSequence oldText = tokens.getInput();
+        edit.checkBounds(oldText.length());
+        int delta = edit.getDelta();
+
+        // Primeiro token que termina na edição ou depois dela; os anteriores não mudam
+        int first = firstEndingAtOrAfter(tokens, edit.getOffset());
+        int restart = first == 0 ? 0 : tokens.end(first - 1);
+        int line = 1;
+        if (restart > 0 && tokens.isTrackingLines()) {
+            // A linha registrada pelo Lexer é a do fim do token, exatamente onde recomeçamos;
+            // sem trackLines a linha é derivada do início e a do scanner não é usada
+            line = tokens.line(first - 1);
+        }
+        int column = columnAt(oldText, restart);
+
+        // O que depende do texto antigo é medido antes de editá-lo
+        int lineDelta = countNewlines(edit.getInsertedText(), 0, edit.getInsertedText().length())
+                - countNewlines(oldText, edit.getOffset(), edit.getOldEnd());
+        int oldColumn = columnAt(oldText, edit.getOldEnd());
+
+        EditableText text = oldText instanceof EditableText editable ? editable : new EditableText(oldText);
+        text.replace(edit.getOffset(), edit.getDeletedLength(), edit.getInsertedText());
+        tokens.setInput(text);
+        tokens.moveGap(first);
+
+        // Reanalisa até sincronizar com um token antigo posterior à edição. Os antigos ainda não
+        // sincronizados ficam logo depois da lacuna, com posições do texto antigo, e os novos
+        // entram na lacuna; os idênticos do começo só atravessam a lacuna
+        DfaLexer lexer = new DfaLexer(text).reset(text, restart, line, column);
+        int firstChanged = first;
+        int removed = 0;
+        List<Token> removedAnchors = new ArrayList<>();
+        boolean synced = false;
+        TokenType type;
+        while ((type = lexer.scan()) != null) {
+            int start = lexer.tokenStart();
+            int length = lexer.tokenEnd() - start;
+            int next = tokens.gapIndex();
+            if (start >= edit.getNewEnd()) {
+                int oldStart = start - delta;
+                while (next < tokens.size() && tokens.start(next) < oldStart) {
+                    remove(tokens, 1, removedAnchors);
+                    removed++;
+                }
+                if (next < tokens.size() && tokens.start(next) == oldStart && tokens.type(next) == type
+                        && tokens.length(next) == length) {
+                    synced = true;
+                    break;
+                }
+            } else if (next == firstChanged && removed == 0 && next < tokens.size()
+                    && lexer.tokenEnd() <= edit.getOffset() && tokens.start(next) == start
+                    && tokens.type(next) == type && tokens.length(next) == length) {
+                tokens.moveGap(next + 1);
+                firstChanged++;
+                continue;
+            }
+            tokens.add(type, start, lexer.tokenEnd(), lexer.tokenLine(), lexer.tokenColumn());
+        }
+        int newEnd = tokens.gapIndex();
+        if (!synced) {
+            removed += tokens.size() - newEnd;
+            remove(tokens, tokens.size() - newEnd, removedAnchors);
+        }
+
+        // Cauda reaproveitada: só desloca posições, linhas e, na linha da edição, colunas
+        if (synced) {
+            tokens.shiftAfterGap(delta, lineDelta);
+            if (tokens.isTrackingLines()) {
+                int columnDelta = columnAt(text, edit.getNewEnd()) - oldColumn;
+                int editLineEnd = indexOfNewline(text, edit.getNewEnd());
+                // O próprio '\n' ainda pertence à linha (o EOF de um comentário sem fim para nele)
+                for (int i = newEnd; i < tokens.size() && tokens.start(i) <= editLineEnd && columnDelta != 0; i++) {
+                    tokens.shiftColumn(i, columnDelta);
+                }
+            }
+        }
+        return new Result(tokens, firstChanged, firstChanged + removed, newEnd, removedAnchors);
+    }
+
+    private static void remove(PackedTokenBuffer tokens, int count, List<Token> removedAnchors) {
+        int next = tokens.gapIndex();
+        for (int i = 0; i < count; i++) {
+            Token anchor = tokens.anchorAt(next + i);
+            if (anchor != null) {
+                removedAnchors.add(anchor);
+            }
+        }
+        tokens.removeAfterGap(count);
+    }
+
+    // Busca binária: os fins dos tokens crescem com o índice, exceto o do EOF final, que depois de
+    // um comentário sem fim fica antes do fim do comentário; ele é a resposta quando nenhum outro serve
+    private static int firstEndingAtOrAfter(PackedTokenBuffer tokens, int offset) {
+        int low = 0;
+        int high = Math.max(0, tokens.size() - 1);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (tokens.end(mid) < offset) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int countNewlines(CharSequence text, int start, int end) {
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int columnAt(CharSequence text, int offset) {
+        int lineStart = offset;
+        while (lineStart > 0 && text.charAt(lineStart - 1) != '\n') {
+            lineStart--;
+        }
+        return offset - lineStart + 1;
+    }
+
+    private static int indexOfNewline(CharSequence text, int from) {
+        for (int i = from; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                return i;
+            }
+        }
+        return text.length() + 1;
+    }
+}
@@ -7,7 +7,7 @@ import java.util.regex.Pattern;
 
 public class Lexer {
 
-    private static final String TOKEN_REGEX =
+    static final String TOKEN_REGEX =
             "(?<WHITESPACE>[ \t\r\f]+)|" +
                     "(?<NEWLINE>\n)|" +
                     "(?<COMMENTLINE>//[^\n]*)|" +
@@ -25,7 +25,7 @@ public class Lexer {
 
     private final String input;
     private final List<Token> tokens = new ArrayList<>();
-    private final Pattern tokenPatterns = Pattern.compile(TOKEN_REGEX);
+    private final Pattern tokenPatterns = LexerEngine.shared().tokenPattern();
     private int index = 0;
     private int line = 1;
     private int column = 1;
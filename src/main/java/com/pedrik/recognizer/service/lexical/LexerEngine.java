@@ -0,0 +1,90 @@
+package com.pedrik.recognizer.service.lexical;
+
+import java.util.regex.Pattern;
+
+/**
+ * Motor léxico compartilhado e imutável: tudo que precisa ser compilado (a regex do
+ * {@link Lexer} de referência e as tabelas do {@link DfaLexer}) é feito uma única vez.
+ * O estado de varredura é barato e entregue por chamada ({@link #newScanner(CharSequence)})
+ * ou reaproveitado por thread ({@link #scanner(CharSequence)}).
+ * <p>
+ * O modo de varredura é escolhido na inicialização pela propriedade de sistema
+ * {@value #SIMD_PROPERTY}: com {@code true} (e a JVM iniciada com
+ * {@code --add-modules jdk.incubator.vector}) os laços quentes usam o {@code VectorCharSkipper};
+ * caso contrário, o {@link ScalarCharSkipper}. O {@code VectorCharSkipper} fica em
+ * {@code src/main/vector}, compilado à parte com o módulo incubado, e só é carregado por reflexão
+ * quando pedido.
+ */
+public final class LexerEngine {
+
+    public static final String SIMD_PROPERTY = "recognizer.lexer.simd";
+
+    private static final String VECTOR_SKIPPER = "com.pedrik.recognizer.service.lexical.VectorCharSkipper";
+
+    // Maior entrada que passa pelo estado da thread; acima disso o buffer não seria mais devolvido
+    static final int MAX_RETAINED_CHARS = 64 * 1024;
+
+    private static final LexerEngine SHARED = new LexerEngine(Boolean.getBoolean(SIMD_PROPERTY));
+
+    private final Pattern tokenPattern;
+    private final CharSkipper skipper;
+    private final boolean vectorized;
+    private final ThreadLocal<DfaLexer> scanners;
+    private final ThreadLocal<CharArraySequence> buffers = ThreadLocal.withInitial(CharArraySequence::new);
+
+    public LexerEngine(boolean simd) {
+        this.tokenPattern = Pattern.compile(Lexer.TOKEN_REGEX);
+        this.skipper = simd ? vectorSkipper() : ScalarCharSkipper.INSTANCE;
+        this.vectorized = skipper != ScalarCharSkipper.INSTANCE;
+        this.scanners = ThreadLocal.withInitial(() -> new DfaLexer("", skipper));
+    }
+
+    public static LexerEngine shared() {
+        return SHARED;
+    }
+
+    // O módulo incubado pode não estar na JVM (ou a classe fora do classpath): fica o escalar
+    private static CharSkipper vectorSkipper() {
+        try {
+            return Class.forName(VECTOR_SKIPPER).asSubclass(CharSkipper.class).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return ScalarCharSkipper.INSTANCE;
+        }
+    }
+
+    /**
+     * Regex compilada usada pelo {@link Lexer}; {@code Pattern} é seguro entre threads.
+     */
+    public Pattern tokenPattern() {
+        return tokenPattern;
+    }
+
+    public CharSkipper skipper() {
+        return skipper;
+    }
+
+    public boolean isVectorized() {
+        return vectorized;
+    }
+
+    /**
+     * Scanner da thread atual reposicionado na entrada. O mesmo objeto é devolvido na próxima
+     * chamada da mesma thread, então ele não deve ser guardado além da análise corrente.
+     * No modo vetorizado a entrada é copiada para um array da thread, reaproveitado entre chamadas.
+     * Entradas acima de {@value #MAX_RETAINED_CHARS} caracteres recebem um scanner novo, para
+     * que o array da thread não fique do tamanho da maior entrada já vista.
+     */
+    public DfaLexer scanner(CharSequence input) {
+        if (input.length() > MAX_RETAINED_CHARS) {
+            return newScanner(input);
+        }
+        return scanners.get().reset(isVectorized() ? buffers.get().load(input) : input);
+    }
+
+    /**
+     * Scanner novo, para quem precisa manter mais de uma análise viva na mesma thread.
+     */
+    public DfaLexer newScanner(CharSequence input) {
+        return new DfaLexer(isVectorized() ? new CharArraySequence().load(input) : input, skipper);
+    }
+}
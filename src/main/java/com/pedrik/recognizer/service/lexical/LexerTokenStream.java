@@ -0,0 +1,105 @@
+package com.pedrik.recognizer.service.lexical;
+
+/**
+ * {@link TokenStream} que produz os tokens de um {@link TokenSource} (como o {@link DfaLexer})
+ * apenas quando o parser pede, guardando somente a janela de lookahead em um buffer circular.
+ * Assim análise léxica e sintática rodam em uma única passada com memória constante para tokens.
+ * <p>
+ * Sobre um {@link DfaLexer}, {@link #peekTerminal(TerminalClassifier)} e {@link #advance()}
+ * usam {@link DfaLexer#scan()} e o trecho da entrada: o lookahead fica como tipo e intervalo
+ * e só vira {@link Token} se alguém pedir {@link #peek(int)} ou {@link #next()}.
+ */
+public class LexerTokenStream implements TokenStream {
+
+    private final TokenSource lexer;
+    private final DfaLexer scanner; // o próprio lexer quando ele é um DfaLexer, senão null
+    private Token[] buffer = new Token[4]; // capacidade sempre potência de 2
+    private int head = 0;
+    private int size = 0;
+    private Token last; // EOF repetido quando a entrada termina
+    // Lookahead já reconhecido por scan() e ainda não transformado em Token (sempre à frente do buffer vazio)
+    private boolean scanned = false;
+
+    public LexerTokenStream(TokenSource lexer) {
+        this.lexer = lexer;
+        this.scanner = lexer instanceof DfaLexer dfa ? dfa : null;
+    }
+
+    @Override
+    public Token peek(int offset) {
+        fill(offset + 1);
+        return offset < size ? buffer[(head + offset) & (buffer.length - 1)] : last;
+    }
+
+    @Override
+    public Token next() {
+        fill(1);
+        if (size == 0) {
+            return last;
+        }
+        Token token = buffer[head];
+        buffer[head] = null;
+        head = (head + 1) & (buffer.length - 1);
+        size--;
+        return token;
+    }
+
+    @Override
+    public void advance() {
+        if (scanner == null || size > 0) {
+            next();
+            return;
+        }
+        if (!scanned && scanner.scan() == null) {
+            return; // depois do EOF: nada a consumir
+        }
+        scanned = false;
+        if (scanner.tokenType() == TokenType.EOF) {
+            last = scanner.token();
+        }
+    }
+
+    @Override
+    public int peekTerminal(TerminalClassifier classifier) {
+        if (scanner == null || size > 0) {
+            return TokenStream.super.peekTerminal(classifier);
+        }
+        if (!scanned) {
+            if (scanner.scan() == null) {
+                return TokenStream.super.peekTerminal(classifier);
+            }
+            scanned = true;
+        }
+        return classifier.terminalOf(scanner.tokenType().ordinal(), scanner.input(), scanner.tokenStart(), scanner.tokenEnd());
+    }
+
+    private void fill(int count) {
+        while (size < count) {
+            Token token;
+            if (scanned) {
+                scanned = false;
+                token = scanner.token();
+            } else {
+                token = lexer.nextToken();
+            }
+            if (token == null) {
+                return;
+            }
+            if (size == buffer.length) {
+                grow();
+            }
+            buffer[(head + size) & (buffer.length - 1)] = token;
+            size++;
+            last = token;
+        }
+    }
+
+    private void grow() {
+        Token[] larger = new Token[buffer.length * 2];
+        for (int i = 0; i < size; i++) {
+            larger[i] = buffer[(head + i) & (buffer.length - 1)];
+        }
+        buffer = larger;
+        head = 0;
+    }
+}
@@ -0,0 +1,33 @@
+package com.pedrik.recognizer.service.lexical;
+
+import java.util.List;
+
+/**
+ * {@link TokenStream} sobre uma lista já materializada de tokens.
+ */
+public class ListTokenStream implements TokenStream {
+
+    private static final Token END = new Token(TokenType.EOF, "$", -1, -1);
+
+    private final List<Token> tokens;
+    private int current = 0;
+
+    public ListTokenStream(List<Token> tokens) {
+        this.tokens = tokens;
+    }
+
+    @Override
+    public Token peek(int offset) {
+        int position = current + offset;
+        return position < tokens.size() ? tokens.get(position) : END;
+    }
+
+    @Override
+    public Token next() {
+        Token token = peek(0);
+        if (current < tokens.size()) {
+            current++;
+        }
+        return token;
+    }
+}
@@ -0,0 +1,162 @@
+package com.pedrik.recognizer.service.lexical;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lexer sobre um arquivo mapeado em memória (ASCII ou UTF-8), sem carregar o arquivo no heap.
+ * O arquivo é percorrido em janelas mapeadas; quando um token pode ter sido cortado pelo fim
+ * da janela, a próxima janela é mapeada a partir do início desse token, que é sempre uma
+ * fronteira segura para o {@link DfaLexer}. Os tokens carregam o deslocamento em bytes no arquivo
+ * ({@link Token#getOffset()}) e colunas também são contadas em bytes.
+ * Pode alimentar o parser diretamente através de {@link LexerTokenStream}.
+ * <p>
+ * Uma string ou um comentário sem fim vai até o fim do arquivo e interrompe a análise, como no
+ * {@link Lexer}. O token ERROR correspondente traz o intervalo inteiro em offset/end, mas só os
+ * primeiros {@value #MAX_ERROR_LEXEME} bytes no lexema. Se a janela já está no tamanho máximo e
+ * o token ainda não terminou, ele também é tratado como sem fim, sem mapear mais nada.
+ */
+public class MappedFileLexer implements TokenSource, AutoCloseable {
+
+    public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+    public static final int MAX_WINDOW_SIZE = Integer.MAX_VALUE - 8;
+    // Bytes do token sem fim copiados para a mensagem do ERROR
+    static final int MAX_ERROR_LEXEME = 256;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final DfaLexer lexer = new DfaLexer("");
+    private final int maxWindowSize;
+    private int windowSize;
+    private long base;
+    private ByteCharSequence window;
+    private boolean lastWindow;
+    private Token pendingEnd; // EOF depois de um token sem fim maior que a janela máxima
+    private boolean ended;
+
+    public MappedFileLexer(Path path) throws IOException {
+        this(path, DEFAULT_WINDOW_SIZE);
+    }
+
+    public MappedFileLexer(Path path, int windowSize) throws IOException {
+        this(path, windowSize, MAX_WINDOW_SIZE);
+    }
+
+    /**
+     * Lexer cujas janelas crescem (dobrando) até 'maxWindowSize' bytes para caber um token.
+     */
+    public MappedFileLexer(Path path, int windowSize, int maxWindowSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.windowSize = Math.min(windowSize, maxWindowSize);
+        this.maxWindowSize = maxWindowSize;
+        map(0, 1, 1);
+    }
+
+    @Override
+    public Token nextToken() {
+        if (pendingEnd != null || ended) {
+            Token end = pendingEnd;
+            pendingEnd = null;
+            ended = true;
+            return end;
+        }
+        while (true) {
+            TokenType type = lexer.scan();
+            if (type == null) {
+                return null;
+            }
+            if (lastWindow || lexer.tokenEnd() < window.length() && type != TokenType.EOF) {
+                return new Token(type, lexeme(type, lexer.tokenStart(), lexer.tokenEnd()), lexer.tokenLine(),
+                        lexer.tokenColumn(), base + lexer.tokenStart(), base + lexer.tokenEnd());
+            }
+
+            // O token encosta no fim da janela e pode continuar na próxima: remapeia a partir dele
+            long restart = base + lexer.tokenStart();
+            if (restart == base) {
+                if (windowSize >= maxWindowSize) {
+                    if (type == TokenType.ERROR) {
+                        return unterminated();
+                    }
+                    throw new RuntimeException("Token maior que a janela máxima de mapeamento na posição " + restart);
+                }
+                windowSize = (int) Math.min((long) windowSize * 2, maxWindowSize);
+            }
+            remap(restart, lexer.tokenStartLine(), lexer.tokenColumn());
+        }
+    }
+
+    // Só o ERROR de um token sem fim pode ser grande: a mensagem leva apenas o começo dele
+    private String lexeme(TokenType type, int start, int end) {
+        if (type == TokenType.ERROR && end - start > MAX_ERROR_LEXEME) {
+            return DfaLexer.lexeme(window, type, start, start + MAX_ERROR_LEXEME) + "...";
+        }
+        return DfaLexer.lexeme(window, type, start, end).toString();
+    }
+
+    /**
+     * String ou comentário que começa no início da janela máxima e não termina nela: vai até o
+     * fim do arquivo, como no {@link DfaLexer}. Linha e coluna finais são contadas lendo o resto
+     * do arquivo em blocos, sem mapeá-lo nem decodificá-lo.
+     */
+    private Token unterminated() {
+        int start = lexer.tokenStart();
+        boolean comment = window.charAt(start) == '/';
+        // Como no DfaLexer, o último caractere de um comentário sem fim não conta em linha/coluna
+        // e o EOF fica antes dele
+        long counted = comment ? fileSize - 1 : fileSize;
+        int line = lexer.tokenStartLine();
+        int column = lexer.tokenColumn();
+        ByteBuffer chunk = ByteBuffer.allocateDirect(64 * 1024);
+        long position = base + start;
+        try {
+            while (position < counted) {
+                chunk.clear().limit((int) Math.min(chunk.capacity(), counted - position));
+                int read = channel.read(chunk, position);
+                if (read <= 0) {
+                    break;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (chunk.get(i) == '\n') {
+                        line++;
+                        column = 1;
+                    } else {
+                        column++;
+                    }
+                }
+                position += read;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao ler o arquivo na posição " + position + ": " + e.getMessage(), e);
+        }
+        pendingEnd = new Token(TokenType.EOF, "", line, column, counted, counted);
+        return new Token(TokenType.ERROR, lexeme(TokenType.ERROR, start, window.length()), line,
+                lexer.tokenColumn(), base + start, fileSize);
+    }
+
+    private void remap(long position, int line, int column) {
+        try {
+            map(position, line, column);
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao mapear o arquivo na posição " + position + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void map(long position, int line, int column) throws IOException {
+        int length = (int) Math.min(windowSize, fileSize - position);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        base = position;
+        lastWindow = position + length >= fileSize;
+        window = new ByteCharSequence(buffer, 0, length);
+        lexer.reset(window, line, column);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
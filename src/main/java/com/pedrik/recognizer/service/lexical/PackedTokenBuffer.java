@@ -0,0 +1,447 @@
+package com.pedrik.recognizer.service.lexical;
+
+import java.util.Arrays;
+
+/**
+ * Representação compacta (struct-of-arrays) de uma sequência de tokens: tipo, início e
+ * tamanho de cada token ficam em arrays paralelos de {@code int}, sem um objeto {@link Token}
+ * nem cópia de lexema por token. Lexemas são visões sobre a entrada e linha/coluna são
+ * resolvidas a partir de um índice de inícios de linha só quando alguém pede.
+ * O buffer pode ser reutilizado com {@link #reset(CharSequence)}.
+ * <p>
+ * Para a reanálise incremental ({@link IncrementalLexer}) os arrays têm uma lacuna no ponto da
+ * última edição: os tokens depois dela ficam no fim dos arrays, com início e linha relativos a
+ * um deslocamento comum. Trocar tokens na edição não copia a cauda e deslocá-la só soma ao
+ * deslocamento comum. Sem edições a lacuna fica no fim e {@link #add} só acrescenta.
+ */
+public class PackedTokenBuffer {
+
+    private static final TokenType[] TYPES = TokenType.values();
+
+    private final boolean trackLines;
+    private CharSequence input;
+    private int[] types = new int[64];
+    private int[] starts = new int[64];
+    private int[] lengths = new int[64];
+    private int[] lines; // só quando trackLines: linha exata reportada pelo Lexer
+    private int[] columns; // idem
+    private int size = 0;
+    private int gap = 0; // tokens antes da lacuna; os demais ocupam o fim dos arrays
+    private int tailStartShift = 0; // somado ao início dos tokens depois da lacuna
+    private int tailLineShift = 0; // idem para a linha
+    private Anchor[] anchors; // tokens ligados ao buffer (ver anchor(int)), por posição nos arrays
+    private int[] lineStarts; // calculado sob demanda
+    private int lineCount = -1;
+
+    public PackedTokenBuffer() {
+        this(false);
+    }
+
+    /**
+     * @param trackLines guarda linha e coluna de cada token exatamente como o {@link Lexer}
+     *                   as reporta (linha final para strings e comentários de várias linhas);
+     *                   sem isso, ambas são derivadas do início do token.
+     */
+    public PackedTokenBuffer(boolean trackLines) {
+        this.trackLines = trackLines;
+        if (trackLines) {
+            lines = new int[64];
+            columns = new int[64];
+        }
+    }
+
+    /**
+     * Tokeniza a entrada inteira com o {@link DfaLexer}.
+     */
+    public static PackedTokenBuffer tokenize(CharSequence input) {
+        PackedTokenBuffer buffer = new PackedTokenBuffer();
+        buffer.fill(input);
+        return buffer;
+    }
+
+    /**
+     * Descarta o conteúdo atual e tokeniza a nova entrada, reaproveitando os arrays.
+     */
+    public void fill(CharSequence input) {
+        reset(input);
+        DfaLexer lexer = new DfaLexer(input);
+        TokenType type;
+        while ((type = lexer.scan()) != null) {
+            add(type, lexer.tokenStart(), lexer.tokenEnd(), lexer.tokenLine(), lexer.tokenColumn());
+        }
+    }
+
+    public void reset(CharSequence input) {
+        if (anchors != null) {
+            for (int i = 0; i < size; i++) {
+                detach(slot(i));
+            }
+        }
+        this.input = input;
+        this.size = 0;
+        this.gap = 0;
+        this.tailStartShift = 0;
+        this.tailLineShift = 0;
+        this.lineCount = -1;
+    }
+
+    /**
+     * Acrescenta um token na posição da lacuna, que sem edições é o fim do buffer.
+     */
+    public void add(TokenType type, int start, int end, int line, int column) {
+        if (size == types.length) {
+            grow();
+        }
+        types[gap] = type.ordinal();
+        starts[gap] = start;
+        lengths[gap] = end - start;
+        if (trackLines) {
+            lines[gap] = line;
+            columns[gap] = column;
+        }
+        gap++;
+        size++;
+    }
+
+    private void grow() {
+        int tail = size - gap;
+        int capacity = types.length * 2;
+        types = expand(types, capacity, tail);
+        starts = expand(starts, capacity, tail);
+        lengths = expand(lengths, capacity, tail);
+        if (trackLines) {
+            lines = expand(lines, capacity, tail);
+            columns = expand(columns, capacity, tail);
+        }
+        if (anchors != null) {
+            Anchor[] larger = Arrays.copyOf(anchors, capacity);
+            System.arraycopy(anchors, anchors.length - tail, larger, capacity - tail, tail);
+            Arrays.fill(larger, anchors.length - tail, capacity - tail, null);
+            for (int slot = capacity - tail; slot < capacity; slot++) {
+                if (larger[slot] != null) {
+                    larger[slot].slot = slot;
+                }
+            }
+            anchors = larger;
+        }
+    }
+
+    // Copia o trecho antes da lacuna para o começo e a cauda para o fim do array maior
+    private int[] expand(int[] array, int capacity, int tail) {
+        int[] larger = Arrays.copyOf(array, capacity);
+        System.arraycopy(array, array.length - tail, larger, capacity - tail, tail);
+        return larger;
+    }
+
+    // Posição no array do token 'index'
+    private int slot(int index) {
+        return index < gap ? index : index + types.length - size;
+    }
+
+    /**
+     * Move a lacuna para antes do token 'index'; só os tokens entre as duas posições são copiados.
+     */
+    void moveGap(int index) {
+        int tailOffset = types.length - size;
+        while (gap > index) {
+            gap--;
+            moveSlot(gap, gap + tailOffset, -tailStartShift, -tailLineShift);
+        }
+        while (gap < index) {
+            moveSlot(gap + tailOffset, gap, tailStartShift, tailLineShift);
+            gap++;
+        }
+        if (gap == size) {
+            tailStartShift = 0;
+            tailLineShift = 0;
+        }
+    }
+
+    private void moveSlot(int from, int to, int startDelta, int lineDelta) {
+        types[to] = types[from];
+        starts[to] = starts[from] + startDelta;
+        lengths[to] = lengths[from];
+        if (trackLines) {
+            lines[to] = lines[from] + lineDelta;
+            columns[to] = columns[from];
+        }
+        if (anchors != null && anchors[from] != null) {
+            anchors[to] = anchors[from];
+            anchors[to].slot = to;
+            anchors[from] = null;
+        }
+    }
+
+    /**
+     * Índice do primeiro token depois da lacuna.
+     */
+    int gapIndex() {
+        return gap;
+    }
+
+    /**
+     * Descarta os 'count' primeiros tokens depois da lacuna; os tokens ligados a eles ficam com a
+     * última posição que tiveram.
+     */
+    void removeAfterGap(int count) {
+        if (anchors != null) {
+            int first = types.length - (size - gap);
+            for (int slot = first; slot < first + count; slot++) {
+                detach(slot);
+            }
+        }
+        size -= count;
+        if (gap == size) {
+            tailStartShift = 0;
+            tailLineShift = 0;
+        }
+    }
+
+    /**
+     * Desloca início e linha de todos os tokens depois da lacuna sem percorrê-los.
+     */
+    void shiftAfterGap(int delta, int lineDelta) {
+        tailStartShift += delta;
+        tailLineShift += lineDelta;
+    }
+
+    /**
+     * Soma 'delta' à coluna registrada do token (só com trackLines).
+     */
+    void shiftColumn(int index, int delta) {
+        columns[slot(index)] += delta;
+    }
+
+    /**
+     * Troca a entrada mantendo os tokens, depois de editá-la no lugar.
+     */
+    void setInput(CharSequence input) {
+        this.input = input;
+        this.lineCount = -1;
+    }
+
+    /**
+     * O token como {@link Token} ligado ao buffer: linha, coluna e posição são lidas do buffer a
+     * cada consulta e acompanham as edições do {@link IncrementalLexer}. Pedidos repetidos para o
+     * mesmo token devolvem o mesmo objeto.
+     */
+    public Token anchor(int index) {
+        if (anchors == null) {
+            anchors = new Anchor[types.length];
+        }
+        int slot = slot(index);
+        if (anchors[slot] == null) {
+            anchors[slot] = new Anchor(index);
+        }
+        return anchors[slot];
+    }
+
+    /**
+     * O token ligado já criado por {@link #anchor(int)} para o índice, ou null.
+     */
+    public Token anchorAt(int index) {
+        return anchors == null ? null : anchors[slot(index)];
+    }
+
+    /**
+     * Índice atual de um token criado por {@link #anchor(int)}, ou -1 se ele saiu do buffer.
+     */
+    public int indexOf(Token token) {
+        if (token instanceof Anchor anchor && anchor.buffer() == this && anchor.slot >= 0) {
+            return anchor.index();
+        }
+        return -1;
+    }
+
+    private void detach(int slot) {
+        if (anchors[slot] != null) {
+            anchors[slot].detach();
+            anchors[slot] = null;
+        }
+    }
+
+    public CharSequence getInput() {
+        return input;
+    }
+
+    public boolean isTrackingLines() {
+        return trackLines;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int typeOrdinal(int index) {
+        return types[slot(index)];
+    }
+
+    public TokenType type(int index) {
+        return TYPES[types[slot(index)]];
+    }
+
+    /**
+     * Início do token na entrada, incluindo aspas e marcadores de comentário.
+     */
+    public int start(int index) {
+        return index < gap ? starts[index] : starts[slot(index)] + tailStartShift;
+    }
+
+    public int length(int index) {
+        return lengths[slot(index)];
+    }
+
+    public int end(int index) {
+        return start(index) + lengths[slot(index)];
+    }
+
+    /**
+     * Lexema do token, com as mesmas transformações do {@link Lexer}, como visão sobre a entrada.
+     */
+    public CharSequence lexeme(int index) {
+        return DfaLexer.lexeme(input, type(index), start(index), end(index));
+    }
+
+    /**
+     * Compara o lexema do token com o texto informado sem materializar o lexema.
+     */
+    public boolean lexemeEquals(int index, String text) {
+        int type = typeOrdinal(index);
+        if (type == TokenType.STRING.ordinal() || type == TokenType.COMMENT_LINE.ordinal()
+                || type == TokenType.COMMENT_BLOCK.ordinal() || type == TokenType.ERROR.ordinal()) {
+            return lexeme(index).toString().equals(text);
+        }
+        if (length(index) != text.length()) {
+            return false;
+        }
+        int start = start(index);
+        for (int i = 0; i < text.length(); i++) {
+            if (input.charAt(start + i) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int line(int index) {
+        if (trackLines) {
+            return index < gap ? lines[index] : lines[slot(index)] + tailLineShift;
+        }
+        return lineOf(start(index));
+    }
+
+    public int column(int index) {
+        if (trackLines) {
+            return columns[slot(index)];
+        }
+        return columnOf(start(index));
+    }
+
+    /**
+     * Materializa o token como {@link Token}, por exemplo para mensagens de erro.
+     */
+    public Token toToken(int index) {
+        return toToken(index, 0);
+    }
+
+    /**
+     * Materializa o token somando 'lineShift' à linha, para buffers preenchidos a partir de um
+     * trecho da entrada cuja primeira linha foi contada como 1.
+     */
+    public Token toToken(int index, int lineShift) {
+        String lexeme = DfaLexer.lexemeString(input, type(index), start(index), end(index));
+        return new Token(type(index), lexeme, line(index) + lineShift, column(index), start(index), end(index));
+    }
+
+    /**
+     * Token ligado a uma posição dos arrays; se o token sai do buffer, guarda a última posição.
+     */
+    private final class Anchor extends Token {
+        private int slot;
+
+        Anchor(int index) {
+            super(type(index), DfaLexer.lexemeString(input, type(index), start(index), end(index)),
+                    line(index), column(index), start(index), end(index));
+            this.slot = slot(index);
+        }
+
+        PackedTokenBuffer buffer() {
+            return PackedTokenBuffer.this;
+        }
+
+        int index() {
+            return slot < gap ? slot : slot - (types.length - size);
+        }
+
+        void detach() {
+            int index = index();
+            relocate(line(index), column(index), start(index));
+            slot = -1;
+        }
+
+        @Override
+        public int getLine() {
+            return slot < 0 ? super.getLine() : line(index());
+        }
+
+        @Override
+        public int getColumn() {
+            return slot < 0 ? super.getColumn() : column(index());
+        }
+
+        @Override
+        public long getOffset() {
+            return slot < 0 ? super.getOffset() : start(index());
+        }
+
+        @Override
+        public long getEnd() {
+            return slot < 0 ? super.getEnd() : end(index());
+        }
+    }
+
+    /**
+     * Linha (base 1) de um deslocamento na entrada, por busca binária no índice de linhas.
+     */
+    public int lineOf(int offset) {
+        buildLineIndex();
+        int low = 0;
+        int high = lineCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (lineStarts[mid] <= offset) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low + 1;
+    }
+
+    /**
+     * Coluna (base 1) de um deslocamento na entrada.
+     */
+    public int columnOf(int offset) {
+        int line = lineOf(offset); // garante o índice de linhas antes de lê-lo
+        return offset - lineStarts[line - 1] + 1;
+    }
+
+    private void buildLineIndex() {
+        if (lineCount >= 0) {
+            return;
+        }
+        if (lineStarts == null) {
+            lineStarts = new int[16];
+        }
+        lineStarts[0] = 0;
+        lineCount = 1;
+        for (int i = 0, length = input.length(); i < length; i++) {
+            if (input.charAt(i) == '\n') {
+                if (lineCount == lineStarts.length) {
+                    lineStarts = Arrays.copyOf(lineStarts, lineCount * 2);
+                }
+                lineStarts[lineCount++] = i + 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.pedrik.recognizer.service.lexical;
+
+/**
+ * {@link TokenStream} sobre um {@link PackedTokenBuffer}. As decisões do parser
+ * ({@link #peekType()}, {@link #peekIs(TokenType, String)} e {@link #peekTerminal(TerminalClassifier)})
+ * leem os arrays diretamente; um {@link Token} só é criado quando alguém pede o token em si.
+ */
+public class PackedTokenStream implements TokenStream {
+
+    private static final Token END = new Token(TokenType.EOF, "$", -1, -1);
+
+    private final PackedTokenBuffer buffer;
+    private int current = 0;
+
+    public PackedTokenStream(PackedTokenBuffer buffer) {
+        this(buffer, 0);
+    }
+
+    /**
+     * Stream que começa no token 'position' do buffer.
+     */
+    public PackedTokenStream(PackedTokenBuffer buffer, int position) {
+        this.buffer = buffer;
+        this.current = position;
+    }
+
+    @Override
+    public Token peek(int offset) {
+        int position = current + offset;
+        return position < buffer.size() ? buffer.toToken(position) : END;
+    }
+
+    @Override
+    public TokenType peekType() {
+        return current < buffer.size() ? buffer.type(current) : TokenType.EOF;
+    }
+
+    @Override
+    public boolean peekIs(TokenType type, String lexeme) {
+        if (current >= buffer.size()) {
+            return type == TokenType.EOF && (lexeme == null || lexeme.equals("$"));
+        }
+        return buffer.typeOrdinal(current) == type.ordinal()
+                && (lexeme == null || buffer.lexemeEquals(current, lexeme));
+    }
+
+    @Override
+    public int peekTerminal(TerminalClassifier classifier) {
+        if (current >= buffer.size()) {
+            return classifier.terminalOf(TokenType.EOF.ordinal(), "", 0, 0);
+        }
+        // Nos tipos que viram terminal o lexema é o próprio trecho da entrada
+        return classifier.terminalOf(buffer.typeOrdinal(current), buffer.getInput(), buffer.start(current), buffer.end(current));
+    }
+
+    @Override
+    public Token next() {
+        Token token = peek(0);
+        advance();
+        return token;
+    }
+
+    @Override
+    public void advance() {
+        if (current < buffer.size()) {
+            current++;
+        }
+    }
+
+    /**
+     * Índice do próximo token no buffer.
+     */
+    public int position() {
+        return current;
+    }
+
+    /**
+     * Reposiciona o stream no token 'position' do buffer, por exemplo para pular um trecho já analisado.
+     */
+    public void seek(int position) {
+        this.current = position;
+    }
+}
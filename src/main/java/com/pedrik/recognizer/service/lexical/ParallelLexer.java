@@ -0,0 +1,156 @@
+package com.pedrik.recognizer.service.lexical;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Análise léxica paralela para entradas grandes. O texto é dividido em blocos que começam
+ * logo após uma quebra de linha e cada bloco é analisado no {@link ForkJoinPool} supondo que
+ * começa fora de string ou comentário. Na junção, um bloco só é aproveitado se o anterior terminou
+ * exatamente no seu início; se um token (comentário de bloco ou string) atravessou a fronteira,
+ * o bloco é reanalisado a partir do fim desse token. O resultado, incluindo linhas e colunas,
+ * é idêntico ao da análise sequencial.
+ */
+public class ParallelLexer {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public ParallelLexer() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public ParallelLexer(ForkJoinPool pool, int chunkSize) {
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    // Resultado da varredura de um bloco; linhas relativas à linha inicial informada
+    private static final class Chunk {
+        final PackedTokenBuffer tokens = new PackedTokenBuffer(true);
+        int end;
+        int line;
+        int column;
+        boolean finished;
+        int lineShift;
+    }
+
+    public List<Token> tokenize(CharSequence input) {
+        int[] starts = chunkStarts(input);
+        int chunks = starts.length - 1;
+
+        // Varredura especulativa e contagem de quebras de linha de cada bloco, em paralelo
+        Chunk[] speculative = new Chunk[chunks];
+        int[] newlines = new int[chunks];
+        pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(i -> {
+            speculative[i] = scan(input, starts[i], limitOf(starts, i), 1, 1);
+            newlines[i] = countNewlines(input, starts[i], starts[i + 1]);
+        })).join();
+
+        // Junção sequencial: aceita o bloco especulativo ou reanalisa a partir do token que cruzou a fronteira
+        List<Chunk> accepted = new ArrayList<>();
+        int position = 0;
+        int line = 1;
+        int column = 1;
+        int chunkLine = 1;
+        for (int i = 0; i < chunks; i++) {
+            int start = starts[i];
+            if (i > 0) {
+                chunkLine += newlines[i - 1];
+            }
+            if (position >= starts[i + 1] && i < chunks - 1) {
+                continue; // bloco inteiramente coberto por um token anterior
+            }
+
+            Chunk chunk;
+            if (position == start) {
+                chunk = speculative[i];
+                chunk.lineShift = chunkLine - 1;
+            } else {
+                chunk = scan(input, position, limitOf(starts, i), line, column);
+            }
+            accepted.add(chunk);
+            position = chunk.end;
+            line = chunk.line + chunk.lineShift;
+            column = chunk.column;
+            if (chunk.finished) {
+                break;
+            }
+        }
+
+        // Materialização dos tokens aceitos, também em paralelo
+        Token[][] parts = new Token[accepted.size()][];
+        pool.submit(() -> IntStream.range(0, parts.length).parallel().forEach(i -> {
+            Chunk chunk = accepted.get(i);
+            Token[] tokens = new Token[chunk.tokens.size()];
+            for (int j = 0; j < tokens.length; j++) {
+                tokens[j] = chunk.tokens.toToken(j, chunk.lineShift);
+            }
+            parts[i] = tokens;
+        })).join();
+
+        List<Token> result = new ArrayList<>();
+        for (Token[] part : parts) {
+            result.addAll(Arrays.asList(part));
+        }
+        return result;
+    }
+
+    private static Chunk scan(CharSequence input, int start, int limit, int line, int column) {
+        Chunk chunk = new Chunk();
+        chunk.tokens.reset(input);
+        DfaLexer lexer = new DfaLexer(input).reset(input, start, line, column);
+        lexer.setLimit(limit);
+
+        TokenType type;
+        while ((type = lexer.scan()) != null) {
+            chunk.tokens.add(type, lexer.tokenStart(), lexer.tokenEnd(), lexer.tokenLine(), lexer.tokenColumn());
+        }
+        chunk.end = lexer.position();
+        chunk.line = lexer.line();
+        chunk.column = lexer.column();
+        chunk.finished = lexer.isFinished();
+        return chunk;
+    }
+
+    // O último bloco não tem limite, para que o EOF seja emitido
+    private static int limitOf(int[] starts, int chunk) {
+        return chunk == starts.length - 2 ? Integer.MAX_VALUE : starts[chunk + 1];
+    }
+
+    // Inícios dos blocos (sempre logo após um '\n'), terminando com o tamanho da entrada
+    private int[] chunkStarts(CharSequence input) {
+        int length = input.length();
+        int[] starts = new int[Math.max(2, length / Math.max(1, chunkSize) + 2)];
+        int count = 1;
+        int next = chunkSize;
+        while (next < length) {
+            int boundary = next;
+            while (boundary < length && input.charAt(boundary - 1) != '\n') {
+                boundary++;
+            }
+            if (boundary >= length) {
+                break;
+            }
+            starts[count++] = boundary;
+            next = boundary + chunkSize;
+        }
+        starts[count++] = length;
+        return Arrays.copyOf(starts, count);
+    }
+
+    private static int countNewlines(CharSequence input, int start, int end) {
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            if (input.charAt(i) == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+}
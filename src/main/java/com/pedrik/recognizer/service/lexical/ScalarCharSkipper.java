@@ -0,0 +1,51 @@
+package com.pedrik.recognizer.service.lexical;
+
+/**
+ * Implementação escalar de {@link CharSkipper}, um caractere por vez.
+ */
+public final class ScalarCharSkipper implements CharSkipper {
+
+    public static final ScalarCharSkipper INSTANCE = new ScalarCharSkipper();
+
+    private ScalarCharSkipper() {
+    }
+
+    @Override
+    public int skipSpaces(CharSequence input, int from, int to) {
+        int i = from;
+        while (i < to) {
+            char c = input.charAt(i);
+            if (c != ' ' && c != '\t' && c != '\r' && c != '\f') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    @Override
+    public int skipWordChars(CharSequence input, int from, int to) {
+        int i = from;
+        while (i < to) {
+            char c = input.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_')) {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    @Override
+    public int indexOfEither(CharSequence input, int from, int to, char a, char b) {
+        int i = from;
+        while (i < to) {
+            char c = input.charAt(i);
+            if (c == a || c == b) {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+}
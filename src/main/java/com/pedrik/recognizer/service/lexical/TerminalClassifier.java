@@ -0,0 +1,14 @@
+package com.pedrik.recognizer.service.lexical;
+
+/**
+ * Converte um token, dado pelo tipo e pelo trecho da entrada, no terminal de uma gramática.
+ * Permite que o {@link TokenStream} responda ao parser sem criar {@link Token} nem {@code String}.
+ */
+public interface TerminalClassifier {
+
+    /**
+     * Terminal do token com o tipo ({@link TokenType#ordinal()}) e o lexema em
+     * {@code input[start, end)}, ou {@code -1} se o token não é terminal da gramática.
+     */
+    int terminalOf(int typeOrdinal, CharSequence input, int start, int end);
+}
@@ -0,0 +1,59 @@
+package com.pedrik.recognizer.service.lexical;
+
+import java.util.Objects;
+
+/**
+ * Edição de texto: remove 'deletedLength' caracteres a partir de 'offset' e insere 'insertedText'.
+ */
+public class TextEdit {
+    private final int offset;
+    private final int deletedLength;
+    private final String insertedText;
+
+    public TextEdit(int offset, int deletedLength, String insertedText) {
+        if (offset < 0 || deletedLength < 0) {
+            throw new IllegalArgumentException("Edição inválida: offset=" + offset + ", removidos=" + deletedLength);
+        }
+        this.offset = offset;
+        this.deletedLength = deletedLength;
+        this.insertedText = Objects.requireNonNull(insertedText, "insertedText");
+    }
+
+    public int getOffset() { return offset; }
+    public int getDeletedLength() { return deletedLength; }
+    public String getInsertedText() { return insertedText; }
+
+    /**
+     * Fim da região removida no texto antigo.
+     */
+    public int getOldEnd() { return offset + deletedLength; }
+
+    /**
+     * Fim do texto inserido no texto novo.
+     */
+    public int getNewEnd() { return offset + insertedText.length(); }
+
+    /**
+     * Diferença de tamanho entre o texto novo e o antigo.
+     */
+    public int getDelta() { return insertedText.length() - deletedLength; }
+
+    /**
+     * Lança {@link IllegalArgumentException} se a região removida não cabe num texto desse tamanho.
+     */
+    public void checkBounds(int length) {
+        if (getOldEnd() > length) {
+            throw new IllegalArgumentException("Edição fora do texto: offset=" + offset
+                    + ", removidos=" + deletedLength + ", tamanho=" + length);
+        }
+    }
+
+    public String apply(CharSequence text) {
+        checkBounds(text.length());
+        return new StringBuilder(text.length() + getDelta())
+                .append(text, 0, offset)
+                .append(insertedText)
+                .append(text, getOldEnd(), text.length())
+                .toString();
+    }
+}
@@ -5,6 +5,8 @@ public class Token {
     private String lexeme;
     private int line;
     private int column;
+    private long offset = -1; // início do token na entrada (em bytes para arquivos mapeados)
+    private long end = -1; // fim exclusivo na entrada, com aspas e marcadores de comentário
 
     public Token(TokenType type, String lexeme, int line, int column) {
         this.type = type;
@@ -13,14 +15,35 @@ public class Token {
         this.column = column;
     }
 
+    public Token(TokenType type, String lexeme, int line, int column, long offset, long end) {
+        this(type, lexeme, line, column);
+        this.offset = offset;
+        this.end = end;
+    }
+
     public TokenType getType() { return type; }
     public String getLexeme() { return lexeme; }
     public int getLine() { return line; }
     public int getColumn() { return column; }
+    public long getOffset() { return offset; }
+    public long getEnd() { return end; }
+
+    /**
+     * Move o token para a nova posição depois de uma edição que não alterou o seu texto,
+     * para que árvores reaproveitadas não precisem de tokens novos.
+     */
+    public void relocate(int line, int column, long offset) {
+        if (end >= 0) {
+            end += offset - this.offset;
+        }
+        this.line = line;
+        this.column = column;
+        this.offset = offset;
+    }
 
     @Override
     public String toString() {
         return String.format("Token[type=%s, lexeme='%s', line=%d, column=%d]",
-                type, lexeme, line, column);
+                type, lexeme, getLine(), getColumn());
     }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.pedrik.recognizer.service.lexical;
+
+/**
+ * Produtor de tokens sob demanda.
+ */
+public interface TokenSource {
+
+    /**
+     * Retorna o próximo token, o EOF ao final da entrada e {@code null} depois disso.
+     */
+    Token nextToken();
+}
@@ -0,0 +1,56 @@
+package com.pedrik.recognizer.service.lexical;
+
+/**
+ * Fonte de tokens sob demanda (pull-based) consumida pelo parser.
+ * Depois do fim da entrada, {@link #peek()} e {@link #next()} continuam retornando o EOF.
+ */
+public interface TokenStream {
+
+    /**
+     * Retorna o próximo token sem consumi-lo.
+     */
+    default Token peek() {
+        return peek(0);
+    }
+
+    /**
+     * Retorna o token 'offset' posições à frente do atual (0 = próximo) sem consumi-lo.
+     */
+    Token peek(int offset);
+
+    /**
+     * Consome e retorna o próximo token.
+     */
+    Token next();
+
+    /**
+     * Consome o próximo token sem precisar retorná-lo.
+     */
+    default void advance() {
+        next();
+    }
+
+    /**
+     * Tipo do próximo token. Implementações compactas respondem sem criar um {@link Token}.
+     */
+    default TokenType peekType() {
+        return peek().getType();
+    }
+
+    /**
+     * Verifica se o próximo token tem o tipo e, quando informado, o lexema esperados.
+     */
+    default boolean peekIs(TokenType type, String lexeme) {
+        Token token = peek();
+        return token.getType() == type && (lexeme == null || token.getLexeme().equals(lexeme));
+    }
+
+    /**
+     * Terminal do próximo token segundo o classificador. Implementações compactas passam o
+     * trecho da entrada direto, sem criar {@link Token}.
+     */
+    default int peekTerminal(TerminalClassifier classifier) {
+        Token token = peek();
+        return classifier.terminalOf(token.getType().ordinal(), token.getLexeme(), 0, token.getLexeme().length());
+    }
+}
@@ -20,9 +20,24 @@ public enum TokenType {
     ERROR("."), // fallback para erro
     EOF(""); // adicionado manualmente
 
-    public final Pattern pattern;
+    public final String regex;
+    private volatile Pattern pattern; // compilado apenas se alguém pedir
 
     TokenType(String regex) {
-        this.pattern = Pattern.compile(regex, Pattern.DOTALL);
+        this.regex = regex;
+    }
+
+    /**
+     * Regex do tipo, compilada com {@code DOTALL} no primeiro uso. Substitui o antigo campo
+     * público {@code pattern}: quem lia {@code type.pattern} passa a chamar {@code type.pattern()}
+     * e recebe o mesmo {@code Pattern}, sem pagar a compilação dos 16 tipos ao carregar o enum.
+     */
+    public Pattern pattern() {
+        Pattern compiled = pattern;
+        if (compiled == null) {
+            compiled = Pattern.compile(regex, Pattern.DOTALL);
+            pattern = compiled;
+        }
+        return compiled;
     }
 }
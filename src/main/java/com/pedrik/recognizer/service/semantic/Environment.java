@@ -0,0 +1,100 @@
+package com.pedrik.recognizer.service.semantic;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Versão imutável do ambiente de variáveis conhecidas (nome → tipo), compartilhada entre
+ * requisições sem cópia nem trava. Cada nome tem um índice fixo, usado pela {@link SymbolTable}
+ * para resolver o nome uma única vez.
+ * <p>
+ * Ambientes grandes podem vir de um {@link OffHeapDictionary}: os índices passam a ser as posições
+ * da tabela do dicionário e nada é copiado para o heap.
+ */
+public final class Environment {
+
+    public static final Environment EMPTY = of(0, Map.of());
+
+    private final long version;
+    private final Map<String, Integer> index;
+    private final String[] names;
+    private final String[] types;
+    private final OffHeapDictionary dictionary;
+
+    private Environment(long version, Map<String, Integer> index, String[] names, String[] types, OffHeapDictionary dictionary) {
+        this.version = version;
+        this.index = index;
+        this.names = names;
+        this.types = types;
+        this.dictionary = dictionary;
+    }
+
+    public static Environment of(long version, Map<String, String> variables) {
+        Map<String, Integer> index = new HashMap<>(variables.size() * 2);
+        String[] names = new String[variables.size()];
+        String[] types = new String[variables.size()];
+        int i = 0;
+        for (Map.Entry<String, String> variable : variables.entrySet()) {
+            index.put(variable.getKey(), i);
+            names[i] = variable.getKey();
+            types[i] = variable.getValue();
+            i++;
+        }
+        return new Environment(version, Collections.unmodifiableMap(index), names, types, null);
+    }
+
+    public static Environment of(long version, OffHeapDictionary dictionary) {
+        return new Environment(version, Map.of(), new String[0], new String[0], dictionary);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return dictionary != null ? dictionary.size() : names.length;
+    }
+
+    /**
+     * Índice da variável, ou {@code -1} se ela não faz parte do ambiente.
+     */
+    public int indexOf(String name) {
+        if (dictionary != null) {
+            return dictionary.find(name);
+        }
+        Integer i = index.get(name);
+        return i == null ? -1 : i;
+    }
+
+    public String typeAt(int i) {
+        return dictionary != null ? dictionary.typeName(dictionary.entryAt(i)) : types[i];
+    }
+
+    public String getType(String name) {
+        int i = indexOf(name);
+        return i < 0 ? null : typeAt(i);
+    }
+
+    /**
+     * Cópia editável das variáveis, ponto de partida para a próxima versão. Com um dicionário
+     * fora do heap todas as variáveis são copiadas.
+     */
+    public Map<String, String> toMap() {
+        if (dictionary != null) {
+            Map<String, String> variables = new LinkedHashMap<>(dictionary.size() * 2);
+            for (int slot = 0; slot < dictionary.capacity(); slot++) {
+                if (dictionary.isOccupied(slot)) {
+                    variables.put(dictionary.nameAt(slot), typeAt(slot));
+                }
+            }
+            return variables;
+        }
+        Map<String, String> variables = new LinkedHashMap<>(names.length * 2);
+        for (int i = 0; i < names.length; i++) {
+            variables.put(names[i], types[i]);
+        }
+        return variables;
+    }
+}
@@ -0,0 +1,133 @@
+package com.pedrik.recognizer.service.semantic;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Ambiente de variáveis conhecidas do domínio e seus tipos, usado como escopo mais externo da
+ * análise semântica.
+ * <p>
+ * É carregado uma vez de {@code recognizer.environment.location} (arquivo {@code nome=tipo},
+ * por padrão {@code environment.properties} no classpath) e atualizado trocando atomicamente a
+ * versão atual por uma cópia nova ({@link Environment} é imutável). Leitores pegam a versão
+ * atual com {@link #snapshot()}, sem trava e sem copiar nada. Um local terminado em
+ * {@link OffHeapDictionary#EXTENSION} é mapeado como dicionário fora do heap (ou copiado para
+ * memória fora do heap quando não é um arquivo, como dentro de um jar), e
+ * {@link #map(Path)} recarrega o ambiente de outro dicionário.
+ */
+@Service
+public class EnvironmentRegistry {
+
+    public static final String DEFAULT_LOCATION = "environment.properties";
+
+    private final AtomicReference<Environment> current = new AtomicReference<>(Environment.EMPTY);
+
+    public EnvironmentRegistry() {
+    }
+
+    @Autowired
+    public EnvironmentRegistry(@Value("${recognizer.environment.location:" + DEFAULT_LOCATION + "}") String location) {
+        Resource resource = new DefaultResourceLoader().getResource(location);
+        if (!resource.exists()) {
+            return;
+        }
+        if (location.endsWith(OffHeapDictionary.EXTENSION)) {
+            try {
+                if (resource.isFile()) {
+                    map(resource.getFile().toPath());
+                } else {
+                    // Dentro de um jar não há arquivo para mapear: o conteúdo vai para memória fora do heap
+                    OffHeapDictionary copied = copy(resource);
+                    current.updateAndGet(old -> Environment.of(old.getVersion() + 1, copied));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao mapear o dicionário de variáveis em " + resource, e);
+            }
+        } else {
+            replace(load(resource));
+        }
+    }
+
+    private static OffHeapDictionary copy(Resource resource) throws IOException {
+        byte[] bytes;
+        try (InputStream in = resource.getInputStream()) {
+            bytes = in.readAllBytes();
+        }
+        try {
+            return OffHeapDictionary.wrap(ByteBuffer.allocateDirect(bytes.length).put(bytes).flip());
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException("Dicionário de identificadores inválido: " + resource, e);
+        }
+    }
+
+    static Map<String, String> load(Resource resource) {
+        Properties properties = new Properties();
+        try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler o ambiente de variáveis em " + resource, e);
+        }
+        Map<String, String> variables = new LinkedHashMap<>();
+        properties.stringPropertyNames().forEach(name -> variables.put(name, properties.getProperty(name).trim()));
+        return variables;
+    }
+
+    /**
+     * Versão atual do ambiente; continua válida mesmo que outra seja publicada depois.
+     */
+    public Environment snapshot() {
+        return current.get();
+    }
+
+    /**
+     * Substitui todas as variáveis.
+     */
+    public Environment replace(Map<String, String> variables) {
+        return current.updateAndGet(old -> Environment.of(old.getVersion() + 1, new LinkedHashMap<>(variables)));
+    }
+
+    /**
+     * Substitui todas as variáveis pelas de um dicionário gravado por
+     * {@link OffHeapDictionary.Builder#write(Path)}; quem já pegou a versão anterior continua com ela.
+     */
+    public Environment map(Path dictionary) throws IOException {
+        OffHeapDictionary mapped = OffHeapDictionary.map(dictionary);
+        return current.updateAndGet(old -> Environment.of(old.getVersion() + 1, mapped));
+    }
+
+    /**
+     * Acrescenta ou redefine variáveis, mantendo as demais.
+     */
+    public Environment define(Map<String, String> variables) {
+        return current.updateAndGet(old -> {
+            Map<String, String> next = old.toMap();
+            next.putAll(variables);
+            return Environment.of(old.getVersion() + 1, next);
+        });
+    }
+
+    public Environment remove(Collection<String> names) {
+        return current.updateAndGet(old -> {
+            Map<String, String> next = old.toMap();
+            next.keySet().removeAll(names);
+            return Environment.of(old.getVersion() + 1, next);
+        });
+    }
+}
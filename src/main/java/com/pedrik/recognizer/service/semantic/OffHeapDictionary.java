@@ -0,0 +1,442 @@
+package com.pedrik.recognizer.service.semantic;
+
+import com.pedrik.recognizer.service.lexical.ByteCharSequence;
+import com.pedrik.recognizer.service.lexical.PackedTokenBuffer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dicionário de identificadores fora do heap (bytes UTF-8 do nome → tipo e flags do
+ * {@link SemanticInfo}), para ambientes com milhões de variáveis.
+ * <p>
+ * É uma tabela de endereçamento aberto com sondagem linear num {@link ByteBuffer} direto ou num
+ * arquivo mapeado, então o coletor de lixo não vê as entradas e recarregar é mapear outro arquivo.
+ * As buscas recebem um trecho da entrada ({@link #find(CharSequence, int, int)}) ou o índice de
+ * um token ({@link #find(PackedTokenBuffer, int)}) e comparam os bytes direto, sem criar
+ * {@code String}; sobre {@link ByteCharSequence} cada caractere já é um byte do arquivo.
+ * <p>
+ * Layout (big-endian): {@code magic}, {@code versão}, capacidade (potência de 2), quantidade de
+ * nomes, tamanho da área de nomes, os nomes dos tipos ({@code int} com o tamanho e os bytes
+ * UTF-8), as posições da tabela ({@code hash}, deslocamento do nome, tamanho do nome e entrada,
+ * deslocamento -1 para posição livre) e a área com os bytes dos nomes.
+ * <p>
+ * Uma entrada é {@code id do tipo | flags << 16}; o dicionário só faz leituras absolutas no
+ * buffer e pode ser compartilhado entre threads.
+ */
+public final class OffHeapDictionary {
+
+    public static final int MAGIC = 0x49444443; // "IDDC"
+    public static final int VERSION = 1;
+    public static final String EXTENSION = ".dict";
+
+    public static final int NOT_FOUND = -1;
+
+    public static final int DECLARATION = 1;
+    public static final int USED = 2;
+    public static final int ASSIGNED = 4;
+
+    private static final int HEADER_SIZE = 20;
+    private static final int SLOT_SIZE = 16;
+    private static final int FNV_OFFSET = 0x811C9DC5;
+    private static final int FNV_PRIME = 0x01000193;
+
+    private final ByteBuffer buffer;
+    private final int capacity;
+    private final int size;
+    private final String[] typeNames;
+    private final int slotsBase;
+    private final int keysBase;
+
+    private OffHeapDictionary(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Dicionário de identificadores inválido");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Versão de dicionário não suportada (" + buffer.getInt(4) + ")");
+        }
+        this.capacity = buffer.getInt(8);
+        this.size = buffer.getInt(12);
+        int keysLength = buffer.getInt(16);
+
+        ByteBuffer in = buffer.duplicate().position(HEADER_SIZE);
+        this.typeNames = new String[in.getInt()];
+        for (int i = 0; i < typeNames.length; i++) {
+            byte[] bytes = new byte[in.getInt()];
+            in.get(bytes);
+            typeNames[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        this.slotsBase = in.position();
+        this.keysBase = slotsBase + capacity * SLOT_SIZE;
+        if (Integer.bitCount(capacity) != 1 || size >= capacity || (long) keysBase + keysLength != buffer.limit()) {
+            throw new IllegalArgumentException("Dicionário de identificadores truncado ou inconsistente");
+        }
+    }
+
+    /**
+     * Usa o conteúdo já no formato do dicionário (por exemplo o de {@link Builder#build()}).
+     */
+    public static OffHeapDictionary wrap(ByteBuffer buffer) {
+        return new OffHeapDictionary(buffer.duplicate().order(ByteOrder.BIG_ENDIAN));
+    }
+
+    /**
+     * Mapeia um arquivo gravado por {@link Builder#write(Path)}; o mapeamento continua válido
+     * depois que o arquivo é substituído, então recarregar é chamar este método de novo.
+     */
+    public static OffHeapDictionary map(Path file) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            return new OffHeapDictionary(mapped);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException("Dicionário de identificadores inválido: " + file, e);
+        }
+    }
+
+    /**
+     * Monta o dicionário a partir de um arquivo texto com linhas {@code nome=tipo} (o mesmo
+     * formato de {@code environment.properties}, sem escapes), lido linha a linha.
+     */
+    public static Builder readText(Path file) throws IOException {
+        Builder builder = new Builder();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#") || line.startsWith("!")) {
+                    continue;
+                }
+                int separator = line.indexOf('=');
+                if (separator < 0) {
+                    separator = line.indexOf(':');
+                }
+                if (separator <= 0) {
+                    throw new IOException("Linha sem 'nome=tipo' em " + file + ": " + line);
+                }
+                builder.put(line.substring(0, separator).strip(), line.substring(separator + 1).strip(), DECLARATION);
+            }
+        }
+        return builder;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Quantidade de posições da tabela; os índices de {@link #find} estão em {@code [0, capacity)}.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Posição do nome {@code text[start, end)} na tabela, ou {@link #NOT_FOUND}.
+     */
+    public int find(CharSequence text, int start, int end) {
+        boolean raw = text instanceof ByteCharSequence;
+        int hash = raw ? hashBytes(text, start, end) : hashChars(text, start, end);
+        int mask = capacity - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int base = slotsBase + slot * SLOT_SIZE;
+            int keyOffset = buffer.getInt(base + 4);
+            if (keyOffset < 0) {
+                return NOT_FOUND;
+            }
+            if (buffer.getInt(base) == hash
+                    && (raw ? equalsBytes(keyOffset, buffer.getInt(base + 8), text, start, end)
+                            : equalsChars(keyOffset, buffer.getInt(base + 8), text, start, end))) {
+                return slot;
+            }
+        }
+    }
+
+    public int find(CharSequence name) {
+        return find(name, 0, name.length());
+    }
+
+    /**
+     * Posição do lexema do token 'index', lido direto da entrada do buffer.
+     */
+    public int find(PackedTokenBuffer tokens, int index) {
+        return find(tokens.getInput(), tokens.start(index), tokens.end(index));
+    }
+
+    /**
+     * Entrada do nome, ou {@link #NOT_FOUND}.
+     */
+    public int lookup(CharSequence text, int start, int end) {
+        int slot = find(text, start, end);
+        return slot == NOT_FOUND ? NOT_FOUND : entryAt(slot);
+    }
+
+    public int lookup(CharSequence name) {
+        return lookup(name, 0, name.length());
+    }
+
+    public boolean isOccupied(int slot) {
+        return buffer.getInt(slotsBase + slot * SLOT_SIZE + 4) >= 0;
+    }
+
+    public int entryAt(int slot) {
+        return buffer.getInt(slotsBase + slot * SLOT_SIZE + 12);
+    }
+
+    /**
+     * Nome na posição; cria a {@code String}, então é para listagens e mensagens, não para buscas.
+     */
+    public String nameAt(int slot) {
+        int base = slotsBase + slot * SLOT_SIZE;
+        byte[] bytes = new byte[buffer.getInt(base + 8)];
+        buffer.get(keysBase + buffer.getInt(base + 4), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static int typeId(int entry) {
+        return entry & 0xFFFF;
+    }
+
+    public static int flags(int entry) {
+        return entry >>> 16;
+    }
+
+    public String typeName(int entry) {
+        return typeNames[typeId(entry)];
+    }
+
+    public SemanticInfo semanticInfo(int entry) {
+        int flags = flags(entry);
+        return new SemanticInfo(typeName(entry), (flags & DECLARATION) != 0, (flags & USED) != 0, (flags & ASSIGNED) != 0);
+    }
+
+    // FNV-1a sobre os bytes UTF-8 dos caracteres, sem materializar os bytes
+    private static int hashChars(CharSequence text, int start, int end) {
+        int hash = FNV_OFFSET;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                hash = (hash ^ c) * FNV_PRIME;
+            } else if (c < 0x800) {
+                hash = (hash ^ (0xC0 | c >> 6)) * FNV_PRIME;
+                hash = (hash ^ (0x80 | c & 0x3F)) * FNV_PRIME;
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, text.charAt(++i));
+                hash = (hash ^ (0xF0 | cp >> 18)) * FNV_PRIME;
+                hash = (hash ^ (0x80 | cp >> 12 & 0x3F)) * FNV_PRIME;
+                hash = (hash ^ (0x80 | cp >> 6 & 0x3F)) * FNV_PRIME;
+                hash = (hash ^ (0x80 | cp & 0x3F)) * FNV_PRIME;
+            } else {
+                hash = (hash ^ (0xE0 | c >> 12)) * FNV_PRIME;
+                hash = (hash ^ (0x80 | c >> 6 & 0x3F)) * FNV_PRIME;
+                hash = (hash ^ (0x80 | c & 0x3F)) * FNV_PRIME;
+            }
+        }
+        return hash;
+    }
+
+    private static int hashBytes(CharSequence bytes, int start, int end) {
+        int hash = FNV_OFFSET;
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ (bytes.charAt(i) & 0xFF)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static int hashBytes(byte[] bytes, int start, int end) {
+        int hash = FNV_OFFSET;
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ (bytes[i] & 0xFF)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private boolean equalsBytes(int keyOffset, int keyLength, CharSequence bytes, int start, int end) {
+        if (keyLength != end - start) {
+            return false;
+        }
+        int key = keysBase + keyOffset;
+        for (int i = 0; i < keyLength; i++) {
+            if (buffer.get(key + i) != (byte) bytes.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Compara codificando os caracteres em UTF-8 conforme avança, como em hashChars
+    private boolean equalsChars(int keyOffset, int keyLength, CharSequence text, int start, int end) {
+        int key = keysBase + keyOffset;
+        int keyEnd = key + keyLength;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                if (key >= keyEnd || buffer.get(key++) != (byte) c) return false;
+            } else if (c < 0x800) {
+                if (key + 2 > keyEnd
+                        || buffer.get(key++) != (byte) (0xC0 | c >> 6)
+                        || buffer.get(key++) != (byte) (0x80 | c & 0x3F)) return false;
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, text.charAt(++i));
+                if (key + 4 > keyEnd
+                        || buffer.get(key++) != (byte) (0xF0 | cp >> 18)
+                        || buffer.get(key++) != (byte) (0x80 | cp >> 12 & 0x3F)
+                        || buffer.get(key++) != (byte) (0x80 | cp >> 6 & 0x3F)
+                        || buffer.get(key++) != (byte) (0x80 | cp & 0x3F)) return false;
+            } else {
+                if (key + 3 > keyEnd
+                        || buffer.get(key++) != (byte) (0xE0 | c >> 12)
+                        || buffer.get(key++) != (byte) (0x80 | c >> 6 & 0x3F)
+                        || buffer.get(key++) != (byte) (0x80 | c & 0x3F)) return false;
+            }
+        }
+        return key == keyEnd;
+    }
+
+    /**
+     * Acumula os nomes em arrays primitivos (sem uma {@code String} por nome) e monta a tabela
+     * com carga de no máximo 50%. Um nome repetido fica com a última entrada.
+     */
+    public static final class Builder {
+
+        private byte[] keys = new byte[1024];
+        private int keysLength = 0;
+        private int[] offsets = new int[64];
+        private int[] lengths = new int[64];
+        private int[] hashes = new int[64];
+        private int[] entries = new int[64];
+        private int count = 0;
+
+        private final List<String> typeNames = new ArrayList<>();
+        private final Map<String, Integer> typeIds = new HashMap<>();
+
+        public Builder put(String name, String type, int flags) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            if (keysLength + bytes.length > keys.length) {
+                long grown = Math.max((long) keys.length * 2, (long) keysLength + bytes.length);
+                if (grown > Integer.MAX_VALUE - 8) {
+                    throw new IllegalStateException("Dicionário de identificadores excede 2 GB de nomes");
+                }
+                keys = Arrays.copyOf(keys, (int) grown);
+            }
+            if (count == offsets.length) {
+                int grown = count * 2;
+                offsets = Arrays.copyOf(offsets, grown);
+                lengths = Arrays.copyOf(lengths, grown);
+                hashes = Arrays.copyOf(hashes, grown);
+                entries = Arrays.copyOf(entries, grown);
+            }
+            System.arraycopy(bytes, 0, keys, keysLength, bytes.length);
+            offsets[count] = keysLength;
+            lengths[count] = bytes.length;
+            hashes[count] = hashBytes(keys, keysLength, keysLength + bytes.length);
+            entries[count] = typeId(type) | (flags & 0xFFFF) << 16;
+            keysLength += bytes.length;
+            count++;
+            return this;
+        }
+
+        public Builder putAll(Map<String, String> variables) {
+            variables.forEach((name, type) -> put(name, type, DECLARATION));
+            return this;
+        }
+
+        private int typeId(String type) {
+            return typeIds.computeIfAbsent(type, name -> {
+                if (typeNames.size() > 0xFFFF) {
+                    throw new IllegalStateException("Dicionário de identificadores excede 65536 tipos");
+                }
+                typeNames.add(name);
+                return typeNames.size() - 1;
+            });
+        }
+
+        /**
+         * Monta o dicionário num {@link ByteBuffer} direto.
+         */
+        public OffHeapDictionary build() {
+            return new OffHeapDictionary(encode(true));
+        }
+
+        /**
+         * Grava o dicionário num arquivo temporário e o move para o destino, para que quem
+         * mapear o arquivo nunca veja um dicionário pela metade.
+         */
+        public void write(Path file) throws IOException {
+            ByteBuffer content = encode(false);
+            Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (content.hasRemaining()) {
+                    channel.write(content);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        private ByteBuffer encode(boolean direct) {
+            int capacity = Integer.highestOneBit(Math.max(8, count) * 2 - 1) << 1;
+            int[] slots = new int[capacity]; // índice da entrada + 1, 0 para posição livre
+            int distinct = 0;
+            for (int i = 0; i < count; i++) {
+                int slot = hashes[i] & (capacity - 1);
+                while (slots[slot] != 0 && !sameKey(slots[slot] - 1, i)) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                if (slots[slot] == 0) {
+                    distinct++;
+                }
+                slots[slot] = i + 1;
+            }
+
+            byte[][] types = new byte[typeNames.size()][];
+            long typesLength = Integer.BYTES;
+            for (int t = 0; t < types.length; t++) {
+                types[t] = typeNames.get(t).getBytes(StandardCharsets.UTF_8);
+                typesLength += Integer.BYTES + types[t].length;
+            }
+            long total = HEADER_SIZE + typesLength + (long) capacity * SLOT_SIZE + keysLength;
+            if (total > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Dicionário de identificadores excede 2 GB");
+            }
+
+            ByteBuffer out = direct ? ByteBuffer.allocateDirect((int) total) : ByteBuffer.allocate((int) total);
+            out.putInt(MAGIC).putInt(VERSION).putInt(capacity).putInt(distinct).putInt(keysLength);
+            out.putInt(types.length);
+            for (byte[] type : types) {
+                out.putInt(type.length).put(type);
+            }
+            for (int slot = 0; slot < capacity; slot++) {
+                int i = slots[slot] - 1;
+                if (i < 0) {
+                    out.putInt(0).putInt(-1).putInt(0).putInt(0);
+                } else {
+                    out.putInt(hashes[i]).putInt(offsets[i]).putInt(lengths[i]).putInt(entries[i]);
+                }
+            }
+            out.put(keys, 0, keysLength);
+            return out.flip();
+        }
+
+        private boolean sameKey(int a, int b) {
+            return hashes[a] == hashes[b] && Arrays.equals(keys, offsets[a], offsets[a] + lengths[a],
+                    keys, offsets[b], offsets[b] + lengths[b]);
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.pedrik.recognizer.service.semantic;
 import com.pedrik.recognizer.service.analytic.tree.Node;
 import com.pedrik.recognizer.service.analytic.tree.NonTerminalNode;
 import com.pedrik.recognizer.service.analytic.tree.TerminalNode;
+import com.pedrik.recognizer.service.analytic.tree.TreeVisitor;
+import com.pedrik.recognizer.service.analytic.tree.TreeWalker;
 import com.pedrik.recognizer.service.lexical.Token;
 import com.pedrik.recognizer.service.lexical.TokenType;
 
@@ -11,89 +13,109 @@ import java.util.List;
 
 public class SemanticAnalyzer {
 
-    private final SymbolTable symbolTable = new SymbolTable();
+    private final SymbolTable symbolTable;
     private final List<String> errors = new ArrayList<>();
 
-    public void analyze(Node root) {
-        analyzeNode(root);
+    public SemanticAnalyzer() {
+        this(new SymbolTable());
     }
 
-    private void analyzeNode(Node node) {
-        if (node instanceof NonTerminalNode nonTerminal) {
-            String name = nonTerminal.getName();
-
-            // Tratamento de declarações
-            if (name.equals("Declaration")) {
-                TerminalNode typeNode = nonTerminal.getFirstTerminalWithType(TokenType.KEYWORD);
-                TerminalNode idNode = nonTerminal.getFirstTerminalWithType(TokenType.IDENTIFIER);
-                if (typeNode != null && idNode != null) {
-                    String type = typeNode.getToken().getLexeme();
-                    String nameId = idNode.getToken().getLexeme();
-                    Token token = idNode.getToken();
-
-                    boolean success = symbolTable.declare(nameId, type, token.getLine(), token.getColumn());
-                    if (!success) {
-                        reportError("Variável já declarada no escopo atual: " + nameId, token);
-                    } else {
-                        nonTerminal.setSemanticInfo(new SemanticInfo(type, true, false, false));
-                    }
-                }
+    /**
+     * Analisador que parte dos identificadores já declarados na tabela informada.
+     */
+    public SemanticAnalyzer(SymbolTable symbolTable) {
+        this.symbolTable = symbolTable;
+    }
+
+    /**
+     * Analisa a árvore com o {@link TreeWalker}: as verificações de declaração e uso na entrada de
+     * cada nó e as de expressão booleana na saída, depois dos filhos.
+     */
+    public void analyze(Node root) {
+        TreeWalker.walk(root, new TreeVisitor() {
+            @Override
+            public Action enterNonTerminal(NonTerminalNode node, int depth) {
+                analyzeNode(node);
+                return Action.CONTINUE;
             }
 
-            // Tratamento de atribuições
-            if (name.equals("Assignment")) {
-                TerminalNode idNode = nonTerminal.getFirstTerminalWithType(TokenType.IDENTIFIER);
-                if (idNode != null) {
-                    Token token = idNode.getToken();
-                    String varName = token.getLexeme();
-
-                    if (!symbolTable.isDeclared(varName)) {
-                        reportError("Variável não declarada na atribuição: " + varName, token);
-                    } else {
-                        String declaredType = symbolTable.getType(varName);
-                        NonTerminalNode exprNode = nonTerminal.getChild(2, NonTerminalNode.class); // expressão depois de '='
-                        if (exprNode != null && exprNode.getSemanticInfo() != null) {
-                            String exprType = exprNode.getSemanticInfo().getType();
-
-                            if (!declaredType.equals(exprType)) {
-                                reportError("Tipo incompatível na atribuição. Esperado: " + declaredType + ", encontrado: " + exprType, token);
-                            } else {
-                                nonTerminal.setSemanticInfo(new SemanticInfo(declaredType, false, false, true));
-                            }
-                        }
-                    }
+            @Override
+            public Action exitNonTerminal(NonTerminalNode node, int depth) {
+                switch (node.getName()) {
+                    case "E", "T", "F" -> analyzeBooleanExpression(node);
                 }
+                return Action.CONTINUE;
             }
+        });
+    }
 
-            // Tratamento do uso de identificadores e literais booleanos
-            if (name.equals("F")) {
-                TerminalNode idNode = nonTerminal.getFirstTerminalWithType(TokenType.IDENTIFIER);
-                if (idNode != null) {
-                    Token token = idNode.getToken();
-                    String varName = token.getLexeme();
-                    if (!symbolTable.isDeclared(varName)) {
-                        reportError("Uso de identificador não declarado: " + varName, token);
-                    } else {
-                        String type = symbolTable.getType(varName);
-                        nonTerminal.setSemanticInfo(new SemanticInfo(type, false, true, false));
-                    }
+    // Verificações feitas ao chegar no nó, antes dos filhos
+    private void analyzeNode(NonTerminalNode nonTerminal) {
+        String name = nonTerminal.getName();
+
+        // Tratamento de declarações
+        if (name.equals("Declaration")) {
+            TerminalNode typeNode = nonTerminal.getFirstTerminalWithType(TokenType.KEYWORD);
+            TerminalNode idNode = nonTerminal.getFirstTerminalWithType(TokenType.IDENTIFIER);
+            if (typeNode != null && idNode != null) {
+                String type = typeNode.getToken().getLexeme();
+                String nameId = idNode.getToken().getLexeme();
+                Token token = idNode.getToken();
+
+                boolean success = symbolTable.declare(nameId, type, token.getLine(), token.getColumn());
+                if (!success) {
+                    reportError("Variável já declarada no escopo atual: " + nameId, token);
                 } else {
-                    // Literal true/false
-                    TerminalNode literalNode = nonTerminal.getFirstTerminalWithType(TokenType.BOOLEAN_LITERAL);
-                    if (literalNode != null) {
-                        nonTerminal.setSemanticInfo(new SemanticInfo("boolean", false, false, false));
-                    }
+                    nonTerminal.setSemanticInfo(new SemanticInfo(type, true, false, false));
                 }
             }
+        }
+
+        // Tratamento de atribuições
+        if (name.equals("Assignment")) {
+            TerminalNode idNode = nonTerminal.getFirstTerminalWithType(TokenType.IDENTIFIER);
+            if (idNode != null) {
+                Token token = idNode.getToken();
+                String varName = token.getLexeme();
+
+                int binding = symbolTable.lookup(varName);
+                if (binding == SymbolTable.UNDECLARED) {
+                    reportError("Variável não declarada na atribuição: " + varName, token);
+                } else {
+                    String declaredType = symbolTable.typeOf(binding);
+                    NonTerminalNode exprNode = nonTerminal.getChild(2, NonTerminalNode.class); // expressão depois de '='
+                    if (exprNode != null && exprNode.getSemanticInfo() != null) {
+                        String exprType = exprNode.getSemanticInfo().getType();
 
-            // Análise dos filhos primeiro (bottom-up)
-            for (Node child : nonTerminal.getChildren()) {
-                analyzeNode(child);
+                        if (!declaredType.equals(exprType)) {
+                            reportError("Tipo incompatível na atribuição. Esperado: " + declaredType + ", encontrado: " + exprType, token);
+                        } else {
+                            nonTerminal.setSemanticInfo(new SemanticInfo(declaredType, false, false, true));
+                        }
+                    }
+                }
             }
+        }
 
-            // Verificações semânticas específicas
-            switch (name) {
-                case "E", "T", "F" -> analyzeBooleanExpression(nonTerminal);
+        // Tratamento do uso de identificadores e literais booleanos
+        if (name.equals("F")) {
+            TerminalNode idNode = nonTerminal.getFirstTerminalWithType(TokenType.IDENTIFIER);
+            if (idNode != null) {
+                Token token = idNode.getToken();
+                String varName = token.getLexeme();
+                int binding = symbolTable.lookup(varName);
+                if (binding == SymbolTable.UNDECLARED) {
+                    reportError("Uso de identificador não declarado: " + varName, token);
+                } else {
+                    String type = symbolTable.typeOf(binding);
+                    nonTerminal.setSemanticInfo(new SemanticInfo(type, false, true, false));
+                }
+            } else {
+                // Literal true/false
+                TerminalNode literalNode = nonTerminal.getFirstTerminalWithType(TokenType.BOOLEAN_LITERAL);
+                if (literalNode != null) {
+                    nonTerminal.setSemanticInfo(new SemanticInfo("boolean", false, false, false));
+                }
             }
         }
     }
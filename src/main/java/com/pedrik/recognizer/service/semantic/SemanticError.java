@@ -0,0 +1,49 @@
+package com.pedrik.recognizer.service.semantic;
+
+import com.pedrik.recognizer.service.lexical.Token;
+
+/**
+ * Erro semântico com a posição do token que o causou, como no {@code Diagnostic} dos erros de
+ * sintaxe. A mensagem é a mesma de {@link SemanticListener#getErrors()}, já com linha e coluna.
+ */
+public class SemanticError {
+
+    private final String message;
+    private final int line;
+    private final int column;
+    private final long start;
+    private final long end;
+
+    public SemanticError(String message, Token token) {
+        this.message = message;
+        this.line = token.getLine();
+        this.column = token.getColumn();
+        this.start = token.getOffset();
+        this.end = token.getEnd();
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getEnd() {
+        return end;
+    }
+
+    @Override
+    public String toString() {
+        return message;
+    }
+}
@@ -0,0 +1,280 @@
+package com.pedrik.recognizer.service.semantic;
+
+import com.pedrik.recognizer.service.analytic.ParseListener;
+import com.pedrik.recognizer.service.analytic.TreeBuilderListener;
+import com.pedrik.recognizer.service.lexical.Token;
+import com.pedrik.recognizer.service.lexical.TokenType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Verificações do {@link SemanticAnalyzer} feitas durante a análise sintática, sem percorrer a
+ * árvore depois.
+ * <p>
+ * Cada regra aberta tem um quadro com atributos sintetizados: o primeiro token de cada tipo que o
+ * analisador procura na subárvore (identificador, palavra-chave, {@code NOT}, literal booleano) e
+ * o {@link SemanticInfo} dos três primeiros filhos. No fim da regra as mesmas regras do analisador
+ * são aplicadas sobre o quadro e os atributos sobem para o pai, então as buscas recursivas de
+ * {@code getFirstTerminalWithType} viram consultas O(1).
+ * <p>
+ * Os erros saem na mesma ordem do analisador: as verificações feitas antes de visitar os filhos
+ * ({@code F}, {@code Declaration}, {@code Assignment}) reservam a sua posição na entrada da regra.
+ * A única diferença é que em {@code Assignment} o tipo da expressão é o já sintetizado pelo filho,
+ * e não o que o nó tinha antes da análise.
+ * Com um {@link TreeBuilderListener}, o {@link SemanticInfo} calculado também é gravado nos nós;
+ * nesse caso este listener deve vir antes dele ({@code semantic.andThen(builder)}).
+ */
+public class SemanticListener implements ParseListener {
+
+    private static final Object TERMINAL = new Object();
+    private static final Object NO_INFO = new Object();
+
+    private static final class Frame {
+        String rule;
+        Token firstIdentifier;
+        Token firstKeyword;
+        Token firstNot;
+        Token firstBooleanLiteral;
+        Token firstTrue;
+        Token firstFalse;
+        // TERMINAL, NO_INFO ou o SemanticInfo de cada um dos primeiros filhos
+        final Object[] children = new Object[3];
+        int childCount;
+        int errorSlot;
+        SemanticInfo info;
+
+        void reset(String rule) {
+            this.rule = rule;
+            firstIdentifier = firstKeyword = firstNot = firstBooleanLiteral = firstTrue = firstFalse = null;
+            childCount = 0;
+            errorSlot = -1;
+            info = null;
+        }
+
+        void addChild(Object child) {
+            if (childCount < children.length) {
+                children[childCount] = child;
+            }
+            childCount++;
+        }
+
+        // Equivalente a getChild(index, NonTerminalNode.class).getSemanticInfo(), null se não houver
+        SemanticInfo childInfo(int index) {
+            if (index >= Math.min(childCount, children.length) || children[index] == TERMINAL || children[index] == NO_INFO) {
+                return null;
+            }
+            return (SemanticInfo) children[index];
+        }
+
+        boolean isNonTerminalChild(int index) {
+            return index < Math.min(childCount, children.length) && children[index] != TERMINAL;
+        }
+
+        void merge(Frame child) {
+            if (firstIdentifier == null) firstIdentifier = child.firstIdentifier;
+            if (firstKeyword == null) firstKeyword = child.firstKeyword;
+            if (firstNot == null) firstNot = child.firstNot;
+            if (firstBooleanLiteral == null) firstBooleanLiteral = child.firstBooleanLiteral;
+            if (firstTrue == null) firstTrue = child.firstTrue;
+            if (firstFalse == null) firstFalse = child.firstFalse;
+        }
+    }
+
+    private final SymbolTable symbolTable;
+    private final TreeBuilderListener tree;
+    private final List<SemanticError> errors = new ArrayList<>();
+    private final List<Frame> frames = new ArrayList<>();
+    private int depth = 0;
+    private SemanticInfo rootInfo;
+
+    public SemanticListener(SymbolTable symbolTable) {
+        this(symbolTable, null);
+    }
+
+    public SemanticListener(SymbolTable symbolTable, TreeBuilderListener tree) {
+        this.symbolTable = symbolTable;
+        this.tree = tree;
+    }
+
+    @Override
+    public void enterRule(String rule) {
+        if (depth == frames.size()) {
+            frames.add(new Frame());
+        }
+        Frame frame = frames.get(depth++);
+        frame.reset(rule);
+        if (rule.equals("F") || rule.equals("Declaration") || rule.equals("Assignment")) {
+            frame.errorSlot = errors.size();
+            errors.add(null);
+        }
+    }
+
+    @Override
+    public void terminal(Token token) {
+        Frame frame = frames.get(depth - 1);
+        frame.addChild(TERMINAL);
+        TokenType type = token.getType();
+        if (type == TokenType.IDENTIFIER) {
+            if (frame.firstIdentifier == null) frame.firstIdentifier = token;
+        } else if (type == TokenType.KEYWORD) {
+            if (frame.firstKeyword == null) frame.firstKeyword = token;
+            String lexeme = token.getLexeme();
+            if (frame.firstNot == null && lexeme.equalsIgnoreCase("NOT")) frame.firstNot = token;
+            if (frame.firstTrue == null && lexeme.equalsIgnoreCase("true")) frame.firstTrue = token;
+            if (frame.firstFalse == null && lexeme.equalsIgnoreCase("false")) frame.firstFalse = token;
+        } else if (type == TokenType.BOOLEAN_LITERAL) {
+            if (frame.firstBooleanLiteral == null) frame.firstBooleanLiteral = token;
+        }
+    }
+
+    @Override
+    public void epsilon() {
+        frames.get(depth - 1).addChild(TERMINAL);
+    }
+
+    @Override
+    public void exitRule(String rule) {
+        Frame frame = frames.get(--depth);
+        beforeChildren(frame);
+        afterChildren(frame);
+
+        if (tree != null && frame.info != null) {
+            tree.current().setSemanticInfo(frame.info);
+        }
+        if (depth > 0) {
+            Frame parent = frames.get(depth - 1);
+            parent.addChild(frame.info == null ? NO_INFO : frame.info);
+            parent.merge(frame);
+        } else {
+            rootInfo = frame.info;
+        }
+    }
+
+    // Verificações que o analisador faz ao chegar no nó, antes dos filhos
+    private void beforeChildren(Frame frame) {
+        switch (frame.rule) {
+            case "Declaration" -> {
+                Token type = frame.firstKeyword;
+                Token id = frame.firstIdentifier;
+                if (type != null && id != null) {
+                    if (!symbolTable.declare(id.getLexeme(), type.getLexeme(), id.getLine(), id.getColumn())) {
+                        reportError(frame.errorSlot, "Variável já declarada no escopo atual: " + id.getLexeme(), id);
+                    } else {
+                        frame.info = new SemanticInfo(type.getLexeme(), true, false, false);
+                    }
+                }
+            }
+            case "Assignment" -> {
+                Token id = frame.firstIdentifier;
+                if (id != null) {
+                    int binding = symbolTable.lookup(id.getLexeme());
+                    if (binding == SymbolTable.UNDECLARED) {
+                        reportError(frame.errorSlot, "Variável não declarada na atribuição: " + id.getLexeme(), id);
+                    } else {
+                        String declaredType = symbolTable.typeOf(binding);
+                        SemanticInfo expression = frame.childInfo(2);
+                        if (expression != null) {
+                            if (!declaredType.equals(expression.getType())) {
+                                reportError(frame.errorSlot, "Tipo incompatível na atribuição. Esperado: " + declaredType +
+                                        ", encontrado: " + expression.getType(), id);
+                            } else {
+                                frame.info = new SemanticInfo(declaredType, false, false, true);
+                            }
+                        }
+                    }
+                }
+            }
+            case "F" -> {
+                Token id = frame.firstIdentifier;
+                if (id != null) {
+                    int binding = symbolTable.lookup(id.getLexeme());
+                    if (binding == SymbolTable.UNDECLARED) {
+                        reportError(frame.errorSlot, "Uso de identificador não declarado: " + id.getLexeme(), id);
+                    } else {
+                        frame.info = new SemanticInfo(symbolTable.typeOf(binding), false, true, false);
+                    }
+                } else if (frame.firstBooleanLiteral != null) {
+                    frame.info = new SemanticInfo("boolean", false, false, false);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    // Verificações de expressão booleana, feitas depois dos filhos
+    private void afterChildren(Frame frame) {
+        switch (frame.rule) {
+            case "E", "T" -> {
+                SemanticInfo left = frame.childInfo(0);
+                if (!frame.isNonTerminalChild(0) || left == null) {
+                    return;
+                }
+                if (!"boolean".equals(left.getType())) {
+                    if (frame.firstKeyword != null) {
+                        reportError(-1, "Operação lógica espera operandos booleanos", frame.firstKeyword);
+                    }
+                    return;
+                }
+                frame.info = new SemanticInfo("boolean", false, false, false);
+            }
+            case "F" -> {
+                if (frame.firstNot != null) {
+                    SemanticInfo expression = frame.childInfo(1);
+                    if (expression != null) {
+                        if (!"boolean".equals(expression.getType())) {
+                            reportError(-1, "Operador NOT espera expressão booleana", frame.firstNot);
+                        } else {
+                            frame.info = new SemanticInfo("boolean", false, false, false);
+                        }
+                    }
+                } else if (frame.info == null) {
+                    Token fallback = frame.firstIdentifier;
+                    if (fallback == null) {
+                        fallback = frame.firstFalse != null ? frame.firstFalse : frame.firstTrue;
+                    }
+                    if (fallback != null) {
+                        reportError(-1, "Expressão F inválida ou não reconhecida", fallback);
+                    }
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    // Com 'slot' >= 0 o erro ocupa a posição reservada na entrada da regra
+    private void reportError(int slot, String message, Token token) {
+        SemanticError error = new SemanticError(
+                "Erro semântico na linha " + token.getLine() + ", coluna " + token.getColumn() + ": " + message, token);
+        if (slot >= 0) {
+            errors.set(slot, error);
+        } else {
+            errors.add(error);
+        }
+    }
+
+    public List<String> getErrors() {
+        return errors.stream().filter(Objects::nonNull).map(SemanticError::getMessage).toList();
+    }
+
+    /**
+     * Os mesmos erros de {@link #getErrors()}, com a posição do token de cada um.
+     */
+    public List<SemanticError> getSemanticErrors() {
+        return errors.stream().filter(Objects::nonNull).toList();
+    }
+
+    public boolean hasErrors() {
+        return errors.stream().anyMatch(Objects::nonNull);
+    }
+
+    /**
+     * Informação semântica da regra inicial, ou null se não foi possível determiná-la.
+     */
+    public SemanticInfo getRootInfo() {
+        return rootInfo;
+    }
+}
@@ -1,46 +1,144 @@
 package com.pedrik.recognizer.service.semantic;
 
-import com.pedrik.recognizer.service.lexical.Token;
-
-import java.util.*;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
+/**
+ * Tabela de símbolos com escopos aninhados.
+ * <p>
+ * Cada nome é internado num id inteiro e {@code innermost[id]} aponta para a declaração visível
+ * mais interna, então uma consulta é um acesso a array em qualquer profundidade. As declarações
+ * ficam numa pilha que também serve de log de desfazer: cada uma guarda a declaração que ela
+ * esconde, e {@link #exitScope()} desempilha as do escopo restaurando as anteriores. Entrar e sair
+ * de escopos não aloca nada.
+ * <p>
+ * Um {@link Environment} opcional funciona como escopo mais externo: ao internar um nome ele é
+ * procurado no ambiente uma vez e, se existir, {@code innermost[id]} começa apontando para ele
+ * (codificado como {@code -2 - índice}), então as variáveis do ambiente também custam um acesso a array.
+ */
 public class SymbolTable {
 
-    private final Deque<Map<String, SemanticInfo>> scopes = new ArrayDeque<>();
+    public static final int UNDECLARED = -1;
+
+    private final Environment environment;
+    private final Map<String, Integer> ids = new HashMap<>();
+    private int[] innermost = new int[16];
+
+    // Pilha de declarações: id do nome, tipo, escopo e a declaração escondida por ela
+    private int[] bindingIds = new int[16];
+    private String[] bindingTypes = new String[16];
+    private int[] bindingScopes = new int[16];
+    private int[] shadowed = new int[16];
+    private int bindings = 0;
+
+    // Início de cada escopo aberto na pilha de declarações
+    private int[] scopeStarts = new int[8];
+    private int depth = 0;
 
     public SymbolTable() {
+        this(Environment.EMPTY);
+    }
+
+    public SymbolTable(Environment environment) {
+        this.environment = environment;
         enterScope(); // escopo global
     }
 
+    private int environmentBinding(String name) {
+        int index = environment.indexOf(name);
+        return index < 0 ? UNDECLARED : -2 - index;
+    }
+
+    /**
+     * Id do nome, criado na primeira vez.
+     */
+    public int intern(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        int next = ids.size();
+        ids.put(name, next);
+        if (next == innermost.length) {
+            innermost = Arrays.copyOf(innermost, next * 2);
+        }
+        innermost[next] = environmentBinding(name);
+        return next;
+    }
+
     public void enterScope() {
-        scopes.push(new HashMap<>());
+        if (depth == scopeStarts.length) {
+            scopeStarts = Arrays.copyOf(scopeStarts, depth * 2);
+        }
+        scopeStarts[depth++] = bindings;
     }
 
     public void exitScope() {
-        if (!scopes.isEmpty()) {
-            scopes.pop();
+        if (depth == 0) {
+            return;
+        }
+        int start = scopeStarts[--depth];
+        while (bindings > start) {
+            bindings--;
+            innermost[bindingIds[bindings]] = shadowed[bindings];
+            bindingTypes[bindings] = null;
         }
     }
 
     public boolean declare(String name, String type, int line, int column) {
-        Map<String, SemanticInfo> currentScope = scopes.peek();
-        if (currentScope.containsKey(name)) {
+        return declare(intern(name), type);
+    }
+
+    /**
+     * Declara o nome internado no escopo atual; retorna false se ele já foi declarado nesse escopo.
+     */
+    public boolean declare(int id, String type) {
+        int current = innermost[id];
+        if (current >= 0 && bindingScopes[current] == depth) {
             return false; // já declarado neste escopo
         }
-        currentScope.put(name, new SemanticInfo(type, true, false, false));
+        if (bindings == bindingIds.length) {
+            int capacity = bindings * 2;
+            bindingIds = Arrays.copyOf(bindingIds, capacity);
+            bindingTypes = Arrays.copyOf(bindingTypes, capacity);
+            bindingScopes = Arrays.copyOf(bindingScopes, capacity);
+            shadowed = Arrays.copyOf(shadowed, capacity);
+        }
+        bindingIds[bindings] = id;
+        bindingTypes[bindings] = type;
+        bindingScopes[bindings] = depth;
+        shadowed[bindings] = current;
+        innermost[id] = bindings++;
         return true;
     }
 
+    /**
+     * Declaração visível do nome, para consultar com {@link #typeOf(int)}, ou {@link #UNDECLARED}.
+     * Resolve a existência e o tipo com uma única busca.
+     */
+    public int lookup(String name) {
+        Integer id = ids.get(name);
+        return id == null ? environmentBinding(name) : innermost[id];
+    }
+
+    /**
+     * Declaração visível do nome internado, ou {@link #UNDECLARED}.
+     */
+    public int lookup(int id) {
+        return innermost[id];
+    }
+
+    public String typeOf(int binding) {
+        return binding >= 0 ? bindingTypes[binding] : environment.typeAt(-2 - binding);
+    }
+
     public boolean isDeclared(String name) {
-        return scopes.stream().anyMatch(scope -> scope.containsKey(name));
+        return lookup(name) != UNDECLARED;
     }
 
     public String getType(String name) {
-        for (Map<String, SemanticInfo> scope : scopes) {
-            if (scope.containsKey(name)) {
-                return scope.get(name).getType();
-            }
-        }
-        return null;
+        int binding = lookup(name);
+        return binding == UNDECLARED ? null : typeOf(binding);
     }
 }
@@ -0,0 +1,77 @@
+package com.pedrik.recognizer.service.lexical;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link CharSkipper} com a Vector API ({@code jdk.incubator.vector}): classifica de 8 a 32
+ * caracteres por passo, conforme a largura de vetor da máquina. Só acelera entradas
+ * {@link CharArraySequence}; para as demais, e no resto que não completa um vetor,
+ * usa o {@link ScalarCharSkipper}.
+ * Exige {@code --add-modules jdk.incubator.vector} na JVM; o {@link LexerEngine} cai para o
+ * modo escalar quando o módulo não está disponível.
+ */
+public final class VectorCharSkipper implements CharSkipper {
+
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+    private static final ScalarCharSkipper SCALAR = ScalarCharSkipper.INSTANCE;
+
+    @Override
+    public int skipSpaces(CharSequence input, int from, int to) {
+        if (!(input instanceof CharArraySequence sequence)) {
+            return SCALAR.skipSpaces(input, from, to);
+        }
+        char[] chars = sequence.array();
+        int i = from;
+        for (int bound = to - SPECIES.length(); i <= bound; i += SPECIES.length()) {
+            ShortVector v = ShortVector.fromCharArray(SPECIES, chars, i);
+            VectorMask<Short> space = v.eq((short) ' ')
+                    .or(v.eq((short) '\t'))
+                    .or(v.eq((short) '\r'))
+                    .or(v.eq((short) '\f'));
+            if (!space.allTrue()) {
+                return i + space.not().firstTrue();
+            }
+        }
+        return SCALAR.skipSpaces(input, i, to);
+    }
+
+    @Override
+    public int skipWordChars(CharSequence input, int from, int to) {
+        if (!(input instanceof CharArraySequence sequence)) {
+            return SCALAR.skipWordChars(input, from, to);
+        }
+        char[] chars = sequence.array();
+        int i = from;
+        for (int bound = to - SPECIES.length(); i <= bound; i += SPECIES.length()) {
+            ShortVector v = ShortVector.fromCharArray(SPECIES, chars, i);
+            // Comparações sem sinal: (c - '0') < 10 e ((c | 0x20) - 'a') < 26
+            VectorMask<Short> word = v.sub((short) '0').compare(VectorOperators.UNSIGNED_LT, (short) 10)
+                    .or(v.or((short) 0x20).sub((short) 'a').compare(VectorOperators.UNSIGNED_LT, (short) 26))
+                    .or(v.eq((short) '_'));
+            if (!word.allTrue()) {
+                return i + word.not().firstTrue();
+            }
+        }
+        return SCALAR.skipWordChars(input, i, to);
+    }
+
+    @Override
+    public int indexOfEither(CharSequence input, int from, int to, char a, char b) {
+        if (!(input instanceof CharArraySequence sequence)) {
+            return SCALAR.indexOfEither(input, from, to, a, b);
+        }
+        char[] chars = sequence.array();
+        int i = from;
+        for (int bound = to - SPECIES.length(); i <= bound; i += SPECIES.length()) {
+            ShortVector v = ShortVector.fromCharArray(SPECIES, chars, i);
+            VectorMask<Short> found = v.eq((short) a).or(v.eq((short) b));
+            if (found.anyTrue()) {
+                return i + found.firstTrue();
+            }
+        }
+        return SCALAR.indexOfEither(input, i, to, a, b);
+    }
+}
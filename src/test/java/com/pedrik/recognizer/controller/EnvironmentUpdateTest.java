@@ -0,0 +1,50 @@
+package com.pedrik.recognizer.controller;
+
+import com.pedrik.recognizer.controller.dto.EnvironmentDto;
+import com.pedrik.recognizer.controller.dto.EnvironmentResponseDto;
+import com.pedrik.recognizer.controller.dto.InstructionDto;
+import com.pedrik.recognizer.controller.dto.ParseResponseDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"recognizer.environment.updates-enabled=true", "recognizer.semantic.check-environment=true"})
+public class EnvironmentUpdateTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    private ResponseEntity<EnvironmentResponseDto> update(Map<String, String> variables, boolean replace) {
+        EnvironmentDto dto = new EnvironmentDto();
+        dto.setVariables(variables);
+        dto.setReplace(replace);
+        return restTemplate.postForEntity("/environment", dto, EnvironmentResponseDto.class);
+    }
+
+    @Test
+    public void testRejectsEmptyUpdates() {
+        assertEquals(HttpStatus.BAD_REQUEST, update(Map.of(), true).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, update(null, false).getStatusCode());
+    }
+
+    @Test
+    public void testDefinedVariableIsKnown() {
+        ResponseEntity<EnvironmentResponseDto> response = update(Map.of("altura", "boolean"), false);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertNull(response.getBody().getErrorMessage());
+
+        InstructionDto dto = new InstructionDto();
+        dto.setInstruction("velocidade AND altura");
+        ParseResponseDto verified = restTemplate.postForEntity("/verify", dto, ParseResponseDto.class).getBody();
+        assertNotNull(verified);
+        assertTrue(verified.isValid());
+    }
+}
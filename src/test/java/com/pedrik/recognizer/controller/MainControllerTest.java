@@ -1,5 +1,7 @@
 package com.pedrik.recognizer.controller;
 
+import com.pedrik.recognizer.controller.dto.EnvironmentDto;
+import com.pedrik.recognizer.controller.dto.EnvironmentResponseDto;
 import com.pedrik.recognizer.controller.dto.InstructionDto;
 import com.pedrik.recognizer.controller.dto.ParseResponseDto;
 import org.junit.jupiter.api.Test;
@@ -8,6 +10,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.http.*;
 
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -57,4 +61,34 @@ public class MainControllerTest {
         assertNotNull(response.getBody());
         assertFalse(response.getBody().isValid());
     }
+
+    @Test
+    public void testUnknownGrammarIsNotFound() {
+        InstructionDto dto = new InstructionDto();
+        dto.setInstruction("id AND id");
+        dto.setGrammarId("0".repeat(64));
+
+        ResponseEntity<ParseResponseDto> response = restTemplate.postForEntity(
+                "/verify",
+                dto,
+                ParseResponseDto.class
+        );
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertFalse(response.getBody().isValid());
+    }
+
+    @Test
+    public void testEnvironmentUpdatesDisabledByDefault() {
+        EnvironmentDto dto = new EnvironmentDto();
+        dto.setVariables(Map.of("altura", "boolean"));
+
+        ResponseEntity<EnvironmentResponseDto> response = restTemplate.postForEntity(
+                "/environment",
+                dto,
+                EnvironmentResponseDto.class
+        );
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+    }
 }
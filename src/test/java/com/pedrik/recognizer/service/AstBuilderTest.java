@@ -0,0 +1,72 @@
+package com.pedrik.recognizer.service;
+
+import com.pedrik.recognizer.service.analytic.AstBuilderListener;
+import com.pedrik.recognizer.service.analytic.ParsingTable;
+import com.pedrik.recognizer.service.analytic.TableDrivenParser;
+import com.pedrik.recognizer.service.analytic.TreeBuilderListener;
+import com.pedrik.recognizer.service.analytic.ast.And;
+import com.pedrik.recognizer.service.analytic.ast.AstNode;
+import com.pedrik.recognizer.service.analytic.ast.Not;
+import com.pedrik.recognizer.service.analytic.ast.Or;
+import com.pedrik.recognizer.service.analytic.ast.Var;
+import com.pedrik.recognizer.service.lexical.DfaLexer;
+import com.pedrik.recognizer.service.lexical.LexerTokenStream;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AstBuilderTest {
+
+    private static final ParsingTable TABLE = ParsingTable.booleanExpressions();
+
+    private static AstNode ast(String input) {
+        return new TableDrivenParser(TABLE, new LexerTokenStream(new DfaLexer(input))).parseAst();
+    }
+
+    @Test
+    void testFoldsChains() {
+        assertEquals("a", ast("a").toString());
+        assertEquals("Or(a, b, c, d)", ast("a OR b OR c OR d").toString());
+        assertEquals("Or(And(a, b, c), d)", ast("a AND b AND c OR d").toString());
+        assertEquals("And(Or(a, b), c, d)", ast("a OR b AND c AND d").toString());
+        assertEquals("Or(And(Or(a, b), c), d)", ast("a OR b AND c OR d").toString());
+        assertEquals("Or(a, And(b, c), d)", ast("a OR (b AND c) OR d").toString());
+        assertEquals("And(Not(a), Not(Or(b, c)))", ast("NOT a AND NOT (b OR c)").toString());
+        assertEquals("x", ast("((x))").toString());
+    }
+
+    @Test
+    void testSpans() {
+        String input = "velocidade AND NOT (caindo OR subindo)";
+        AstNode root = ast(input);
+        assertEquals(0, root.getStart());
+        assertEquals(input.length() - 1, root.getEnd()); // parênteses não fazem parte do trecho
+
+        Not not = (Not) ((And) root).getOperands().get(1);
+        assertEquals("NOT (caindo OR subindo", input.substring((int) not.getStart(), (int) not.getEnd()));
+        Var var = (Var) ((Or) not.getOperand()).getOperands().get(1);
+        assertEquals("subindo", input.substring((int) var.getStart(), (int) var.getEnd()));
+    }
+
+    @Test
+    void testFewerNodesThanConcreteTree() {
+        String input = "a" + " OR a".repeat(999);
+        TreeBuilderListener concrete = new TreeBuilderListener();
+        AstBuilderListener abstractTree = new AstBuilderListener();
+        new TableDrivenParser(TABLE, new LexerTokenStream(new DfaLexer(input))).parse(concrete.andThen(abstractTree));
+
+        assertEquals(1001, abstractTree.getRoot().size());
+        assertEquals(1000, ((Or) abstractTree.getRoot()).getOperands().size());
+        StringBuilder log = new StringBuilder();
+        TableDrivenParser parser = new TableDrivenParser(TABLE, new LexerTokenStream(new DfaLexer(input)));
+        parser.setLogger(log);
+        parser.parse();
+        assertTrue(log.toString().split("\n").length > 4 * 1000);
+    }
+
+    @Test
+    void testSyntaxErrorStillThrows() {
+        assertThrows(RuntimeException.class, () -> ast("a AND"));
+        assertThrows(RuntimeException.class, () -> ast("NOT NOT a"));
+    }
+}
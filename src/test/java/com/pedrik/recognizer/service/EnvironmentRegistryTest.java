@@ -0,0 +1,84 @@
+package com.pedrik.recognizer.service;
+
+import com.pedrik.recognizer.service.analytic.ParsingTable;
+import com.pedrik.recognizer.service.analytic.TableDrivenParser;
+import com.pedrik.recognizer.service.lexical.Lexer;
+import com.pedrik.recognizer.service.semantic.Environment;
+import com.pedrik.recognizer.service.semantic.EnvironmentRegistry;
+import com.pedrik.recognizer.service.semantic.SemanticListener;
+import com.pedrik.recognizer.service.semantic.SymbolTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EnvironmentRegistryTest {
+
+    private static List<String> errors(Environment environment, String input) {
+        SemanticListener semantic = new SemanticListener(new SymbolTable(environment));
+        new TableDrivenParser(ParsingTable.booleanExpressions(), new Lexer(input).tokenize()).parse(semantic);
+        return semantic.getErrors();
+    }
+
+    @Test
+    void testLoadsDefaultResource() {
+        EnvironmentRegistry registry = new EnvironmentRegistry(EnvironmentRegistry.DEFAULT_LOCATION);
+        Environment environment = registry.snapshot();
+        assertEquals("boolean", environment.getType("velocidade"));
+        assertTrue(errors(environment, "velocidade AND NOT (caindo OR subindo)").isEmpty());
+        assertFalse(errors(environment, "velocidade AND altura").isEmpty());
+    }
+
+    @Test
+    void testMissingResourceStartsEmpty() {
+        EnvironmentRegistry registry = new EnvironmentRegistry("classpath:nao-existe.properties");
+        assertEquals(0, registry.snapshot().size());
+    }
+
+    @Test
+    void testSnapshotsAreCopyOnWrite() {
+        EnvironmentRegistry registry = new EnvironmentRegistry();
+        Environment first = registry.define(Map.of("a", "boolean"));
+        Environment second = registry.define(Map.of("b", "int"));
+
+        assertEquals(first.getVersion() + 1, second.getVersion());
+        assertNull(first.getType("b"));
+        assertEquals("boolean", second.getType("a"));
+        assertEquals("int", second.getType("b"));
+
+        Environment third = registry.remove(List.of("a"));
+        assertNull(third.getType("a"));
+        assertEquals("boolean", second.getType("a"));
+
+        Environment replaced = registry.replace(Map.of("c", "boolean"));
+        assertEquals(1, replaced.size());
+        assertSame(replaced, registry.snapshot());
+    }
+
+    @Test
+    void testLocalDeclarationsShadowEnvironment() {
+        Map<String, String> variables = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            variables.put("v" + i, "boolean");
+        }
+        variables.put("x", "int");
+        Environment environment = new EnvironmentRegistry().replace(variables);
+
+        SymbolTable table = new SymbolTable(environment);
+        assertEquals("boolean", table.getType("v19999"));
+        assertEquals("int", table.getType("x"));
+        assertTrue(table.declare("x", "boolean", 1, 1)); // o global pode esconder o ambiente
+        assertEquals("boolean", table.getType("x"));
+
+        table.enterScope();
+        assertTrue(table.declare("x", "string", 1, 1));
+        assertEquals("string", table.getType("x"));
+        table.exitScope();
+        table.exitScope();
+        assertEquals("int", table.getType("x"));
+        assertEquals("int", table.typeOf(table.lookup(table.intern("x"))));
+    }
+}
@@ -0,0 +1,80 @@
+package com.pedrik.recognizer.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FirstFollowDifferentialTest {
+
+    private static final String[] TERMINALS = {"a", "b", "c", "(", ")", "$", "ε"};
+
+    private static Map<String, List<List<String>>> randomGrammar(Random random, int nonTerminals, int maxAlternatives) {
+        Map<String, List<List<String>>> grammar = new LinkedHashMap<>();
+        for (int i = 0; i < nonTerminals; i++) {
+            List<List<String>> alternatives = new ArrayList<>();
+            int count = 1 + random.nextInt(maxAlternatives);
+            for (int j = 0; j < count; j++) {
+                List<String> production = new ArrayList<>();
+                int length = random.nextInt(5);
+                for (int k = 0; k < length; k++) {
+                    production.add(random.nextInt(2) == 0
+                            ? "N" + random.nextInt(nonTerminals)
+                            : TERMINALS[random.nextInt(TERMINALS.length)]);
+                }
+                alternatives.add(production);
+            }
+            grammar.put("N" + i, alternatives);
+        }
+        return grammar;
+    }
+
+    private static void assertSameSets(Map<String, List<List<String>>> grammar) {
+        FirstFollowCalculator expected = new FirstFollowCalculator("N0", grammar);
+        expected.computeFirst();
+        expected.computeFollow();
+
+        BitsetFirstFollowCalculator actual = new BitsetFirstFollowCalculator("N0", grammar);
+        actual.computeFirst();
+        actual.computeFollow();
+
+        assertEquals(expected.getFirst(), actual.getFirst(), "FIRST divergente para: " + grammar);
+        assertEquals(expected.getFollow(), actual.getFollow(), "FOLLOW divergente para: " + grammar);
+    }
+
+    @Test
+    void testBooleanExpressionGrammar() {
+        Map<String, List<List<String>>> grammar = new LinkedHashMap<>();
+        grammar.put("N0", List.of(List.of("T", "E'")));
+        grammar.put("E'", List.of(List.of("AND", "T", "E'"), List.of("OR", "T", "E'"), List.of("ε")));
+        grammar.put("T", List.of(List.of("NOT", "F"), List.of("F")));
+        grammar.put("F", List.of(List.of("(", "N0", ")"), List.of("id")));
+        assertSameSets(grammar);
+    }
+
+    @Test
+    void testRandomGrammars() {
+        Random random = new Random(2024L);
+        for (int i = 0; i < 2000; i++) {
+            assertSameSets(randomGrammar(random, 1 + random.nextInt(8), 3));
+        }
+    }
+
+    @Test
+    void testLargeGrammars() {
+        Random random = new Random(3L);
+        for (int i = 0; i < 5; i++) {
+            // Mais de 64 terminais para ocupar vários words por conjunto
+            Map<String, List<List<String>>> grammar = randomGrammar(random, 300, 6);
+            for (int t = 0; t < 100; t++) {
+                grammar.get("N" + random.nextInt(300)).add(List.of("t" + t, "N" + random.nextInt(300)));
+            }
+            assertSameSets(grammar);
+        }
+    }
+}
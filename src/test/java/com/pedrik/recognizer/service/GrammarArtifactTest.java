@@ -0,0 +1,132 @@
+package com.pedrik.recognizer.service;
+
+import com.pedrik.recognizer.service.analytic.BooleanExpressionGrammar;
+import com.pedrik.recognizer.service.analytic.GrammarArtifact;
+import com.pedrik.recognizer.service.analytic.GrammarRegistry;
+import com.pedrik.recognizer.service.analytic.ParsingTable;
+import com.pedrik.recognizer.service.lexical.TokenType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GrammarArtifactTest {
+
+    @TempDir
+    Path dir;
+
+    private static Map<String, List<List<String>>> assignments() {
+        Map<String, List<List<String>>> grammar = new LinkedHashMap<>();
+        grammar.put("S", List.of(List.of("id", "=", "V", ";"), List.of("(", "S", ")")));
+        grammar.put("V", List.of(List.of("id"), List.of("123"), List.of("ε")));
+        return grammar;
+    }
+
+    private static void assertSameTable(ParsingTable expected, ParsingTable actual) {
+        assertEquals(expected.terminalCount(), actual.terminalCount());
+        assertEquals(expected.nonTerminalCount(), actual.nonTerminalCount());
+        assertEquals(expected.start(), actual.start());
+        for (int nt = 0; nt < expected.nonTerminalCount(); nt++) {
+            assertEquals(expected.nonTerminalName(nt), actual.nonTerminalName(nt));
+            assertEquals(expected.epsilonProduction(nt), actual.epsilonProduction(nt));
+            assertEquals(expected.isNullable(nt), actual.isNullable(nt));
+            for (int t = 0; t < expected.terminalCount(); t++) {
+                assertEquals(expected.terminalName(t), actual.terminalName(t));
+                assertEquals(expected.production(nt, t), actual.production(nt, t));
+                assertEquals(expected.inFirst(nt, t), actual.inFirst(nt, t));
+                assertEquals(expected.inFollow(nt, t), actual.inFollow(nt, t));
+            }
+        }
+        for (int p = 0; p < expected.productionCount(); p++) {
+            assertEquals(expected.lhs(p), actual.lhs(p));
+            assertArrayEquals(expected.rhs(p), actual.rhs(p));
+        }
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        ParsingTable table = ParsingTable.build("S", assignments());
+        Path file = dir.resolve("gramatica" + GrammarArtifact.EXTENSION);
+        new GrammarArtifact("abc", "S", assignments(), table).write(file);
+
+        GrammarArtifact loaded = GrammarArtifact.read(file);
+        assertEquals("abc", loaded.getGrammarId());
+        assertEquals("S", loaded.getStartSymbol());
+        assertEquals(assignments(), loaded.getGrammar());
+        assertSameTable(table, loaded.getTable());
+        assertTrue(loaded.getTable().inFollow(1, loaded.getTable().terminalOf(
+                TokenType.DELIMITER, ";")));
+    }
+
+    @Test
+    void testCorruptedArtifactIsRejected() throws IOException {
+        Path file = dir.resolve("bool" + GrammarArtifact.EXTENSION);
+        new GrammarArtifact("bool", BooleanExpressionGrammar.START, BooleanExpressionGrammar.grammar(),
+                ParsingTable.booleanExpressions()).write(file);
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 3] ^= 0x10;
+        Files.write(file, bytes);
+        assertTrue(assertThrows(IOException.class, () -> GrammarArtifact.read(file)).getMessage().contains("Checksum"));
+
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+        assertThrows(IOException.class, () -> GrammarArtifact.read(file));
+    }
+
+    @Test
+    void testRegistryReloadsArtifactsOnStartup() throws IOException {
+        GrammarRegistry first = new GrammarRegistry(8, dir.toString());
+        String id = first.register("S", assignments());
+        assertEquals(1, first.getCompilations());
+        assertTrue(Files.exists(dir.resolve(id + GrammarArtifact.EXTENSION)));
+
+        GrammarRegistry restarted = new GrammarRegistry(8, dir.toString());
+        // Nada é lido na inicialização; o artefato só é mapeado no primeiro pedido
+        assertEquals(0, restarted.getArtifactLoads());
+        assertTrue(restarted.isRegistered(id));
+        assertSameTable(first.table(id), restarted.table(id));
+        assertEquals(0, restarted.getCompilations());
+        assertEquals(1, restarted.getArtifactLoads());
+    }
+
+    @Test
+    void testEvictedDefinitionIsReloadedFromArtifact() {
+        GrammarRegistry registry = new GrammarRegistry(1, 1, dir.toString());
+        String first = registry.register("S", assignments());
+        registry.register("V", assignments());
+        assertEquals(2, registry.getCompilations());
+
+        // Despejada das definições e das tabelas, mas o artefato continua no disco
+        assertTrue(registry.isRegistered(first));
+        assertNotNull(registry.table(first));
+        assertEquals(2, registry.getCompilations());
+        assertFalse(registry.isRegistered("../" + first));
+    }
+
+    @Test
+    void testStaleOrCorruptedArtifactsAreDiscarded() throws IOException {
+        String id = new GrammarRegistry(8, dir.toString()).register("S", assignments());
+        Path file = dir.resolve(id + GrammarArtifact.EXTENSION);
+
+        // Gramática diferente gravada sob o id antigo: o hash não confere mais
+        Map<String, List<List<String>>> changed = assignments();
+        changed.put("V", List.of(List.of("id")));
+        new GrammarArtifact(id, "S", changed, ParsingTable.build("S", changed)).write(file);
+        GrammarRegistry restarted = new GrammarRegistry(8, dir.toString());
+        assertFalse(restarted.isRegistered(id));
+        assertFalse(Files.exists(file));
+
+        assertEquals(id, restarted.register("S", assignments()));
+        assertEquals(1, restarted.getCompilations());
+        Files.write(file, new byte[]{1, 2, 3});
+        assertFalse(new GrammarRegistry(8, dir.toString()).isRegistered(id));
+    }
+}
@@ -0,0 +1,122 @@
+package com.pedrik.recognizer.service;
+
+import com.pedrik.recognizer.service.analytic.BooleanExpressionGrammar;
+import com.pedrik.recognizer.service.analytic.GrammarRegistry;
+import com.pedrik.recognizer.service.analytic.ParsingTable;
+import com.pedrik.recognizer.service.analytic.TableDrivenParser;
+import com.pedrik.recognizer.service.lexical.Lexer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GrammarRegistryTest {
+
+    private static Map<String, List<List<String>>> assignments() {
+        // S → id = V ; | ( S )    V → id | 123
+        Map<String, List<List<String>>> grammar = new LinkedHashMap<>();
+        grammar.put("S", List.of(List.of("id", "=", "V", ";"), List.of("(", "S", ")")));
+        grammar.put("V", List.of(List.of("id"), List.of("123")));
+        return grammar;
+    }
+
+    @Test
+    void testFingerprintIgnoresRuleAndAlternativeOrder() {
+        Map<String, List<List<String>>> reordered = new LinkedHashMap<>();
+        reordered.put("V", List.of(List.of("123"), List.of("id")));
+        reordered.put("S", List.of(List.of("(", "S", ")"), List.of("id", "=", "V", ";")));
+
+        assertEquals(GrammarRegistry.fingerprint("S", assignments()), GrammarRegistry.fingerprint("S", reordered));
+        assertNotEquals(GrammarRegistry.fingerprint("S", assignments()), GrammarRegistry.fingerprint("V", assignments()));
+        // O prefixo de tamanho evita que símbolos diferentes gerem o mesmo texto canônico
+        assertNotEquals(GrammarRegistry.fingerprint("S", Map.of("S", List.of(List.of("a b")))),
+                GrammarRegistry.fingerprint("S", Map.of("S", List.of(List.of("a", "b")))));
+    }
+
+    @Test
+    void testCompilesOncePerGrammar() {
+        GrammarRegistry registry = new GrammarRegistry(4);
+        String id = registry.register("S", assignments());
+        assertEquals(id, registry.register("S", assignments()));
+        ParsingTable table = registry.table(id);
+        assertSame(table, registry.table(id));
+        assertEquals(1, registry.getCompilations());
+
+        assertDoesNotThrow(() -> new TableDrivenParser(table, new Lexer("((x = 123;))").tokenize()).parse());
+        assertThrows(RuntimeException.class, () -> new TableDrivenParser(table, new Lexer("x = ;").tokenize()).parse());
+    }
+
+    @Test
+    void testEvictedGrammarIsRecompiled() {
+        GrammarRegistry registry = new GrammarRegistry(1);
+        String first = registry.register("S", assignments());
+        String second = registry.register("V", assignments());
+        assertEquals(2, registry.getCompilations());
+
+        assertNotNull(registry.table(first));
+        assertEquals(3, registry.getCompilations());
+        assertNotNull(registry.table(second));
+        assertEquals(4, registry.getCompilations());
+    }
+
+    @Test
+    void testConcurrentRequestsCompileOnce() throws Exception {
+        GrammarRegistry registry = new GrammarRegistry(4);
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> ids = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                ids.add(executor.submit(() -> {
+                    start.await();
+                    return registry.register("S", assignments());
+                }));
+            }
+            start.countDown();
+            for (Future<String> id : ids) {
+                assertEquals(GrammarRegistry.fingerprint("S", assignments()), id.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, registry.getCompilations());
+    }
+
+    @Test
+    void testDefinitionsAreBounded() {
+        GrammarRegistry registry = new GrammarRegistry(4, 1, null);
+        String first = registry.register("S", assignments());
+        String second = registry.register("V", assignments());
+
+        assertFalse(registry.isRegistered(first));
+        assertTrue(registry.isRegistered(second));
+        assertTrue(registry.isRegistered(registry.getDefaultId()));
+        assertSame(ParsingTable.booleanExpressions(), registry.table(null));
+        // Despejada das definições, só volta registrando de novo
+        assertEquals(first, registry.register("S", assignments()));
+        assertTrue(registry.isRegistered(first));
+    }
+
+    @Test
+    void testDefaultAndInvalidGrammars() {
+        GrammarRegistry registry = new GrammarRegistry(GrammarRegistry.DEFAULT_CACHE_SIZE);
+        assertSame(ParsingTable.booleanExpressions(), registry.table(null));
+        assertEquals(registry.getDefaultId(), registry.register(BooleanExpressionGrammar.START, BooleanExpressionGrammar.grammar()));
+        assertEquals(0, registry.getCompilations());
+
+        assertThrows(IllegalArgumentException.class, () -> registry.table("desconhecida"));
+        assertThrows(IllegalArgumentException.class, () -> registry.register("S", Map.of("S", List.of(List.of("id"), List.of("id", "S")))));
+        assertThrows(IllegalArgumentException.class, () -> registry.register("X", assignments()));
+        // "$" é o marcador de fim da entrada
+        assertThrows(IllegalArgumentException.class, () -> registry.register("S", Map.of("S", List.of(List.of("id", "$")))));
+    }
+}
@@ -0,0 +1,175 @@
+package com.pedrik.recognizer.service;
+
+import com.pedrik.recognizer.service.analytic.IncrementalParser;
+import com.pedrik.recognizer.service.analytic.ParsingTable;
+import com.pedrik.recognizer.service.analytic.tree.Node;
+import com.pedrik.recognizer.service.analytic.tree.NonTerminalNode;
+import com.pedrik.recognizer.service.analytic.tree.TerminalNode;
+import com.pedrik.recognizer.service.lexical.TextEdit;
+import com.pedrik.recognizer.service.semantic.SemanticInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncrementalParserTest {
+
+    private static final IncrementalParser PARSER = new IncrementalParser(ParsingTable.booleanExpressions());
+
+    private static final String[] FRAGMENTS = {"a", "bb", "AND", "OR", "NOT", "(", ")", "12", " ", "x y", "\n"};
+
+    // Árvore com posição de cada token, para comparar com uma análise do zero
+    private static String describe(Node root) {
+        StringBuilder sb = new StringBuilder();
+        Deque<Node> pending = new ArrayDeque<>();
+        Deque<Integer> depths = new ArrayDeque<>();
+        pending.push(root);
+        depths.push(0);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            int depth = depths.pop();
+            sb.append("  ".repeat(depth));
+            if (node instanceof TerminalNode terminal) {
+                sb.append(terminal.getToken()).append(" @").append(terminal.getToken().getOffset()).append('\n');
+            } else {
+                NonTerminalNode nonTerminal = (NonTerminalNode) node;
+                sb.append(nonTerminal.getName()).append('\n');
+                List<Node> children = nonTerminal.getChildren();
+                for (int i = children.size() - 1; i >= 0; i--) {
+                    pending.push(children.get(i));
+                    depths.push(depth + 1);
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    @Test
+    void testReparsesOnlyEnclosingParentheses() {
+        String text = "a AND (b OR c) AND d";
+        IncrementalParser.Result previous = PARSER.parse(text);
+        NonTerminalNode root = (NonTerminalNode) previous.getRoot();
+        Node firstTerm = root.getChildren().get(0);
+        NonTerminalNode tail = (NonTerminalNode) root.getChildren().get(1);
+        SemanticInfo info = new SemanticInfo("boolean", false, true, false);
+        ((NonTerminalNode) firstTerm).setSemanticInfo(info);
+        tail.setSemanticInfo(info);
+
+        TextEdit edit = new TextEdit(text.indexOf('b'), 1, "velocidade");
+        IncrementalParser.Result result = PARSER.reparse(previous, edit);
+
+        assertTrue(result.isValid());
+        assertFalse(result.isFullReparse());
+        assertEquals("E", ((NonTerminalNode) result.getReparsed()).getName());
+        assertSame(root, result.getRoot());
+        assertSame(firstTerm, root.getChildren().get(0));
+        assertSame(info, ((NonTerminalNode) firstTerm).getSemanticInfo());
+        assertNull(tail.getSemanticInfo()); // ancestral do trecho reanalisado
+        assertEquals(describe(PARSER.parse(edit.apply(text)).getRoot()), describe(result.getRoot()));
+    }
+
+    @Test
+    void testReparsesOnlyEditedOperandOfFlatList() {
+        String text = "a OR b OR c OR d";
+        IncrementalParser.Result previous = PARSER.parse(text);
+        List<TerminalNode> identifiers = ((NonTerminalNode) previous.getRoot()).getAllIdentifiers();
+        NonTerminalNode lastTerm = identifiers.get(3).getParent().getParent();
+        SemanticInfo info = new SemanticInfo("boolean", false, true, false);
+        lastTerm.setSemanticInfo(info);
+
+        TextEdit edit = new TextEdit(text.indexOf('c'), 1, "velocidade");
+        IncrementalParser.Result result = PARSER.reparse(previous, edit);
+
+        assertTrue(result.isValid());
+        assertFalse(result.isFullReparse());
+        assertEquals("T", ((NonTerminalNode) result.getReparsed()).getName());
+        assertSame(lastTerm, ((NonTerminalNode) result.getRoot()).getAllIdentifiers().get(3).getParent().getParent());
+        assertSame(info, lastTerm.getSemanticInfo());
+        assertEquals(edit.apply(text).lastIndexOf('d'), identifiers.get(3).getToken().getOffset());
+        assertEquals(describe(PARSER.parse(edit.apply(text)).getRoot()), describe(result.getRoot()));
+    }
+
+    @Test
+    void testReparsesOperatorSuffixReusingFollowingOperands() {
+        String text = "a OR b OR c OR d";
+        IncrementalParser.Result previous = PARSER.parse(text);
+        List<TerminalNode> identifiers = ((NonTerminalNode) previous.getRoot()).getAllIdentifiers();
+        NonTerminalNode thirdTerm = identifiers.get(2).getParent().getParent();
+        SemanticInfo info = new SemanticInfo("boolean", false, true, false);
+        thirdTerm.setSemanticInfo(info);
+
+        int secondOr = text.indexOf("OR", text.indexOf('b'));
+        TextEdit edit = new TextEdit(secondOr, 2, "AND");
+        IncrementalParser.Result result = PARSER.reparse(previous, edit);
+
+        assertTrue(result.isValid());
+        assertFalse(result.isFullReparse());
+        NonTerminalNode reparsed = (NonTerminalNode) result.getReparsed();
+        assertEquals("E'", reparsed.getName());
+        assertSame(thirdTerm, reparsed.getChildren().get(1));
+        assertSame(info, thirdTerm.getSemanticInfo());
+        assertEquals(describe(PARSER.parse(edit.apply(text)).getRoot()), describe(result.getRoot()));
+    }
+
+    @Test
+    void testFallsBackToFullReparse() {
+        String text = "a AND (b OR c)";
+        IncrementalParser.Result outside = PARSER.reparse(PARSER.parse(text), new TextEdit(0, 1, "z"));
+        assertTrue(outside.isValid());
+        assertTrue(outside.isFullReparse());
+
+        IncrementalParser.Result broken = PARSER.reparse(PARSER.parse(text), new TextEdit(text.indexOf('c'), 1, ""));
+        assertFalse(broken.isValid());
+        assertTrue(broken.isFullReparse());
+
+        IncrementalParser.Result fixed = PARSER.reparse(broken, new TextEdit(text.indexOf('c'), 0, "d"));
+        assertTrue(fixed.isValid());
+    }
+
+    @Test
+    void testMatchesFullParseAfterRandomEdits() {
+        Random random = new Random(19L);
+        int partial = 0;
+        for (int i = 0; i < 500; i++) {
+            String text = "p AND (q OR (r AND NOT s)) OR (t)";
+            IncrementalParser.Result result = PARSER.parse(text);
+            for (int e = 0; e < 8; e++) {
+                int offset = random.nextInt(text.length() + 1);
+                int deleted = random.nextInt(Math.min(3, text.length() - offset) + 1);
+                String inserted = random.nextInt(3) == 0 ? "" : FRAGMENTS[random.nextInt(FRAGMENTS.length)];
+                TextEdit edit = new TextEdit(offset, deleted, inserted);
+                result = PARSER.reparse(result, edit);
+                text = edit.apply(text);
+
+                IncrementalParser.Result expected = PARSER.parse(text);
+                assertEquals(expected.isValid(), result.isValid(), "Validade divergente para: " + text);
+                if (expected.isValid()) {
+                    assertEquals(describe(expected.getRoot()), describe(result.getRoot()), "Árvore divergente para: " + text);
+                    if (!result.isFullReparse()) {
+                        partial++;
+                    }
+                }
+            }
+        }
+        assertTrue(partial > 0);
+    }
+
+    @Test
+    void testMultiLineEditRelocatesTokens() {
+        String text = "(a OR\nb) AND\nc";
+        TextEdit edit = new TextEdit(text.indexOf('b'), 0, "x OR\n");
+        IncrementalParser.Result result = PARSER.reparse(PARSER.parse(text), edit);
+        assertFalse(result.isFullReparse());
+
+        List<TerminalNode> identifiers = new ArrayList<>(((NonTerminalNode) result.getRoot()).getAllIdentifiers());
+        TerminalNode last = identifiers.get(identifiers.size() - 1);
+        assertEquals("c", last.getToken().getLexeme());
+        assertEquals(4, last.getToken().getLine());
+        assertEquals(edit.apply(text).indexOf('c'), last.getToken().getOffset());
+    }
+}
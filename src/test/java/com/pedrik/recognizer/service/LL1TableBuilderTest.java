@@ -0,0 +1,82 @@
+package com.pedrik.recognizer.service;
+
+import com.pedrik.recognizer.service.analytic.BooleanExpressionGrammar;
+import com.pedrik.recognizer.service.analytic.LL1Conflict;
+import com.pedrik.recognizer.service.analytic.LL1TableBuilder;
+import com.pedrik.recognizer.service.analytic.ParsingTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LL1TableBuilderTest {
+
+    private static LL1TableBuilder builder(String start, Map<String, List<List<String>>> grammar) {
+        BitsetFirstFollowCalculator calculator = new BitsetFirstFollowCalculator(start, grammar);
+        calculator.computeFirst();
+        calculator.computeFollow();
+        return new LL1TableBuilder(grammar, calculator.getFirst(), calculator.getFollow());
+    }
+
+    @Test
+    void testReportsEveryConflictingCell() {
+        // S → id | id S | id ( | A | ( id     A → ( | ε
+        Map<String, List<List<String>>> grammar = new LinkedHashMap<>();
+        grammar.put("S", List.of(List.of("id"), List.of("id", "S"), List.of("id", "("), List.of("A"), List.of("(", "id")));
+        grammar.put("A", List.of(List.of("("), List.of("ε")));
+
+        List<LL1Conflict> conflicts = builder("S", grammar).getConflicts();
+        assertEquals(2, conflicts.size());
+
+        LL1Conflict onId = conflicts.get(0);
+        assertEquals("S", onId.getNonTerminal());
+        assertEquals("id", onId.getTerminal());
+        assertEquals(3, onId.getProductions().size());
+        assertEquals("M[S, id]: S -> id | S -> id S | S -> id (", onId.toString());
+
+        assertEquals("M[S, (]: S -> A | S -> ( id", conflicts.get(1).toString());
+    }
+
+    @Test
+    void testCompiledTableInternsEqualProductions() {
+        // S → P Q    P → x    Q → x
+        Map<String, List<List<String>>> grammar = new LinkedHashMap<>();
+        grammar.put("S", List.of(List.of("P", "Q")));
+        grammar.put("P", List.of(List.of("x")));
+        grammar.put("Q", List.of(List.of("x")));
+        ParsingTable table = builder("S", grammar).compile("S");
+
+        int x = table.terminalIndexOf("x");
+        assertSame(table.rhs(table.production(1, x)), table.rhs(table.production(2, x)));
+    }
+
+    @Test
+    void testCompiledTableMatchesMapTable() {
+        LL1TableBuilder builder = builder(BooleanExpressionGrammar.START, BooleanExpressionGrammar.grammar());
+        assertTrue(builder.getConflicts().isEmpty());
+        ParsingTable table = builder.compile(BooleanExpressionGrammar.START);
+
+        for (int nt = 0; nt < table.nonTerminalCount(); nt++) {
+            Map<String, List<String>> row = builder.getTable().get(table.nonTerminalName(nt));
+            for (int t = 0; t < table.terminalCount(); t++) {
+                List<String> expected = row.get(table.terminalName(t));
+                int production = table.production(nt, t);
+                if (expected == null) {
+                    assertEquals(-1, production);
+                } else {
+                    assertEquals(nt, table.lhs(production));
+                    int[] rhs = table.rhs(production);
+                    List<String> symbols = expected.equals(List.of("ε")) ? List.of() : expected;
+                    assertEquals(symbols.size(), rhs.length);
+                    for (int i = 0; i < rhs.length; i++) {
+                        String name = ParsingTable.isNonTerminal(rhs[i]) ? table.nonTerminalName(~rhs[i]) : table.terminalName(rhs[i]);
+                        assertEquals(symbols.get(i), name);
+                    }
+                }
+            }
+        }
+    }
+}
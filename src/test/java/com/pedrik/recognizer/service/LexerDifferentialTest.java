@@ -0,0 +1,219 @@
+package com.pedrik.recognizer.service;
+
+import com.pedrik.recognizer.service.lexical.DfaLexer;
+import com.pedrik.recognizer.service.lexical.IncrementalLexer;
+import com.pedrik.recognizer.service.lexical.Lexer;
+import com.pedrik.recognizer.service.lexical.LexerEngine;
+import com.pedrik.recognizer.service.lexical.PackedTokenBuffer;
+import com.pedrik.recognizer.service.lexical.ParallelLexer;
+import com.pedrik.recognizer.service.lexical.TextEdit;
+import com.pedrik.recognizer.service.lexical.Token;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LexerDifferentialTest {
+
+    private static final ParallelLexer PARALLEL = new ParallelLexer(ForkJoinPool.commonPool(), 4);
+    private static final LexerEngine VECTOR = new LexerEngine(true);
+
+    private static final String[] FRAGMENTS = {
+            "int", "string", "boolean", "if", "else", "while", "return", "true", "false",
+            "AND", "OR", "NOT", "id", "velocidade", "_x1", "a", "Z9", "123", "0",
+            " ", "  ", "\t", "\r", "\f", "\n", "\u000B",
+            "=", "==", "!", "!=", "<", "<=", ">", ">=", "+", "-", "*", "/",
+            "(", ")", "{", "}", ";", ",",
+            "//", "/*", "*/", "\"", "@", "#", "ã", "é", "́", "😀", "\uD83D",
+            "                                        ", "\t \t \t \t \t \t \t \t \t \t \t \t \t \t \t \t \t ",
+            "identificador_muito_longo_com_mais_de_trinta_e_dois_caracteres_9",
+            "texto de comentário ou string sem delimitadores que ocupa vários vetores"
+    };
+
+    private static void assertSameTokens(String input) {
+        List<Token> expected = new Lexer(input).tokenize();
+        List<Token> actual = new DfaLexer(input).tokenize();
+        assertEquals(expected.toString(), actual.toString(), "Divergência para a entrada: " + input);
+
+        PackedTokenBuffer buffer = new PackedTokenBuffer(true);
+        buffer.fill(input);
+        List<Token> packed = new ArrayList<>();
+        for (int i = 0; i < buffer.size(); i++) {
+            packed.add(buffer.toToken(i));
+        }
+        assertEquals(expected.toString(), packed.toString(), "Divergência no buffer compacto para: " + input);
+
+        List<Token> vectorized = VECTOR.newScanner(input).tokenize();
+        assertEquals(expected.toString(), vectorized.toString(), "Divergência no modo vetorizado para: " + input);
+
+        List<Token> parallel = PARALLEL.tokenize(input);
+        assertEquals(expected.toString(), parallel.toString(), "Divergência na análise paralela para: " + input);
+    }
+
+    private static String randomInput(Random random, int fragments) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < fragments; i++) {
+            sb.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+            if (random.nextInt(3) == 0) {
+                sb.append(' ');
+            }
+        }
+        return sb.toString();
+    }
+
+    @Test
+    void testKnownInputs() {
+        assertSameTokens("");
+        assertSameTokens("velocidade AND NOT (caindo OR subindo)");
+        assertSameTokens("int idade = 30;\nif (idade >= 18) { return true; }");
+        assertSameTokens("string nome = \"João\";");
+        assertSameTokens("/* bloco \n comentário */ x // fim");
+        assertSameTokens("\"multi\nlinha\" y");
+        assertSameTokens("string erro = \"incompleto;");
+        assertSameTokens("a /* sem fim\n");
+        assertSameTokens("/*");
+        assertSameTokens("int x = 10 @;");
+        assertSameTokens("a\n/* atravessa\nvários\nblocos\n*/ b\n\"string\ncom\nquebras\" c\nd");
+    }
+
+    @Test
+    void testRandomInputs() {
+        Random random = new Random(20250418L);
+        for (int i = 0; i < 5000; i++) {
+            assertSameTokens(randomInput(random, 1 + random.nextInt(40)));
+        }
+    }
+
+    @Test
+    void testRandomCharacters() {
+        Random random = new Random(7L);
+        for (int i = 0; i < 2000; i++) {
+            char[] chars = new char[1 + random.nextInt(30)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = random.nextInt(4) == 0 ? (char) random.nextInt(0x400) : (char) (32 + random.nextInt(95));
+            }
+            assertSameTokens(new String(chars));
+        }
+    }
+
+    @Test
+    void testPackedBufferResolvesPositionsFromLineIndex() {
+        PackedTokenBuffer buffer = PackedTokenBuffer.tokenize("a AND\n  (b OR c)");
+        assertEquals(8, buffer.size());
+        assertEquals("b", buffer.lexeme(3).toString());
+        assertTrue(buffer.lexemeEquals(1, "AND"));
+        assertEquals(2, buffer.line(3));
+        assertEquals(4, buffer.column(3));
+        assertEquals(2, buffer.line(6));
+        assertEquals(10, buffer.column(6));
+    }
+
+    @Test
+    void testVectorModeIsAvailableInTests() {
+        assertTrue(VECTOR.isVectorized(), "Os testes rodam com --add-modules jdk.incubator.vector");
+    }
+
+    @Test
+    void testSharedEngineScannerIsReusable() {
+        String first = "a /* sem fim";
+        String second = "velocidade AND NOT (caindo OR subindo)";
+        assertEquals(new Lexer(first).tokenize().toString(), LexerEngine.shared().scanner(first).tokenize().toString());
+        assertEquals(new Lexer(second).tokenize().toString(), LexerEngine.shared().scanner(second).tokenize().toString());
+    }
+
+    @Test
+    void testLargeInputsDoNotGrowThreadBuffer() {
+        String large = "a OR ".repeat(20_000) + "b";
+        DfaLexer small = VECTOR.scanner("a");
+        DfaLexer big = VECTOR.scanner(large);
+        assertNotSame(small, big, "Entrada grande não deve ficar presa ao scanner da thread");
+        assertEquals(new Lexer(large).tokenize().size(), big.tokenize().size());
+        assertSame(small, VECTOR.scanner("b"));
+    }
+
+    private static List<String> describe(PackedTokenBuffer buffer) {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < buffer.size(); i++) {
+            tokens.add(buffer.toToken(i) + "@" + buffer.start(i));
+        }
+        return tokens;
+    }
+
+    @Test
+    void testIncrementalRelexMatchesFullRelex() {
+        Random random = new Random(99L);
+        IncrementalLexer incremental = new IncrementalLexer();
+        for (int i = 0; i < 3000; i++) {
+            String text = randomInput(random, 1 + random.nextInt(30));
+            int offset = random.nextInt(text.length() + 1);
+            int deleted = random.nextInt(Math.min(6, text.length() - offset) + 1);
+            TextEdit edit = new TextEdit(offset, deleted, randomInput(random, random.nextInt(3)));
+
+            for (boolean trackLines : new boolean[]{true, false}) {
+                PackedTokenBuffer previous = new PackedTokenBuffer(trackLines);
+                previous.fill(text);
+                int previousSize = previous.size();
+                PackedTokenBuffer expected = new PackedTokenBuffer(trackLines);
+                expected.fill(edit.apply(text));
+
+                IncrementalLexer.Result result = incremental.relex(previous, edit);
+                assertEquals(describe(expected), describe(result.getTokens()), "Edição em: " + text);
+                assertEquals(result.getNewEnd() - result.getOldEnd(), expected.size() - previousSize);
+            }
+        }
+    }
+
+    @Test
+    void testIncrementalRelexOverSuccessiveEdits() {
+        Random random = new Random(7L);
+        IncrementalLexer incremental = new IncrementalLexer();
+        for (int i = 0; i < 300; i++) {
+            String text = randomInput(random, 1 + random.nextInt(30));
+            PackedTokenBuffer tokens = new PackedTokenBuffer(i % 2 == 0);
+            tokens.fill(text);
+            for (int e = 0; e < 20; e++) {
+                int offset = random.nextInt(text.length() + 1);
+                int deleted = random.nextInt(Math.min(6, text.length() - offset) + 1);
+                TextEdit edit = new TextEdit(offset, deleted, randomInput(random, random.nextInt(3)));
+                text = edit.apply(text);
+
+                // O mesmo buffer e o mesmo texto, editados no lugar a cada edição
+                assertSame(tokens, incremental.relex(tokens, edit).getTokens());
+                assertEquals(text, tokens.getInput().toString());
+                PackedTokenBuffer expected = new PackedTokenBuffer(tokens.isTrackingLines());
+                expected.fill(text);
+                assertEquals(describe(expected), describe(tokens), "Edição em: " + text);
+            }
+        }
+    }
+
+    @Test
+    void testEditOutsideTextIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new TextEdit(-1, 0, "a"));
+        assertThrows(IllegalArgumentException.class, () -> new TextEdit(0, -1, "a"));
+
+        PackedTokenBuffer tokens = PackedTokenBuffer.tokenize("a AND b");
+        IncrementalLexer incremental = new IncrementalLexer();
+        assertThrows(IllegalArgumentException.class, () -> incremental.relex(tokens, new TextEdit(8, 0, "c")));
+        assertThrows(IllegalArgumentException.class, () -> incremental.relex(tokens, new TextEdit(5, 3, "")));
+        assertThrows(IllegalArgumentException.class, () -> new TextEdit(6, 2, "").apply("a AND b"));
+        assertEquals("a AND b", tokens.getInput().toString());
+        assertEquals(4, tokens.size());
+    }
+
+    @Test
+    void testIncrementalRelexOnlyTouchesEditedRegion() {
+        PackedTokenBuffer previous = PackedTokenBuffer.tokenize("a AND b\nOR c AND d");
+        IncrementalLexer.Result result = new IncrementalLexer().relex(previous, new TextEdit(6, 1, "bb"));
+
+        assertEquals(2, result.getFirstChanged());
+        assertEquals(3, result.getOldEnd());
+        assertEquals(3, result.getNewEnd());
+        assertEquals("bb", result.getTokens().lexeme(2).toString());
+        assertEquals(2, result.getTokens().line(5));
+    }
+}
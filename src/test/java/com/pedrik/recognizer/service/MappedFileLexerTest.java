@@ -0,0 +1,109 @@
+package com.pedrik.recognizer.service;
+
+import com.pedrik.recognizer.service.analytic.RecursiveDescentParser;
+import com.pedrik.recognizer.service.lexical.DfaLexer;
+import com.pedrik.recognizer.service.lexical.LexerTokenStream;
+import com.pedrik.recognizer.service.lexical.MappedFileLexer;
+import com.pedrik.recognizer.service.lexical.Token;
+import com.pedrik.recognizer.service.lexical.TokenType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedFileLexerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private List<Token> tokenize(Path file, int windowSize) throws IOException {
+        List<Token> tokens = new ArrayList<>();
+        try (MappedFileLexer lexer = new MappedFileLexer(file, windowSize)) {
+            Token token;
+            while ((token = lexer.nextToken()) != null) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    @Test
+    void testSameTokensAndOffsetsForAnyWindowSize() throws IOException {
+        String input = "int idade = 30; // comentario\n/* bloco\n longo */ if (idade >= 18) {\n"
+                + "  return \"texto\nquebrado\"; } velocidade AND NOT (caindo OR subindo)\n";
+        Path file = Files.writeString(tempDir.resolve("rules.txt"), input, StandardCharsets.US_ASCII);
+        List<Token> expected = new DfaLexer(input).tokenize();
+
+        for (int windowSize : new int[]{1, 3, 7, 16, 64, 4096}) {
+            List<Token> actual = tokenize(file, windowSize);
+            assertEquals(expected.toString(), actual.toString(), "Janela de " + windowSize + " bytes");
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getOffset(), actual.get(i).getOffset());
+            }
+        }
+    }
+
+    @Test
+    void testUtf8ContentIsDecodedWithByteOffsets() throws IOException {
+        Path file = Files.writeString(tempDir.resolve("utf8.txt"), "\"João\" x", StandardCharsets.UTF_8);
+        List<Token> tokens = tokenize(file, 5);
+
+        assertEquals(TokenType.STRING, tokens.get(0).getType());
+        assertEquals("João", tokens.get(0).getLexeme());
+        assertEquals(8, tokens.get(1).getOffset());
+        assertEquals(TokenType.EOF, tokens.get(2).getType());
+    }
+
+    @Test
+    void testLargeUnterminatedTokensKeepOffsetsAndTruncateLexeme() throws IOException {
+        for (String input : new String[]{"a AND /*" + "comentario\n".repeat(100_000), "b OR \"" + "texto\n".repeat(100_000)}) {
+            Path file = Files.writeString(tempDir.resolve("unterminated.txt"), input, StandardCharsets.US_ASCII);
+            List<Token> expected = new DfaLexer(input).tokenize();
+
+            // Janela que cobre o arquivo e janela máxima menor que o token
+            for (List<Token> actual : List.of(tokenize(file, 4096), tokenizeWithMax(file, 16, 1024))) {
+                assertEquals(expected.size(), actual.size());
+                for (int i = 0; i < expected.size(); i++) {
+                    Token e = expected.get(i);
+                    Token a = actual.get(i);
+                    assertEquals(e.getType(), a.getType());
+                    assertEquals(e.getLine(), a.getLine(), "Linha do token " + i);
+                    assertEquals(e.getColumn(), a.getColumn(), "Coluna do token " + i);
+                    assertEquals(e.getOffset(), a.getOffset());
+                    assertEquals(e.getEnd(), a.getEnd());
+                }
+                Token error = actual.get(actual.size() - 2);
+                assertEquals(TokenType.ERROR, error.getType());
+                assertEquals(input.length(), error.getEnd());
+                assertTrue(error.getLexeme().startsWith("Unterminated"));
+                assertTrue(error.getLexeme().length() < 512, "O lexema do ERROR deve ser truncado");
+            }
+        }
+    }
+
+    private List<Token> tokenizeWithMax(Path file, int windowSize, int maxWindowSize) throws IOException {
+        List<Token> tokens = new ArrayList<>();
+        try (MappedFileLexer lexer = new MappedFileLexer(file, windowSize, maxWindowSize)) {
+            Token token;
+            while ((token = lexer.nextToken()) != null) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    @Test
+    void testStreamingParseOverMappedFile() throws IOException {
+        Path file = Files.writeString(tempDir.resolve("expr.txt"), "a AND (b OR\n NOT c)", StandardCharsets.US_ASCII);
+        try (MappedFileLexer lexer = new MappedFileLexer(file, 4)) {
+            assertDoesNotThrow(() -> new RecursiveDescentParser(new LexerTokenStream(lexer)).parse());
+        }
+    }
+}
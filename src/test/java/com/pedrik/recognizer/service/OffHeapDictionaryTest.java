@@ -0,0 +1,130 @@
+package com.pedrik.recognizer.service;
+
+import com.pedrik.recognizer.service.lexical.ByteCharSequence;
+import com.pedrik.recognizer.service.lexical.PackedTokenBuffer;
+import com.pedrik.recognizer.service.semantic.Environment;
+import com.pedrik.recognizer.service.semantic.EnvironmentRegistry;
+import com.pedrik.recognizer.service.semantic.OffHeapDictionary;
+import com.pedrik.recognizer.service.semantic.SemanticInfo;
+import com.pedrik.recognizer.service.semantic.SymbolTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapDictionaryTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testLookupWithoutAllocatingNames() {
+        OffHeapDictionary dictionary = new OffHeapDictionary.Builder()
+                .put("velocidade", "boolean", OffHeapDictionary.DECLARATION)
+                .put("altura", "int", OffHeapDictionary.DECLARATION | OffHeapDictionary.ASSIGNED)
+                .put("ação", "boolean", OffHeapDictionary.USED)
+                .build();
+
+        assertEquals(3, dictionary.size());
+        String input = "x AND altura OR ação";
+        int entry = dictionary.lookup(input, 6, 12);
+        assertEquals("int", dictionary.typeName(entry));
+        assertEquals(new SemanticInfo("int", true, false, true), dictionary.semanticInfo(entry));
+        assertEquals("boolean", dictionary.typeName(dictionary.lookup(input, 16, 20)));
+        assertEquals(OffHeapDictionary.NOT_FOUND, dictionary.lookup(input, 0, 1));
+        assertEquals(OffHeapDictionary.NOT_FOUND, dictionary.lookup(input, 6, 11)); // prefixo
+
+        PackedTokenBuffer tokens = PackedTokenBuffer.tokenize("velocidade AND altura");
+        int slot = dictionary.find(tokens, 0);
+        assertEquals("velocidade", dictionary.nameAt(slot));
+        assertEquals(OffHeapDictionary.NOT_FOUND, dictionary.find(tokens, 1));
+    }
+
+    @Test
+    void testRawBytesMatchUtf8Keys() {
+        OffHeapDictionary dictionary = new OffHeapDictionary.Builder().put("ação", "boolean", 0).build();
+        byte[] bytes = "NOT ação".getBytes(StandardCharsets.UTF_8);
+        ByteCharSequence text = new ByteCharSequence(ByteBuffer.wrap(bytes), 0, bytes.length);
+
+        assertNotEquals(OffHeapDictionary.NOT_FOUND, dictionary.find(text, 4, bytes.length));
+        assertEquals(OffHeapDictionary.NOT_FOUND, dictionary.find(text, 0, 3));
+    }
+
+    @Test
+    void testBuildFromTextWriteAndMap() throws IOException {
+        Path source = dir.resolve("variaveis.properties");
+        StringBuilder text = new StringBuilder("# ambiente\n");
+        for (int i = 0; i < 50_000; i++) {
+            text.append("v").append(i).append('=').append(i % 2 == 0 ? "boolean" : "int").append('\n');
+        }
+        text.append("v7 = boolean\n"); // repetido: vale a última
+        Files.writeString(source, text);
+
+        Path file = dir.resolve("variaveis" + OffHeapDictionary.EXTENSION);
+        OffHeapDictionary.readText(source).write(file);
+        OffHeapDictionary dictionary = OffHeapDictionary.map(file);
+
+        assertEquals(50_000, dictionary.size());
+        assertEquals("boolean", dictionary.typeName(dictionary.lookup("v0")));
+        assertEquals("int", dictionary.typeName(dictionary.lookup("v49999")));
+        assertEquals("boolean", dictionary.typeName(dictionary.lookup("v7")));
+        assertEquals(OffHeapDictionary.NOT_FOUND, dictionary.lookup("v50000"));
+    }
+
+    @Test
+    void testRejectsCorruptedFile() throws IOException {
+        Path file = dir.resolve("corrompido" + OffHeapDictionary.EXTENSION);
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IOException.class, () -> OffHeapDictionary.map(file));
+    }
+
+    @Test
+    void testRegistryReloadsMappedDictionary() throws IOException {
+        Path file = dir.resolve("ambiente" + OffHeapDictionary.EXTENSION);
+        new OffHeapDictionary.Builder().putAll(Map.of("a", "boolean", "b", "int")).write(file);
+
+        EnvironmentRegistry registry = new EnvironmentRegistry();
+        Environment first = registry.map(file);
+        SymbolTable table = new SymbolTable(first);
+        assertEquals("boolean", table.getType("a"));
+        assertEquals("int", table.getType("b"));
+        assertNull(table.getType("c"));
+
+        new OffHeapDictionary.Builder().putAll(Map.of("c", "boolean")).write(file);
+        Environment second = registry.map(file);
+        assertEquals("boolean", second.getType("c"));
+        assertNull(second.getType("a"));
+        assertEquals("int", first.getType("b")); // a versão anterior continua mapeada
+
+        Environment defined = registry.define(Map.of("d", "int"));
+        assertEquals(Map.of("c", "boolean", "d", "int"), defined.toMap());
+        assertEquals(List.of(), List.copyOf(registry.remove(List.of("c", "d")).toMap().keySet()));
+    }
+
+    @Test
+    void testRegistryLoadsDictionaryInsideJar() throws IOException {
+        Path file = dir.resolve("ambiente" + OffHeapDictionary.EXTENSION);
+        new OffHeapDictionary.Builder().putAll(Map.of("a", "boolean")).write(file);
+        Path jar = dir.resolve("ambiente.jar");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new ZipEntry("config/ambiente" + OffHeapDictionary.EXTENSION));
+            out.write(Files.readAllBytes(file));
+            out.closeEntry();
+        }
+
+        EnvironmentRegistry registry = new EnvironmentRegistry(
+                "jar:" + jar.toUri() + "!/config/ambiente" + OffHeapDictionary.EXTENSION);
+        assertEquals("boolean", registry.snapshot().getType("a"));
+        assertEquals(1, registry.snapshot().size());
+    }
+}
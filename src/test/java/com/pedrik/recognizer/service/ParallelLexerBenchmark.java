@@ -0,0 +1,68 @@
+package com.pedrik.recognizer.service;
+
+import com.pedrik.recognizer.service.lexical.DfaLexer;
+import com.pedrik.recognizer.service.lexical.ParallelLexer;
+import com.pedrik.recognizer.service.lexical.Token;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Benchmark de escalabilidade do {@link ParallelLexer}: vazão (MB/s) para cada quantidade de
+ * núcleos, comparada à análise sequencial do {@link DfaLexer}. Executar manualmente pelo main.
+ */
+public class ParallelLexerBenchmark {
+
+    private static final String[] LINES = {
+            "velocidade AND NOT (caindo OR subindo)",
+            "int idade = 30; // comentário de linha",
+            "/* comentário de bloco\n   que atravessa linhas */ ativo OR inativo",
+            "string nome = \"texto\ncom quebra\";",
+            "if (idade >= 18) { return true; }"
+    };
+
+    public static void main(String[] args) {
+        int megabytes = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        String input = generate(megabytes * 1024 * 1024);
+        double size = input.length() / (1024.0 * 1024.0);
+
+        List<Token> reference = new DfaLexer(input).tokenize();
+        System.out.printf("Entrada: %.1f MB, %d tokens%n", size, reference.size());
+        System.out.printf("sequencial: %.1f MB/s%n", size / measure(() -> new DfaLexer(input).tokenize()));
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int parallelism = 1; parallelism <= cores; parallelism *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            ParallelLexer lexer = new ParallelLexer(pool, ParallelLexer.DEFAULT_CHUNK_SIZE);
+            if (lexer.tokenize(input).size() != reference.size()) {
+                throw new IllegalStateException("Resultado paralelo divergente");
+            }
+            System.out.printf("%2d núcleos: %.1f MB/s%n", parallelism, size / measure(() -> lexer.tokenize(input)));
+            pool.shutdown();
+        }
+    }
+
+    private static String generate(int size) {
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder(size + 128);
+        while (sb.length() < size) {
+            sb.append(LINES[random.nextInt(LINES.length)]).append('\n');
+        }
+        return sb.toString();
+    }
+
+    // Melhor tempo (em segundos) entre algumas execuções, após aquecimento
+    private static double measure(Runnable task) {
+        for (int i = 0; i < 3; i++) {
+            task.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1e9;
+    }
+}
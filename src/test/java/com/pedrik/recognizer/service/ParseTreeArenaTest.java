@@ -0,0 +1,140 @@
+package com.pedrik.recognizer.service;
+
+import com.pedrik.recognizer.service.analytic.ArenaTreeListener;
+import com.pedrik.recognizer.service.analytic.ParsingTable;
+import com.pedrik.recognizer.service.analytic.TableDrivenParser;
+import com.pedrik.recognizer.service.analytic.tree.NonTerminalNode;
+import com.pedrik.recognizer.service.analytic.tree.ParseTreeArena;
+import com.pedrik.recognizer.service.analytic.tree.TerminalNode;
+import com.pedrik.recognizer.service.lexical.PackedTokenBuffer;
+import com.pedrik.recognizer.service.lexical.PackedTokenStream;
+import com.pedrik.recognizer.service.lexical.Token;
+import com.pedrik.recognizer.service.lexical.TokenType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParseTreeArenaTest {
+
+    private static final ParsingTable TABLE = ParsingTable.booleanExpressions();
+
+    private static final String INPUT = "velocidade AND NOT (caindo OR subindo)";
+
+    private static NonTerminalNode objectTree(PackedTokenBuffer tokens, StringBuilder logger) {
+        TableDrivenParser parser = new TableDrivenParser(TABLE, new PackedTokenStream(tokens));
+        parser.setLogger(logger);
+        return (NonTerminalNode) parser.parse();
+    }
+
+    @Test
+    void testSameTreeAsObjectTree() {
+        PackedTokenBuffer tokens = PackedTokenBuffer.tokenize(INPUT);
+        StringBuilder expected = new StringBuilder();
+        objectTree(tokens, expected);
+
+        ParseTreeArena arena = new ParseTreeArena();
+        ArenaTreeListener.parse(TABLE, tokens, arena);
+        StringBuilder actual = new StringBuilder();
+        arena.appendLog(actual);
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    void testQueriesMatchObjectTree() {
+        PackedTokenBuffer tokens = PackedTokenBuffer.tokenize(INPUT);
+        NonTerminalNode tree = objectTree(tokens, new StringBuilder());
+        ParseTreeArena arena = new ParseTreeArena();
+        int root = ArenaTreeListener.parse(TABLE, tokens, arena);
+
+        List<TerminalNode> identifiers = tree.getAllIdentifiers();
+        int[] arenaIdentifiers = arena.allIdentifiers(root);
+        assertEquals(identifiers.size(), arenaIdentifiers.length);
+        for (int i = 0; i < arenaIdentifiers.length; i++) {
+            assertEquals(identifiers.get(i).getToken().getLexeme(), arena.name(arenaIdentifiers[i]));
+        }
+
+        assertEquals("velocidade", arena.name(arena.firstTerminalWithType(root, TokenType.IDENTIFIER)));
+        assertEquals(tree.getFirstTerminalWithType(TokenType.KEYWORD, "or").getToken().getLexeme(),
+                arena.name(arena.firstTerminalWithType(root, TokenType.KEYWORD, "or")));
+        assertEquals(ParseTreeArena.NONE, arena.firstTerminalWithType(root, TokenType.NUMBER));
+
+        // E → T E': filho 1 é não-terminal, filho 2 não existe
+        assertEquals("E'", arena.name(arena.child(root, 1, ParseTreeArena.NON_TERMINAL)));
+        assertEquals(ParseTreeArena.NONE, arena.child(root, 1, ParseTreeArena.TERMINAL));
+        assertEquals(ParseTreeArena.NONE, arena.child(root, 2));
+        assertNull(tree.getChild(2, NonTerminalNode.class));
+    }
+
+    @Test
+    void testBuildingArenaDoesNotMaterializeTokens() {
+        int[] materialized = {0};
+        PackedTokenBuffer tokens = PackedTokenBuffer.tokenize(INPUT);
+        PackedTokenStream stream = new PackedTokenStream(tokens) {
+            @Override
+            public Token peek(int offset) {
+                materialized[0]++;
+                return super.peek(offset);
+            }
+        };
+        ParseTreeArena arena = new ParseTreeArena();
+        arena.reset(TABLE, tokens);
+        new TableDrivenParser(TABLE, stream).parse(new ArenaTreeListener(arena));
+        assertEquals(0, materialized[0]);
+
+        StringBuilder expected = new StringBuilder();
+        objectTree(tokens, expected);
+        StringBuilder actual = new StringBuilder();
+        arena.appendLog(actual);
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    void testSemanticTypes() {
+        ParseTreeArena arena = new ParseTreeArena();
+        int root = ArenaTreeListener.parse(TABLE, PackedTokenBuffer.tokenize("a AND b"), arena);
+        int term = arena.child(root, 0);
+        assertNull(arena.semanticTypeName(term));
+
+        arena.setSemanticType(root, "boolean");
+        arena.setSemanticType(term, "boolean");
+        assertEquals("boolean", arena.semanticTypeName(root));
+        assertEquals(arena.semanticType(root), arena.semanticType(term));
+    }
+
+    @Test
+    void testArenaIsReusable() {
+        ParseTreeArena arena = new ParseTreeArena();
+        ArenaTreeListener.parse(TABLE, PackedTokenBuffer.tokenize(INPUT), arena);
+        int larger = arena.size();
+
+        int root = ArenaTreeListener.parse(TABLE, PackedTokenBuffer.tokenize("id"), arena);
+        assertTrue(arena.size() < larger);
+        StringBuilder log = new StringBuilder();
+        arena.appendLog(log);
+        assertEquals("E\n  T\n    F\n      id\n  E'\n    ε\n", log.toString());
+        assertEquals(1, arena.allIdentifiers(root).length);
+    }
+
+    @Test
+    void testTerminalsMatchTypeAndLexeme() {
+        ParseTreeArena arena = new ParseTreeArena();
+        int root = ArenaTreeListener.parse(TABLE, PackedTokenBuffer.tokenize("a OR ( b )"), arena);
+        int or = arena.firstTerminalWithType(root, TokenType.KEYWORD, "OR");
+        assertEquals(TABLE.terminalOf(TokenType.KEYWORD, "OR"), arena.symbol(or));
+
+        for (String input : new String[] {"a \"OR\" b", "a /* OR */ b", "\"(\" x )"}) {
+            assertThrows(RuntimeException.class, () -> ArenaTreeListener.parse(TABLE, PackedTokenBuffer.tokenize(input), arena), input);
+        }
+    }
+
+    @Test
+    void testDeepNesting() {
+        int depth = 100_000;
+        ParseTreeArena arena = new ParseTreeArena();
+        int root = ArenaTreeListener.parse(TABLE, PackedTokenBuffer.tokenize("(".repeat(depth) + "x" + ")".repeat(depth)), arena);
+        assertEquals("x", arena.name(arena.firstTerminalWithType(root, TokenType.IDENTIFIER)));
+        assertEquals(1, arena.allIdentifiers(root).length);
+    }
+}
@@ -0,0 +1,80 @@
+package com.pedrik.recognizer.service;
+
+import com.pedrik.recognizer.service.analytic.ParsingTable;
+import com.pedrik.recognizer.service.analytic.RecursiveDescentParser;
+import com.pedrik.recognizer.service.analytic.TableDrivenParser;
+import com.pedrik.recognizer.service.lexical.PackedTokenBuffer;
+import com.pedrik.recognizer.service.lexical.PackedTokenStream;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+
+/**
+ * Benchmark de vazão (tokens/s) do {@link TableDrivenParser} contra o {@link RecursiveDescentParser}
+ * sobre os mesmos tokens já analisados. Executar manualmente pelo main.
+ */
+public class ParserBenchmark {
+
+    private static final String[] OPERATORS = {" AND ", " OR "};
+
+    public static void main(String[] args) {
+        int expressions = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        Random random = new Random(42);
+        PackedTokenBuffer[] buffers = new PackedTokenBuffer[expressions];
+        long tokens = 0;
+        for (int i = 0; i < expressions; i++) {
+            buffers[i] = PackedTokenBuffer.tokenize(generate(random, 50));
+            tokens += buffers[i].size();
+        }
+        ParsingTable table = ParsingTable.booleanExpressions();
+        System.out.printf("Entrada: %d expressões, %d tokens%n", expressions, tokens);
+
+        // O parser recursivo imprime a árvore; descartamos a saída durante a medição
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        double recursive = measure(() -> {
+            for (PackedTokenBuffer buffer : buffers) {
+                new RecursiveDescentParser(new PackedTokenStream(buffer)).parse();
+            }
+        });
+        double tableDriven = measure(() -> {
+            for (PackedTokenBuffer buffer : buffers) {
+                new TableDrivenParser(table, new PackedTokenStream(buffer)).parse();
+            }
+        });
+        System.setOut(out);
+
+        System.out.printf("recursivo:           %.1f Mtokens/s%n", tokens / recursive / 1e6);
+        System.out.printf("dirigido por tabela: %.1f Mtokens/s%n", tokens / tableDriven / 1e6);
+    }
+
+    // Cada operador aprofunda a recursão do E', então as expressões são curtas o bastante
+    // para o parser recursivo não estourar a pilha
+    private static String generate(Random random, int operators) {
+        StringBuilder sb = new StringBuilder("a");
+        for (int i = 0; i < operators; i++) {
+            sb.append(OPERATORS[random.nextInt(2)]);
+            if (random.nextBoolean()) {
+                sb.append("NOT (x").append(i).append(" OR y)");
+            } else {
+                sb.append("id").append(i);
+            }
+        }
+        return sb.toString();
+    }
+
+    // Melhor tempo (em segundos) entre algumas execuções, após aquecimento
+    private static double measure(Runnable task) {
+        for (int i = 0; i < 3; i++) {
+            task.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1e9;
+    }
+}
@@ -0,0 +1,108 @@
+package com.pedrik.recognizer.service;
+
+import com.pedrik.recognizer.service.analytic.BooleanExpressionGrammar;
+import com.pedrik.recognizer.service.analytic.GeneratedParser;
+import com.pedrik.recognizer.service.analytic.GeneratedParsers;
+import com.pedrik.recognizer.service.analytic.ParsingTable;
+import com.pedrik.recognizer.service.analytic.TableDrivenParser;
+import com.pedrik.recognizer.service.analytic.generated.BooleanExpressionParser;
+import com.pedrik.recognizer.service.analytic.generator.GrammarFile;
+import com.pedrik.recognizer.service.analytic.generator.ParserGenerator;
+import com.pedrik.recognizer.service.lexical.DfaLexer;
+import com.pedrik.recognizer.service.lexical.Lexer;
+import com.pedrik.recognizer.service.lexical.LexerTokenStream;
+import com.pedrik.recognizer.service.lexical.Token;
+import com.pedrik.recognizer.service.lexical.TokenType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParserGeneratorTest {
+
+    private static final String[] FRAGMENTS = {"a", "b", "AND", "OR", "NOT", "(", ")", "123", "=", "x"};
+
+    @Test
+    void testGrammarFileMatchesBuiltInGrammar() throws IOException {
+        GrammarFile file = GrammarFile.read(Path.of("src/main/grammar/BooleanExpression.grammar"));
+        assertEquals(BooleanExpressionGrammar.START, file.getStartSymbol());
+        assertEquals(BooleanExpressionGrammar.grammar(), file.getGrammar());
+        assertEquals(BooleanExpressionParser.class.getName(), file.getParserClass());
+        assertEquals(GeneratedParsers.BOOLEAN_EXPRESSIONS, file.getParserClass());
+    }
+
+    @Test
+    void testGeneratedParserIsAvailableToTheApplication() {
+        assertTrue(GeneratedParsers.hasBooleanExpressions());
+        String input = "velocidade AND NOT (caindo OR subindo)";
+        StringBuilder expected = new StringBuilder();
+        TableDrivenParser reference = new TableDrivenParser(ParsingTable.booleanExpressions(), new Lexer(input).tokenize());
+        reference.setLogger(expected);
+        reference.parse();
+
+        StringBuilder actual = new StringBuilder();
+        GeneratedParser generated = GeneratedParsers.booleanExpressions(new LexerTokenStream(new DfaLexer(input)));
+        generated.setLogger(actual);
+        generated.parse();
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    void testGeneratedParserMatchesTableDrivenParser() {
+        Random random = new Random(5L);
+        for (int i = 0; i < 3000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = 1 + random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                sb.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]).append(' ');
+            }
+            String input = sb.toString();
+            List<Token> tokens = new Lexer(input).tokenize();
+
+            StringBuilder expected = new StringBuilder();
+            TableDrivenParser reference = new TableDrivenParser(ParsingTable.booleanExpressions(), tokens);
+            reference.setLogger(expected);
+            String expectedError = error(reference::parse);
+
+            StringBuilder actual = new StringBuilder();
+            BooleanExpressionParser generated = new BooleanExpressionParser(tokens);
+            generated.setLogger(actual);
+            String actualError = error(generated::parse);
+
+            assertEquals(expectedError, actualError, "Erro divergente para: " + input);
+            assertEquals(expected.toString(), actual.toString(), "Árvore divergente para: " + input);
+        }
+    }
+
+    @Test
+    void testGeneratedParserMatchesTokensByTypeAndLexeme() {
+        String[] inputs = {"\"(\" x )", "a \"AND\" b", "a /* OR */ b", "a // OR\n b", "\"id\""};
+        for (String input : inputs) {
+            assertThrows(RuntimeException.class, () -> new BooleanExpressionParser(new Lexer(input).tokenize()).parse(), input);
+        }
+        assertEquals(BooleanExpressionParser.T_OR, BooleanExpressionParser.terminalOf(TokenType.KEYWORD, "OR"));
+        assertEquals(-1, BooleanExpressionParser.terminalOf(TokenType.STRING, "OR"));
+        assertEquals(-1, BooleanExpressionParser.terminalOf(TokenType.COMMENT_BLOCK, "("));
+    }
+
+    private static String error(Runnable parse) {
+        try {
+            parse.run();
+            return null;
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Test
+    void testGeneratorRejectsConflicts() {
+        GrammarFile ambiguous = GrammarFile.parse("ambigua.grammar", "%class x.Ambigua\nS -> id | id S\n");
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> ParserGenerator.generate("ambigua.grammar", ambiguous));
+        assertTrue(exception.getMessage().contains("M[S, id]"));
+    }
+}
@@ -0,0 +1,103 @@
+package com.pedrik.recognizer.service;
+
+import com.pedrik.recognizer.service.analytic.RecursiveDescentParser;
+import com.pedrik.recognizer.service.analytic.tree.Node;
+import com.pedrik.recognizer.service.evaluation.CompiledPredicate;
+import com.pedrik.recognizer.service.evaluation.PredicateCompiler;
+import com.pedrik.recognizer.service.lexical.Lexer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PredicateCompilerTest {
+
+    private static CompiledPredicate compile(String input) {
+        Node tree = new RecursiveDescentParser(new Lexer(input).tokenize()).parse();
+        return PredicateCompiler.compile(tree);
+    }
+
+    // Compara as duas formas de avaliação com a referência em todas as combinações de valores
+    private static void assertTruthTable(String input, Predicate<boolean[]> expected) {
+        CompiledPredicate predicate = compile(input);
+        int slots = predicate.getSlots().size();
+        for (long bits = 0; bits < 1L << slots; bits++) {
+            boolean[] values = new boolean[slots];
+            for (int i = 0; i < slots; i++) {
+                values[i] = (bits & 1L << i) != 0;
+            }
+            assertEquals(expected.test(values), predicate.test(values), input + " com " + Long.toBinaryString(bits));
+            assertEquals(expected.test(values), predicate.test(bits), input + " com " + Long.toBinaryString(bits));
+        }
+    }
+
+    @Test
+    void testMatchesTruthTables() {
+        assertTruthTable("a", v -> v[0]);
+        assertTruthTable("NOT a", v -> !v[0]);
+        assertTruthTable("a AND b OR c", v -> (v[0] && v[1]) || v[2]);
+        assertTruthTable("a OR (b AND c) OR NOT d", v -> v[0] || (v[1] && v[2]) || !v[3]);
+        assertTruthTable("NOT (a OR b) AND (c AND (d AND NOT a))", v -> !(v[0] || v[1]) && v[2] && v[3] && !v[0]);
+        assertTruthTable("NOT (NOT a) AND NOT (NOT (b OR c))", v -> v[0] && (v[1] || v[2]));
+        assertTruthTable("a AND NOT a", v -> false);
+    }
+
+    @Test
+    void testMixedChainsApplyLeftToRight() {
+        assertEquals("Or(And(a, b), c)", PredicateCompiler.compile("a AND b OR c", List.of("a", "b", "c")).toString());
+        assertTruthTable("a OR b AND c", v -> (v[0] || v[1]) && v[2]);
+        assertTruthTable("NOT a AND b OR c AND NOT d", v -> ((!v[0] && v[1]) || v[2]) && !v[3]);
+
+        CompiledPredicate predicate = PredicateCompiler.compile("a AND b OR c", List.of("a", "b", "c"));
+        assertTrue(predicate.test(new boolean[] {false, false, true}));
+        assertTrue(predicate.test(0b100L));
+        assertFalse(predicate.test(0b001L));
+    }
+
+    @Test
+    void testSlotsFollowFirstAppearance() {
+        CompiledPredicate predicate = compile("velocidade AND NOT (caindo OR subindo) AND velocidade");
+        assertEquals(List.of("velocidade", "caindo", "subindo"), predicate.getSlots());
+        assertEquals(1, predicate.slotOf("caindo"));
+        assertEquals(-1, predicate.slotOf("altura"));
+        assertTrue(predicate.test(0b001L));
+        assertFalse(predicate.test(0b011L));
+    }
+
+    @Test
+    void testExplicitSlots() {
+        CompiledPredicate predicate = PredicateCompiler.compile("a AND NOT b", List.of("b", "x", "a"));
+        assertTrue(predicate.test(new boolean[] {false, false, true}));
+        assertFalse(predicate.test(new boolean[] {true, false, true}));
+        assertTrue(predicate.test(0b100L));
+
+        assertThrows(IllegalArgumentException.class, () -> PredicateCompiler.compile("a AND c", List.of("a", "b")));
+        assertThrows(IllegalArgumentException.class, () -> PredicateCompiler.compile("a", List.of("a", "a")));
+    }
+
+    @Test
+    void testBitsNeedAtMost64Slots() {
+        List<String> slots = new ArrayList<>();
+        StringBuilder input = new StringBuilder("v0");
+        slots.add("v0");
+        for (int i = 1; i < 70; i++) {
+            slots.add("v" + i);
+            input.append(" OR v").append(i);
+        }
+        CompiledPredicate predicate = PredicateCompiler.compile(input.toString(), slots);
+        assertFalse(predicate.supportsBits());
+        assertThrows(IllegalStateException.class, () -> predicate.test(1L));
+
+        boolean[] values = new boolean[70];
+        assertFalse(predicate.test(values));
+        values[69] = true;
+        assertTrue(predicate.test(values));
+
+        CompiledPredicate last = PredicateCompiler.compile("v63 AND NOT v0", slots.subList(0, 64));
+        assertTrue(last.test(Long.MIN_VALUE));
+        assertFalse(last.test(Long.MIN_VALUE | 1));
+    }
+}
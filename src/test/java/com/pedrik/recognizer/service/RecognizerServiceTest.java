@@ -0,0 +1,63 @@
+package com.pedrik.recognizer.service;
+
+import com.pedrik.recognizer.controller.dto.DiagnosticDto;
+import com.pedrik.recognizer.controller.dto.ParseResponseDto;
+import com.pedrik.recognizer.service.analytic.GrammarRegistry;
+import com.pedrik.recognizer.service.analytic.RecognizerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "recognizer.semantic.check-environment=true")
+public class RecognizerServiceTest {
+
+    @Autowired
+    private RecognizerService service;
+
+    @Autowired
+    private GrammarRegistry grammarRegistry;
+
+    @Test
+    void testKnownVariablesAreValid() {
+        ParseResponseDto response = service.verify("velocidade AND NOT (caindo OR subindo)");
+        assertTrue(response.isValid());
+        assertTrue(response.getDiagnostics().isEmpty());
+    }
+
+    @Test
+    void testSemanticErrorsMakeResponseInvalid() {
+        ParseResponseDto response = service.verify("velocidade AND altura");
+        assertFalse(response.isValid());
+        List<DiagnosticDto> diagnostics = response.getDiagnostics();
+        assertFalse(diagnostics.isEmpty());
+        assertTrue(diagnostics.stream().allMatch(d -> d.getCode().equals(RecognizerService.SEMANTIC_ERROR)));
+        assertTrue(diagnostics.get(0).getMessage().contains("altura"));
+        assertEquals(diagnostics.get(0).getMessage(), response.getErrorMessage());
+        // A posição é a do identificador: "altura" ocupa [15, 21) na linha 1
+        assertEquals(1, diagnostics.get(0).getLine());
+        assertEquals(16, diagnostics.get(0).getColumn());
+        assertEquals(15, diagnostics.get(0).getStart());
+        assertEquals(21, diagnostics.get(0).getEnd());
+    }
+
+    @Test
+    void testOtherGrammarsSkipSemanticChecks() {
+        // S → id | ( S )
+        String id = grammarRegistry.register("S", Map.of("S", List.of(List.of("id"), List.of("(", "S", ")"))));
+        assertTrue(service.verify("(altura)", id).isValid());
+    }
+
+    @Test
+    void testSyntaxErrorsComeFirst() {
+        ParseResponseDto response = service.verify("altura AND");
+        assertFalse(response.isValid());
+        List<String> codes = response.getDiagnostics().stream().map(DiagnosticDto::getCode).toList();
+        assertNotEquals(RecognizerService.SEMANTIC_ERROR, codes.get(0));
+        assertTrue(codes.contains(RecognizerService.SEMANTIC_ERROR));
+    }
+}
@@ -1,8 +1,14 @@
 package com.pedrik.recognizer.service;
 
 import com.pedrik.recognizer.service.analytic.RecursiveDescentParser;
+import com.pedrik.recognizer.service.lexical.DfaLexer;
 import com.pedrik.recognizer.service.lexical.Lexer;
+import com.pedrik.recognizer.service.lexical.LexerTokenStream;
+import com.pedrik.recognizer.service.lexical.PackedTokenBuffer;
+import com.pedrik.recognizer.service.lexical.PackedTokenStream;
 import com.pedrik.recognizer.service.lexical.Token;
+import com.pedrik.recognizer.service.lexical.TokenStream;
+import com.pedrik.recognizer.service.lexical.TokenType;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -67,4 +73,38 @@ public class RecursiveDescentParserTest {
         Token error = tokens.stream().filter(t -> t.getType().name().equals("ERROR")).findFirst().orElse(null);
         assertNotNull(error, "Deveria detectar erro léxico em string malformada.");
     }
+
+    @Test
+    void testStreamingParseFromLexer() {
+        TokenStream stream = new LexerTokenStream(new DfaLexer("id AND ( NOT id ) OR id"));
+        assertDoesNotThrow(() -> new RecursiveDescentParser(stream).parse());
+        assertEquals(TokenType.EOF, stream.next().getType());
+    }
+
+    @Test
+    void testStreamingParseReportsSyntaxError() {
+        TokenStream stream = new LexerTokenStream(new DfaLexer("id AND ( id"));
+        Exception exception = assertThrows(RuntimeException.class, () -> new RecursiveDescentParser(stream).parse());
+        assertTrue(exception.getMessage().contains("esperado"));
+    }
+
+    @Test
+    void testTokenStreamLookahead() {
+        TokenStream stream = new LexerTokenStream(new DfaLexer("a b c d e f"));
+        assertEquals("f", stream.peek(5).getLexeme());
+        assertEquals(TokenType.EOF, stream.peek(9).getType());
+        assertEquals("a", stream.next().getLexeme());
+        assertEquals("b", stream.peek().getLexeme());
+    }
+
+    @Test
+    void testParseFromPackedTokenBuffer() {
+        PackedTokenBuffer buffer = PackedTokenBuffer.tokenize("id AND ( NOT id ) OR id");
+        assertDoesNotThrow(() -> new RecursiveDescentParser(new PackedTokenStream(buffer)).parse());
+
+        PackedTokenBuffer invalid = PackedTokenBuffer.tokenize("id OR 123");
+        Exception exception = assertThrows(RuntimeException.class,
+                () -> new RecursiveDescentParser(new PackedTokenStream(invalid)).parse());
+        assertTrue(exception.getMessage().contains("123"));
+    }
 }
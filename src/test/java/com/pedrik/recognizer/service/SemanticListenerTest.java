@@ -0,0 +1,89 @@
+package com.pedrik.recognizer.service;
+
+import com.pedrik.recognizer.service.analytic.ParsingTable;
+import com.pedrik.recognizer.service.analytic.TableDrivenParser;
+import com.pedrik.recognizer.service.analytic.TreeBuilderListener;
+import com.pedrik.recognizer.service.analytic.tree.Node;
+import com.pedrik.recognizer.service.analytic.tree.NonTerminalNode;
+import com.pedrik.recognizer.service.lexical.Lexer;
+import com.pedrik.recognizer.service.lexical.Token;
+import com.pedrik.recognizer.service.semantic.SemanticAnalyzer;
+import com.pedrik.recognizer.service.semantic.SemanticListener;
+import com.pedrik.recognizer.service.semantic.SymbolTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SemanticListenerTest {
+
+    private static final ParsingTable TABLE = ParsingTable.booleanExpressions();
+
+    private static final String[] FRAGMENTS = {"a", "b", "n", "z", "AND", "OR", "NOT", "(", ")"};
+
+    private static SymbolTable symbols() {
+        SymbolTable table = new SymbolTable();
+        table.declare("a", "boolean", 1, 1);
+        table.declare("b", "boolean", 1, 1);
+        table.declare("n", "int", 1, 1);
+        return table;
+    }
+
+    private static void assertSameInfo(Node expected, Node actual, String input) {
+        if (expected instanceof NonTerminalNode e) {
+            NonTerminalNode a = (NonTerminalNode) actual;
+            assertEquals(e.getSemanticInfo(), a.getSemanticInfo(), "SemanticInfo divergente em " + e.getName() + " para: " + input);
+            for (int i = 0; i < e.getChildren().size(); i++) {
+                assertSameInfo(e.getChildren().get(i), a.getChildren().get(i), input);
+            }
+        }
+    }
+
+    @Test
+    void testMatchesSemanticAnalyzer() {
+        Random random = new Random(20L);
+        int checked = 0;
+        for (int i = 0; i < 3000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = 1 + random.nextInt(10);
+            for (int j = 0; j < length; j++) {
+                sb.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]).append(' ');
+            }
+            String input = sb.toString();
+            List<Token> tokens = new Lexer(input).tokenize();
+
+            Node tree;
+            try {
+                tree = new TableDrivenParser(TABLE, tokens).parse();
+            } catch (RuntimeException e) {
+                continue;
+            }
+            SemanticAnalyzer analyzer = new SemanticAnalyzer(symbols());
+            analyzer.analyze(tree);
+
+            TreeBuilderListener builder = new TreeBuilderListener();
+            SemanticListener semantic = new SemanticListener(symbols(), builder);
+            new TableDrivenParser(TABLE, tokens).parse(semantic.andThen(builder));
+
+            assertEquals(analyzer.getErrors(), semantic.getErrors(), "Erros divergentes para: " + input);
+            assertSameInfo(tree, builder.getRoot(), input);
+            checked++;
+        }
+        assertTrue(checked > 100);
+    }
+
+    @Test
+    void testWithoutTree() {
+        SemanticListener semantic = new SemanticListener(symbols());
+        new TableDrivenParser(TABLE, new Lexer("a AND (b OR n) AND z").tokenize()).parse(semantic);
+        assertEquals(2, semantic.getErrors().size());
+        assertTrue(semantic.getErrors().get(0).contains("Uso de identificador não declarado: z"));
+        assertEquals("boolean", semantic.getRootInfo().getType());
+
+        SemanticListener valid = new SemanticListener(symbols());
+        new TableDrivenParser(TABLE, new Lexer("a AND (b OR a)").tokenize()).parse(valid);
+        assertFalse(valid.hasErrors());
+    }
+}
@@ -0,0 +1,63 @@
+package com.pedrik.recognizer.service;
+
+import com.pedrik.recognizer.service.semantic.SymbolTable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SymbolTableTest {
+
+    @Test
+    void testShadowingAndUndo() {
+        SymbolTable table = new SymbolTable();
+        assertTrue(table.declare("x", "int", 1, 1));
+        assertFalse(table.declare("x", "boolean", 2, 1));
+
+        table.enterScope();
+        assertEquals("int", table.getType("x"));
+        assertTrue(table.declare("x", "boolean", 3, 1));
+        assertTrue(table.declare("y", "int", 3, 5));
+        assertEquals("boolean", table.getType("x"));
+
+        table.enterScope();
+        assertEquals("boolean", table.getType("x"));
+        table.exitScope();
+
+        table.exitScope();
+        assertEquals("int", table.getType("x"));
+        assertFalse(table.isDeclared("y"));
+        assertNull(table.getType("y"));
+        assertFalse(table.isDeclared("z"));
+    }
+
+    @Test
+    void testInternedLookup() {
+        SymbolTable table = new SymbolTable();
+        int id = table.intern("flag");
+        assertEquals(id, table.intern("flag"));
+        assertEquals(SymbolTable.UNDECLARED, table.lookup(id));
+
+        assertTrue(table.declare(id, "boolean"));
+        int binding = table.lookup(id);
+        assertEquals(binding, table.lookup("flag"));
+        assertEquals("boolean", table.typeOf(binding));
+    }
+
+    @Test
+    void testManyScopes() {
+        SymbolTable table = new SymbolTable();
+        for (int i = 0; i < 1000; i++) {
+            table.enterScope();
+            table.declare("v", "t" + i, i, 1);
+            table.declare("v" + i, "int", i, 1);
+        }
+        assertEquals("t999", table.getType("v"));
+        for (int i = 999; i >= 0; i--) {
+            assertEquals("t" + i, table.getType("v"));
+            assertTrue(table.isDeclared("v" + i));
+            table.exitScope();
+            assertFalse(table.isDeclared("v" + i));
+        }
+        assertFalse(table.isDeclared("v"));
+    }
+}
@@ -0,0 +1,284 @@
+package com.pedrik.recognizer.service;
+
+import com.pedrik.recognizer.service.analytic.Diagnostic;
+import com.pedrik.recognizer.service.analytic.ParseListener;
+import com.pedrik.recognizer.service.analytic.ParseLogListener;
+import com.pedrik.recognizer.service.analytic.ParseResult;
+import com.pedrik.recognizer.service.analytic.ParsingTable;
+import com.pedrik.recognizer.service.analytic.RecursiveDescentParser;
+import com.pedrik.recognizer.service.analytic.TableDrivenParser;
+import com.pedrik.recognizer.service.analytic.tree.Node;
+import com.pedrik.recognizer.service.analytic.tree.NonTerminalNode;
+import com.pedrik.recognizer.service.lexical.DfaLexer;
+import com.pedrik.recognizer.service.lexical.Lexer;
+import com.pedrik.recognizer.service.lexical.LexerTokenStream;
+import com.pedrik.recognizer.service.lexical.PackedTokenBuffer;
+import com.pedrik.recognizer.service.lexical.PackedTokenStream;
+import com.pedrik.recognizer.service.lexical.Token;
+import com.pedrik.recognizer.service.lexical.TokenType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TableDrivenParserTest {
+
+    private static final ParsingTable TABLE = ParsingTable.booleanExpressions();
+
+    private static final String[] FRAGMENTS = {"a", "b", "AND", "OR", "NOT", "(", ")", "123", "=", "x"};
+
+    private static TableDrivenParser parser(String input) {
+        return new TableDrivenParser(TABLE, new Lexer(input).tokenize());
+    }
+
+    @Test
+    void testValidExpressions() {
+        assertDoesNotThrow(() -> parser("id").parse());
+        assertDoesNotThrow(() -> parser("id AND id OR id").parse());
+        assertDoesNotThrow(() -> parser("velocidade AND NOT (caindo OR subindo)").parse());
+    }
+
+    @Test
+    void testSyntaxErrors() {
+        assertTrue(assertThrows(RuntimeException.class, () -> parser("id AND ( id").parse()).getMessage().contains("esperado"));
+        assertTrue(assertThrows(RuntimeException.class, () -> parser("id AND 123").parse()).getMessage().contains("123"));
+        assertTrue(assertThrows(RuntimeException.class, () -> parser("id id").parse()).getMessage().contains("entrada não totalmente consumida"));
+        assertTrue(assertThrows(RuntimeException.class, () -> parser("").parse()).getMessage().contains("esperado"));
+    }
+
+    @Test
+    void testTokensMapToTerminalsByTypeAndLexeme() {
+        // Strings e comentários com o texto de um terminal não são o terminal
+        String[] inputs = {"\"(\" x )", "a \"AND\" b", "a /* OR */ b", "a // OR\n b", "\"id\""};
+        for (String input : inputs) {
+            assertThrows(RuntimeException.class, () -> parser(input).parse(), input);
+            assertThrows(RuntimeException.class,
+                    () -> new TableDrivenParser(TABLE, new LexerTokenStream(new DfaLexer(input))).validate(), input);
+            assertFalse(new TableDrivenParser(TABLE, new LexerTokenStream(new DfaLexer(input))).tryParse().isValid(), input);
+            assertThrows(RuntimeException.class, () -> new RecursiveDescentParser(new Lexer(input).tokenize()).parse(), input);
+        }
+        assertEquals(-1, TABLE.terminalOf(TokenType.STRING, "OR"));
+        assertEquals(-1, TABLE.terminalOf(TokenType.ERROR, "("));
+    }
+
+    @Test
+    void testValidateDoesNotMaterializeTokens() {
+        int[] materialized = {0};
+        PackedTokenStream stream = new PackedTokenStream(PackedTokenBuffer.tokenize("velocidade AND NOT (caindo OR subindo)")) {
+            @Override
+            public Token peek(int offset) {
+                materialized[0]++;
+                return super.peek(offset);
+            }
+        };
+        new TableDrivenParser(TABLE, stream).validate();
+        assertEquals(0, materialized[0]);
+    }
+
+    @Test
+    void testValidateOverLexerDoesNotMaterializeTokens() {
+        int[] materialized = {0};
+        String input = "velocidade AND NOT (caindo OR subindo)";
+        DfaLexer lexer = new DfaLexer(input) {
+            @Override
+            public Token nextToken() {
+                materialized[0]++;
+                return super.nextToken();
+            }
+        };
+        LexerTokenStream stream = new LexerTokenStream(lexer) {
+            @Override
+            public Token peek(int offset) {
+                materialized[0]++;
+                return super.peek(offset);
+            }
+
+            @Override
+            public Token next() {
+                materialized[0]++;
+                return super.next();
+            }
+        };
+        // O mesmo caminho do RecognizerService.validate
+        assertTrue(new TableDrivenParser(TABLE, stream).parseRecovering(ParseListener.NONE).isEmpty());
+        assertEquals(0, materialized[0]);
+
+        // Com erro, o token do diagnóstico é criado a partir do lookahead já varrido
+        List<Diagnostic> diagnostics = new TableDrivenParser(TABLE, new LexerTokenStream(new DfaLexer("a AND )")))
+                .parseRecovering(ParseListener.NONE);
+        assertEquals(")", diagnostics.get(0).getLexeme());
+        assertEquals(6, diagnostics.get(0).getStart());
+    }
+
+    @Test
+    void testMatchesRecursiveParser() {
+        Random random = new Random(11L);
+        for (int i = 0; i < 3000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = 1 + random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                sb.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]).append(' ');
+            }
+            String input = sb.toString();
+            List<Token> tokens = new Lexer(input).tokenize();
+
+            StringBuilder expected = new StringBuilder();
+            RecursiveDescentParser recursive = new RecursiveDescentParser(tokens);
+            recursive.setLogger(expected);
+            boolean expectedValid = accepts(recursive::parse);
+
+            StringBuilder actual = new StringBuilder();
+            TableDrivenParser tableDriven = new TableDrivenParser(TABLE, tokens);
+            tableDriven.setLogger(actual);
+            boolean actualValid = accepts(tableDriven::parse);
+
+            assertEquals(expectedValid, actualValid, "Resultado divergente para: " + input);
+            assertEquals(expectedValid, accepts(() -> new TableDrivenParser(TABLE, tokens).validate()),
+                    "Validação divergente para: " + input);
+
+            // Sem exceção, o primeiro diagnóstico é o erro que o modo que lança reportaria
+            ParseResult result = new TableDrivenParser(TABLE, tokens).tryParse();
+            assertEquals(expectedValid, result.isValid(), "Diagnóstico divergente para: " + input);
+            if (!expectedValid) {
+                String message = assertThrows(RuntimeException.class, () -> new TableDrivenParser(TABLE, tokens).parse()).getMessage();
+                assertEquals(message, result.getDiagnostics().get(0).getMessage());
+            }
+            if (expectedValid) {
+                assertEquals(expected.toString(), actual.toString(), "Árvore divergente para: " + input);
+            }
+        }
+    }
+
+    private static boolean accepts(Runnable parse) {
+        try {
+            parse.run();
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    @Test
+    void testDeepNestingDoesNotOverflowStack() {
+        int depth = 200_000;
+        String input = "(".repeat(depth) + "id" + ")".repeat(depth);
+        Node root = new TableDrivenParser(TABLE, new LexerTokenStream(new DfaLexer(input))).parse();
+        assertEquals("E", ((NonTerminalNode) root).getName());
+    }
+
+    @Test
+    void testOtherGrammar() {
+        // S → ( S ) | x, sem o terminal id
+        Map<String, List<List<String>>> grammar = new LinkedHashMap<>();
+        grammar.put("S", List.of(List.of("(", "S", ")"), List.of("x")));
+        ParsingTable table = ParsingTable.build("S", grammar);
+
+        assertDoesNotThrow(() -> new TableDrivenParser(table, new Lexer("((x))").tokenize()).parse());
+        assertThrows(RuntimeException.class, () -> new TableDrivenParser(table, new Lexer("((x)").tokenize()).parse());
+        assertThrows(RuntimeException.class, () -> new TableDrivenParser(table, new Lexer("(y)").tokenize()).parse());
+    }
+
+    @Test
+    void testListenerEvents() {
+        List<String> events = new ArrayList<>();
+        parser("NOT id").parse(new ParseListener() {
+            @Override
+            public void enterRule(String rule) {
+                events.add("+" + rule);
+            }
+
+            @Override
+            public void exitRule(String rule) {
+                events.add("-" + rule);
+            }
+
+            @Override
+            public void terminal(Token token) {
+                events.add(token.getLexeme());
+            }
+
+            @Override
+            public void epsilon() {
+                events.add("ε");
+            }
+        });
+        assertEquals(List.of("+E", "+T", "NOT", "+F", "id", "-F", "-T", "+E'", "ε", "-E'", "-E"), events);
+    }
+
+    @Test
+    void testLogListenerMatchesTreeLog() {
+        String input = "velocidade AND NOT (caindo OR subindo)";
+        StringBuilder fromTree = new StringBuilder();
+        TableDrivenParser treeParser = parser(input);
+        treeParser.setLogger(fromTree);
+        treeParser.parse();
+
+        StringBuilder fromEvents = new StringBuilder();
+        parser(input).parse(new ParseLogListener(fromEvents));
+        assertEquals(fromTree.toString(), fromEvents.toString());
+    }
+
+    @Test
+    void testRecoveryReportsEveryError() {
+        // ')' sem operando, '123' no lugar de um identificador e um token sobrando no fim
+        String input = "a AND ( b OR ) AND 123 c d";
+        TableDrivenParser parser = new TableDrivenParser(TABLE, new LexerTokenStream(new DfaLexer(input)));
+        ParseResult result = parser.tryParse();
+
+        List<Diagnostic> diagnostics = result.getDiagnostics();
+        assertEquals(List.of(Diagnostic.Code.NO_PRODUCTION, Diagnostic.Code.NO_PRODUCTION, Diagnostic.Code.TRAILING_INPUT),
+                diagnostics.stream().map(Diagnostic::getCode).toList());
+        assertEquals(List.of("NOT", "(", "id"), diagnostics.get(0).getExpected());
+        assertEquals(")", diagnostics.get(0).getLexeme());
+        assertEquals(input.indexOf(')'), diagnostics.get(0).getStart());
+        assertEquals("123", diagnostics.get(1).getLexeme());
+        assertEquals(List.of("$"), diagnostics.get(2).getExpected());
+        assertEquals("d", diagnostics.get(2).getLexeme());
+        assertNotNull(result.getRoot());
+    }
+
+    @Test
+    void testDiagnosticSpansCoverSourceText() {
+        String input = "a AND \"texto\" OR @";
+        List<Diagnostic> diagnostics = new TableDrivenParser(TABLE, new LexerTokenStream(new DfaLexer(input))).tryParse().getDiagnostics();
+        assertEquals(2, diagnostics.size());
+
+        // A string decodificada perde as aspas, mas o trecho as inclui
+        Diagnostic string = diagnostics.get(0);
+        assertEquals("texto", string.getLexeme());
+        assertEquals("\"texto\"", input.substring((int) string.getStart(), (int) string.getEnd()));
+
+        // O lexema do erro é a mensagem; o trecho é só o caractere inválido
+        Diagnostic invalid = diagnostics.get(1);
+        assertTrue(invalid.getLexeme().contains("@"));
+        assertEquals("@", input.substring((int) invalid.getStart(), (int) invalid.getEnd()));
+    }
+
+    @Test
+    void testRecoveryInsertsMissingTerminal() {
+        ParseResult result = parser("( a AND b").tryParse();
+        assertEquals(1, result.getDiagnostics().size());
+        Diagnostic diagnostic = result.getDiagnostics().get(0);
+        assertEquals(Diagnostic.Code.UNEXPECTED_TOKEN, diagnostic.getCode());
+        assertEquals(List.of(")"), diagnostic.getExpected());
+    }
+
+    @Test
+    void testRecoveryOnValidInput() {
+        StringBuilder expected = new StringBuilder();
+        TableDrivenParser throwing = parser("velocidade AND NOT (caindo OR subindo)");
+        throwing.setLogger(expected);
+        throwing.parse();
+
+        StringBuilder actual = new StringBuilder();
+        TableDrivenParser recovering = parser("velocidade AND NOT (caindo OR subindo)");
+        recovering.setLogger(actual);
+        assertTrue(recovering.tryParse().isValid());
+        assertEquals(expected.toString(), actual.toString());
+    }
+}
@@ -0,0 +1,145 @@
+package com.pedrik.recognizer.service;
+
+import com.pedrik.recognizer.service.analytic.ParsingTable;
+import com.pedrik.recognizer.service.analytic.TableDrivenParser;
+import com.pedrik.recognizer.service.analytic.tree.NonTerminalNode;
+import com.pedrik.recognizer.service.analytic.tree.TerminalNode;
+import com.pedrik.recognizer.service.analytic.tree.TreeVisitor;
+import com.pedrik.recognizer.service.analytic.tree.TreeWalker;
+import com.pedrik.recognizer.service.lexical.Lexer;
+import com.pedrik.recognizer.service.lexical.Token;
+import com.pedrik.recognizer.service.lexical.TokenType;
+import com.pedrik.recognizer.service.semantic.SemanticAnalyzer;
+import com.pedrik.recognizer.service.semantic.SymbolTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TreeWalkerTest {
+
+    private static NonTerminalNode parse(String input) {
+        return (NonTerminalNode) new TableDrivenParser(ParsingTable.booleanExpressions(), new Lexer(input).tokenize()).parse();
+    }
+
+    // A → x (A) y, aninhado 'depth' vezes
+    private static NonTerminalNode deepTree(int depth) {
+        NonTerminalNode root = new NonTerminalNode("A");
+        NonTerminalNode current = root;
+        for (int i = 0; i < depth; i++) {
+            current.addChild(new TerminalNode(new Token(TokenType.IDENTIFIER, "x" + i, 1, i + 1)));
+            NonTerminalNode next = new NonTerminalNode("A");
+            current.addChild(next);
+            current.addChild(new TerminalNode(new Token(TokenType.KEYWORD, "AND", 1, i + 1)));
+            current = next;
+        }
+        current.addChild(new TerminalNode(new Token(TokenType.BOOLEAN_LITERAL, "true", 1, 1)));
+        return root;
+    }
+
+    @Test
+    void testPreAndPostOrderWithDepth() {
+        List<String> events = new ArrayList<>();
+        TreeWalker.walk(parse("a AND b"), new TreeVisitor() {
+            @Override
+            public Action enterNonTerminal(NonTerminalNode node, int depth) {
+                events.add("+" + node.getName() + depth);
+                return Action.CONTINUE;
+            }
+
+            @Override
+            public Action exitNonTerminal(NonTerminalNode node, int depth) {
+                events.add("-" + node.getName() + depth);
+                return Action.CONTINUE;
+            }
+
+            @Override
+            public Action visitTerminal(TerminalNode node, int depth) {
+                events.add(node.getToken().getLexeme() + depth);
+                return Action.CONTINUE;
+            }
+        });
+        assertEquals("+E0", events.get(0));
+        assertEquals("-E0", events.get(events.size() - 1));
+        assertTrue(events.indexOf("a3") < events.indexOf("AND2"));
+        assertTrue(events.indexOf("AND2") < events.indexOf("b4"));
+        assertEquals(events.stream().filter(e -> e.startsWith("+")).count(),
+                events.stream().filter(e -> e.startsWith("-")).count());
+    }
+
+    @Test
+    void testSkipChildrenAndStop() {
+        NonTerminalNode tree = parse("a AND (b OR c)");
+        List<String> identifiers = new ArrayList<>();
+        boolean completed = TreeWalker.walk(tree, new TreeVisitor() {
+            @Override
+            public Action enterNonTerminal(NonTerminalNode node, int depth) {
+                return node.getName().equals("F") && node.getChildren().size() == 3 ? Action.SKIP_CHILDREN : Action.CONTINUE;
+            }
+
+            @Override
+            public Action visitTerminal(TerminalNode node, int depth) {
+                if (node.getToken().getType() == TokenType.IDENTIFIER) {
+                    identifiers.add(node.getToken().getLexeme());
+                }
+                return Action.CONTINUE;
+            }
+        });
+        assertTrue(completed);
+        assertEquals(List.of("a"), identifiers);
+
+        assertFalse(TreeWalker.walk(tree, new TreeVisitor() {
+            @Override
+            public Action visitTerminal(TerminalNode node, int depth) {
+                return Action.STOP;
+            }
+        }));
+        assertEquals("b", tree.getFirstTerminalWithType(TokenType.IDENTIFIER, "B").getToken().getLexeme());
+    }
+
+    @Test
+    void testNestedQueriesReuseWalkers() {
+        NonTerminalNode tree = parse("a AND NOT (b OR c)");
+        List<Integer> counts = new ArrayList<>();
+        TreeWalker.walk(tree, new TreeVisitor() {
+            @Override
+            public Action enterNonTerminal(NonTerminalNode node, int depth) {
+                if (node.getName().equals("E")) {
+                    counts.add(node.getAllIdentifiers().size());
+                }
+                return Action.CONTINUE;
+            }
+        });
+        assertEquals(List.of(3, 2), counts);
+
+        TreeWalker walker = new TreeWalker();
+        assertThrows(IllegalStateException.class, () -> walker.visit(tree, new TreeVisitor() {
+            @Override
+            public Action enterNonTerminal(NonTerminalNode node, int depth) {
+                walker.visit(node, new TreeVisitor() {
+                });
+                return Action.CONTINUE;
+            }
+        }));
+        assertTrue(walker.visit(tree, new TreeVisitor() {
+        }));
+    }
+
+    @Test
+    void testDeepTreesDoNotOverflowTheStack() {
+        int depth = 200_000;
+        NonTerminalNode tree = deepTree(depth);
+
+        assertEquals(depth, tree.getAllIdentifiers().size());
+        assertEquals("true", tree.getFirstTerminalWithType(TokenType.BOOLEAN_LITERAL).getToken().getLexeme());
+        assertNull(tree.getFirstTerminalWithType(TokenType.KEYWORD, "OR"));
+        assertNull(tree.getFirstTerminalWithType(TokenType.BOOLEAN_LITERAL, null));
+
+        SymbolTable table = new SymbolTable();
+        table.declare("x0", "boolean", 1, 1);
+        SemanticAnalyzer analyzer = new SemanticAnalyzer(table);
+        assertDoesNotThrow(() -> analyzer.analyze(tree));
+    }
+}
@@ -0,0 +1,29 @@
+package com.pedrik.recognizer.service.evaluation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConditionTest {
+
+    @Test
+    void testMaskAgreesOnArraysAndBits() {
+        // a AND NOT b AND c  e  a OR NOT b OR c, com a, b e c nas posições 0, 1 e 63
+        long required = 1L | 1L << 63;
+        long forbidden = 1L << 1;
+        Condition all = new Condition.Mask(required, forbidden, false);
+        Condition any = new Condition.Mask(required, forbidden, true);
+        for (int combination = 0; combination < 8; combination++) {
+            boolean[] values = new boolean[64];
+            values[0] = (combination & 1) != 0;
+            values[1] = (combination & 2) != 0;
+            values[63] = (combination & 4) != 0;
+            long bits = (values[0] ? 1L : 0) | (values[1] ? 2L : 0) | (values[63] ? 1L << 63 : 0);
+
+            assertEquals(values[0] && !values[1] && values[63], all.test(values));
+            assertEquals(all.test(bits), all.test(values));
+            assertEquals(values[0] || !values[1] || values[63], any.test(values));
+            assertEquals(any.test(bits), any.test(values));
+        }
+    }
+}